@@ -0,0 +1,122 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.tradebyte.todo_service.TodoServiceApplication;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.service.TodoService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures {@code GET /api/v1/todos/{id}} throughput with a bcrypt-encoded HTTP Basic password,
+ * once hashing on every request and once with the verified-credential cache. The todo is served
+ * from {@code todoById}, so authentication dominates. Besides requests per second it reports
+ * requests per CPU-second of the whole process (client threads included, the same for both runs).
+ */
+public final class AuthBenchmark {
+
+    private static final String USER = "benchmark";
+    private static final String PASSWORD = "benchmark-password";
+
+    private AuthBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int threads = Integer.parseInt(values.getOrDefault("threads", "8"));
+        Duration warmup = Duration.parse(values.getOrDefault("warmup", "PT5S"));
+        Duration duration = Duration.parse(values.getOrDefault("duration", "PT20S"));
+        String encoded = "{bcrypt}" + new BCryptPasswordEncoder().encode(PASSWORD);
+
+        System.out.printf("%-18s %10s %12s %12s%n", "credential cache", "requests", "req/s", "req/cpu-s");
+        bench(false, encoded, threads, warmup, duration);
+        bench(true, encoded, threads, warmup, duration);
+    }
+
+    private static void bench(boolean cache, String encoded, int threads, Duration warmup, Duration duration)
+            throws Exception {
+        ConfigurableApplicationContext context = SpringApplication.run(TodoServiceApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:auth;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.h2.console.enabled=false",
+                "--spring.security.user.name=" + USER,
+                "--spring.security.user.password=" + encoded,
+                "--logging.level.com.tradebyte=WARN",
+                "--resilience4j.ratelimiter.configs.tenant.limit-for-period=100000000",
+                "--todo.archive.enabled=false",
+                "--todo.security.credential-cache.enabled=" + cache);
+        try {
+            UUID id = context.getBean(TodoService.class)
+                    .create(USER, new TodoCreateRequest("auth benchmark", OffsetDateTime.now().plusYears(1))).id();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/todos/" + id))
+                    .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                            (USER + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8)))
+                    .GET().build();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            run(client, request, threads, warmup);
+            OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            long cpuBefore = os.getProcessCpuTime();
+            long requests = run(client, request, threads, duration);
+            double cpuSeconds = (os.getProcessCpuTime() - cpuBefore) / 1e9;
+
+            System.out.printf("%-18s %10d %12.0f %12.0f%n", cache ? "on" : "off", requests,
+                    requests / (duration.toMillis() / 1000.0), requests / cpuSeconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long run(HttpClient client, HttpRequest request, int threads, Duration duration)
+            throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        long end = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Unexpected status " + response.statusCode());
+                        }
+                        completed.increment();
+                    }
+                } catch (Exception e) {
+                    System.out.println("Worker stopped: " + e);
+                } finally {
+                    done.countDown();
+                }
+            }, "auth-" + t);
+            worker.start();
+        }
+        done.await();
+        return completed.sum();
+    }
+}
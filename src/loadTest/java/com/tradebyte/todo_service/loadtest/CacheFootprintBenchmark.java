@@ -0,0 +1,101 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.tradebyte.todo_service.cache.OffHeapTodoCache;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Heap footprint and GC cost of {@code todoById} on heap ({@link ConcurrentMapCache}) versus
+ * off heap ({@link OffHeapTodoCache}). For each entry count it fills the cache, reports retained
+ * heap after a full GC, then churns reads and overwrites and reports collection count and time.
+ * <p>
+ * Run with enough heap and direct memory for the largest size, e.g.
+ * {@code -Xmx12g -XX:MaxDirectMemorySize=4g}.
+ */
+public final class CacheFootprintBenchmark {
+
+    private CacheFootprintBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String[] sizes = values.getOrDefault("entries", "1000000,5000000,10000000").split(",");
+        int churn = Integer.parseInt(values.getOrDefault("churn", "5000000"));
+
+        System.out.printf("%-9s %10s %12s %12s %10s %10s%n",
+                "cache", "entries", "heap MB", "off-heap MB", "GCs", "GC ms");
+        for (String size : sizes) {
+            int entries = Integer.parseInt(size.trim());
+            measure("heap", new ConcurrentMapCache("todoById"), entries, churn, 0);
+            OffHeapTodoCache offHeap = new OffHeapTodoCache("todoById", entries, (long) entries * 64);
+            measure("off-heap", offHeap, entries, churn, offHeap.offHeapBytes());
+        }
+    }
+
+    private static void measure(String name, Cache cache, int entries, int churn, long offHeapBytes) {
+        long baseline = usedHeapAfterGc();
+        Random random = new Random(42);
+        UUID[] ids = new UUID[entries];
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < entries; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            cache.put(ids[i], response(ids[i], i, now));
+        }
+        // the id array is needed for the churn phase in both runs; exclude it from the footprint
+        long retained = usedHeapAfterGc() - baseline - (long) entries * 32;
+
+        long[] before = gcTotals();
+        for (int i = 0; i < churn; i++) {
+            UUID id = ids[random.nextInt(entries)];
+            if (i % 4 == 0) {
+                cache.put(id, response(id, i, now));
+            } else {
+                cache.get(id);
+            }
+        }
+        long[] after = gcTotals();
+
+        System.out.printf("%-9s %10d %12.1f %12.1f %10d %10d%n", name, entries, retained / 1e6, offHeapBytes / 1e6,
+                after[0] - before[0], after[1] - before[1]);
+        cache.clear();
+    }
+
+    private static TodoResponse response(UUID id, int i, OffsetDateTime now) {
+        return new TodoResponse(id, "Benchmark todo number " + i, i % 3 == 0 ? TodoStatus.DONE : TodoStatus.NOT_DONE,
+                now.minusDays(i % 30), now.plusDays(i % 365), i % 3 == 0 ? now : null);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+}
@@ -0,0 +1,84 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.tradebyte.todo_service.TodoServiceApplication;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.service.TodoService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how long the past-due sweep takes to catch up with a backlog of overdue todos, as
+ * after downtime: for each {@code --rows} count and {@code --workers} setting a fresh database is
+ * seeded with that many overdue NOT_DONE todos, then {@code markPastDueIfRequired} runs once.
+ * The connection pool is sized to the workers plus the two reserved connections.
+ */
+public final class CatchUpBenchmark {
+
+    private static final String OWNER = "benchmark";
+    private static final int SEED_CHUNK = 10_000;
+
+    private CatchUpBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String[] rows = values.getOrDefault("rows", "100000,1000000").split(",");
+        String[] workers = values.getOrDefault("workers", "1,4").split(",");
+        int chunkSize = Integer.parseInt(values.getOrDefault("chunk-size", "1000"));
+
+        System.out.printf("%10s %8s %10s %12s %12s%n", "rows", "workers", "marked", "seconds", "rows/s");
+        for (String count : rows) {
+            for (String workerCount : workers) {
+                bench(Integer.parseInt(count.trim()), Integer.parseInt(workerCount.trim()), chunkSize);
+            }
+        }
+    }
+
+    private static void bench(int rows, int workers, int chunkSize) {
+        ConfigurableApplicationContext context = SpringApplication.run(TodoServiceApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:catch-up-" + rows + "-" + workers + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + (workers + 2),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.com.tradebyte=WARN",
+                "--logging.level.com.tradebyte.todo_service.service.PastDueSweeper=INFO",
+                "--todo.archive.enabled=false",
+                "--todo.series.enabled=false",
+                "--todo.past-due.enabled=false",
+                "--todo.past-due.chunk-size=" + chunkSize,
+                "--todo.past-due.catch-up.workers=" + workers);
+        try {
+            TodoService service = context.getBean(TodoService.class);
+            OffsetDateTime due = OffsetDateTime.now().minusHours(1);
+            List<TodoCreateRequest> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = 0; i < rows; i++) {
+                chunk.add(new TodoCreateRequest("Overdue todo " + i, due.minusSeconds(i)));
+                if (chunk.size() == SEED_CHUNK || i == rows - 1) {
+                    service.createAll(OWNER, chunk);
+                    chunk.clear();
+                }
+            }
+
+            long start = System.nanoTime();
+            int marked = service.markPastDueIfRequired();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%10d %8d %10d %12.2f %12.0f%n", rows, workers, marked, seconds, marked / seconds);
+        } finally {
+            context.close();
+        }
+    }
+}
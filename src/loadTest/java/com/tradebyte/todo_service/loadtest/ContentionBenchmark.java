@@ -0,0 +1,116 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.tradebyte.todo_service.TodoServiceApplication;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import com.tradebyte.todo_service.service.TodoService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop contention benchmark for status transitions: {@code --threads} workers
+ * toggle done/not-done on only {@code --hot-todos} todos through {@link TodoService},
+ * bypassing HTTP. Reports throughput and latency, then checks that every acknowledged
+ * transition is reflected in the todo's version (no lost updates).
+ */
+public final class ContentionBenchmark {
+
+    private static final String OWNER = "benchmark";
+
+    private ContentionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int threads = Integer.parseInt(values.getOrDefault("threads", "32"));
+        int hotTodos = Integer.parseInt(values.getOrDefault("hot-todos", "4"));
+        Duration duration = Duration.parse(values.getOrDefault("duration", "PT20S"));
+
+        ConfigurableApplicationContext context = SpringApplication.run(TodoServiceApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.com.tradebyte=WARN",
+                "--todo.archive.enabled=false");
+        try {
+            TodoService service = context.getBean(TodoService.class);
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < hotTodos; i++) {
+                ids.add(service.create(OWNER, new TodoCreateRequest("hot " + i, OffsetDateTime.now().plusYears(1))).id());
+            }
+            run(service, context.getBean(TodoRepository.class), ids, threads, duration);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(TodoService service, TodoRepository repo, List<UUID> ids, int threads, Duration duration)
+            throws InterruptedException {
+        Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(10), 3);
+        Map<UUID, LongAdder> acknowledged = new HashMap<>();
+        ids.forEach(id -> acknowledged.put(id, new LongAdder()));
+        LongAdder failures = new LongAdder();
+
+        long end = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    UUID id = ids.get(random.nextInt(ids.size()));
+                    long start = System.nanoTime();
+                    try {
+                        if (random.nextBoolean()) {
+                            service.markDone(OWNER, id);
+                        } else {
+                            service.markNotDone(OWNER, id);
+                        }
+                        acknowledged.get(id).increment();
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                    latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                            latency.getHighestTrackableValue()));
+                }
+                done.countDown();
+            }, "contention-" + t);
+            worker.start();
+        }
+        done.await();
+
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%d threads on %d todos for %s%n", threads, ids.size(), duration);
+        System.out.printf("transitions/s %.0f, failures %d%n", latency.getTotalCount() / seconds, failures.sum());
+        System.out.printf("latency ms p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0);
+
+        for (UUID id : ids) {
+            long version = repo.findById(id).orElseThrow().getVersion();
+            long expected = acknowledged.get(id).sum();
+            System.out.printf("%s acknowledged %d, version %d%s%n", id, expected, version,
+                    version == expected ? "" : "  <-- LOST UPDATES");
+        }
+    }
+}
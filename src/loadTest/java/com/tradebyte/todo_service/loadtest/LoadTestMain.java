@@ -0,0 +1,279 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.tradebyte.todo_service.TodoServiceApplication;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.service.TodoService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for {@code /api/v1/todos}.
+ * Starts the application on a random port with an in-memory H2 seeded with
+ * {@code --todos} items (unless {@code --base-url} points at a running instance),
+ * then issues requests at a fixed arrival rate regardless of response times.
+ * Latency is measured from each request's intended start time, which corrects
+ * for coordinated omission when the server falls behind.
+ */
+public final class LoadTestMain {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = settings.baseUrl();
+        List<UUID> ids;
+        if (baseUrl == null) {
+            context = startEmbedded(settings);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            ids = seed(context.getBean(TodoService.class), settings);
+        } else {
+            ids = seedOverHttp(baseUrl, settings);
+        }
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Map<Operation, EndpointStats> stats = run(client, baseUrl, ids, settings);
+            report(stats, settings);
+        } finally {
+            clientExecutor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+
+    private static ConfigurableApplicationContext startEmbedded(LoadTestSettings settings) {
+        String[] properties = {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.h2.console.enabled=false",
+                "--spring.security.user.name=" + settings.user(),
+                "--spring.security.user.password=" + settings.password(),
+                "--logging.level.com.tradebyte=WARN",
+                "--resilience4j.ratelimiter.configs.tenant.limit-for-period=1000000",
+                "--resilience4j.ratelimiter.configs.tenant.limit-refresh-period=1s",
+                "--resilience4j.ratelimiter.configs.tenant.timeout-duration=0",
+                "--todo.archive.enabled=false"
+        };
+        return SpringApplication.run(TodoServiceApplication.class, properties);
+    }
+
+    private static List<UUID> seed(TodoService service, LoadTestSettings settings) {
+        Random random = new Random(settings.seed());
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<UUID> ids = new ArrayList<>(settings.todos());
+        for (int i = 0; i < settings.todos(); i++) {
+            OffsetDateTime due = now.plusDays(30 + random.nextInt(365));
+            ids.add(service.create(settings.user(), new TodoCreateRequest("Load test todo " + i, due)).id());
+        }
+        // Zipf ranks map onto a seeded permutation so hot ids are not simply the oldest rows
+        Collections.shuffle(ids, new Random(settings.seed()));
+        System.out.printf("Seeded %d todos%n", ids.size());
+        return ids;
+    }
+
+    private static List<UUID> seedOverHttp(String baseUrl, LoadTestSettings settings) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        Random random = new Random(settings.seed());
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<UUID> ids = new ArrayList<>(settings.todos());
+        for (int i = 0; i < settings.todos(); i++) {
+            OffsetDateTime due = now.plusDays(30 + random.nextInt(365));
+            HttpResponse<String> response = client.send(
+                    request(baseUrl + "/api/v1/todos", settings)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(createBody("Load test todo " + i, due)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            String body = response.body();
+            int idStart = body.indexOf("\"id\":\"") + 6;
+            ids.add(UUID.fromString(body.substring(idStart, idStart + 36)));
+        }
+        Collections.shuffle(ids, new Random(settings.seed()));
+        System.out.printf("Seeded %d todos over HTTP%n", ids.size());
+        return ids;
+    }
+
+
+    private static Map<Operation, EndpointStats> run(HttpClient client, String baseUrl, List<UUID> ids,
+                                                     LoadTestSettings settings) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : settings.mix().keySet()) {
+            stats.put(op, new EndpointStats());
+        }
+
+        Random random = new Random(settings.seed());
+        ZipfianGenerator popularity = new ZipfianGenerator(ids.size(), settings.zipfTheta(), random);
+        Operation[] wheel = wheel(settings.mix());
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        System.out.printf("Running %.0f req/s for %s (+%s warmup) against %s%n",
+                settings.rate(), settings.duration(), settings.warmup(), baseUrl);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation op = wheel[random.nextInt(wheel.length)];
+            UUID id = ids.get(popularity.next());
+            HttpRequest req = request(op, id, baseUrl, random, settings);
+            boolean measured = intended >= measureFrom;
+
+            inFlight.acquire();
+            client.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                inFlight.release();
+                if (measured) {
+                    stats.get(op).record(latencyMicros, response == null ? -1 : response.statusCode(), error);
+                }
+            });
+        }
+
+        if (!inFlight.tryAcquire(settings.maxInFlight(), 30, TimeUnit.SECONDS)) {
+            System.out.println("WARNING: requests still in flight after 30s drain");
+        }
+        return stats;
+    }
+
+    private static HttpRequest request(Operation op, UUID id, String baseUrl, Random random,
+                                       LoadTestSettings settings) {
+        String todos = baseUrl + "/api/v1/todos";
+        return switch (op) {
+            case CREATE -> request(todos, settings)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(createBody("Generated todo " + random.nextInt(),
+                            OffsetDateTime.now(ZoneOffset.UTC).plusDays(30))))
+                    .build();
+            case GET -> request(todos + "/" + id, settings).GET().build();
+            case LIST -> request(todos + "?all=" + random.nextBoolean(), settings)
+                    .header("Accept-Encoding", "gzip")
+                    .GET().build();
+            case MARK_DONE -> request(todos + "/" + id + "/done", settings)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case MARK_NOT_DONE -> request(todos + "/" + id + "/not-done", settings)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case UPDATE_DESCRIPTION -> request(todos + "/" + id + "/description", settings)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"description\":\"Updated " + random.nextInt() + "\"}"))
+                    .build();
+        };
+    }
+
+    private static HttpRequest.Builder request(String uri, LoadTestSettings settings) {
+        String credentials = Base64.getEncoder().encodeToString(
+                (settings.user() + ":" + settings.password()).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Basic " + credentials);
+    }
+
+    private static String createBody(String description, OffsetDateTime due) {
+        return "{\"description\":\"" + description + "\",\"dueDatetime\":\"" + due + "\"}";
+    }
+
+    private static Operation[] wheel(Map<Operation, Integer> mix) {
+        List<Operation> wheel = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(op);
+            }
+        });
+        return wheel.toArray(Operation[]::new);
+    }
+
+
+    private static void report(Map<Operation, EndpointStats> stats, LoadTestSettings settings) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        System.out.println();
+        System.out.printf("%-18s %9s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "non2xx", "errors");
+        for (Map.Entry<Operation, EndpointStats> e : stats.entrySet()) {
+            EndpointStats s = e.getValue();
+            total.add(s.latency);
+            printRow(e.getKey().key(), s.latency, seconds, s.non2xx.sum(), s.errors.sum());
+        }
+        long non2xx = stats.values().stream().mapToLong(s -> s.non2xx.sum()).sum();
+        long errors = stats.values().stream().mapToLong(s -> s.errors.sum()).sum();
+        printRow("TOTAL", total, seconds, non2xx, errors);
+    }
+
+    private static void printRow(String name, Histogram h, double seconds, long non2xx, long errors) {
+        System.out.printf("%-18s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+                name, h.getTotalCount(), h.getTotalCount() / seconds,
+                h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0,
+                non2xx, errors);
+    }
+
+
+    private static final class EndpointStats {
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder non2xx = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyMicros, int status, Throwable error) {
+            latency.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            if (error != null) {
+                errors.increment();
+            } else if (status < 200 || status >= 300) {
+                non2xx.increment();
+            }
+        }
+    }
+}
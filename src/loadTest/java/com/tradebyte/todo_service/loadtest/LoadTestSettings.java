@@ -0,0 +1,68 @@
+package com.tradebyte.todo_service.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line settings, given as {@code --key=value}. Every key has a default, so a bare
+ * run is reproducible: same seed, same id popularity, same request sequence.
+ */
+record LoadTestSettings(
+        String baseUrl,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        long seed,
+        int todos,
+        double zipfTheta,
+        Map<Operation, Integer> mix,
+        int maxInFlight,
+        String user,
+        String password
+) {
+
+    private static final String DEFAULT_MIX =
+            "create:5,get:50,list:10,markDone:15,markNotDone:15,updateDescription:5";
+
+    LoadTestSettings {
+        // the generator's closed form needs 0 < theta < 1; at 1 and above it yields garbage ranks
+        if (!(zipfTheta > 0 && zipfTheta < 1)) {
+            throw new IllegalArgumentException("--zipf must be between 0 and 1 (exclusive) but was " + zipfTheta);
+        }
+    }
+
+    static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestSettings(
+                values.get("base-url"),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("todos", "10000")),
+                Double.parseDouble(values.getOrDefault("zipf", "0.99")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "512")),
+                values.getOrDefault("user", "admin"),
+                values.getOrDefault("password", "admin")
+        );
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tradebyte.todo_service.loadtest;
+
+/**
+ * Request types in the workload mix, named after the {@code TodoController} endpoints.
+ */
+enum Operation {
+    CREATE("create"),
+    GET("get"),
+    LIST("list"),
+    MARK_DONE("markDone"),
+    MARK_NOT_DONE("markNotDone"),
+    UPDATE_DESCRIPTION("updateDescription");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equalsIgnoreCase(key)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'");
+    }
+}
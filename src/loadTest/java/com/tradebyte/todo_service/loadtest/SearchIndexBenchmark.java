@@ -0,0 +1,168 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.search.TodoSearchIndex;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Query latency and memory of {@link TodoSearchIndex} per million todos. For each size it indexes
+ * {@code --todos} descriptions of Zipf-distributed words spread over {@code --owners} tenants,
+ * reports retained heap and {@link TodoSearchIndex#estimatedMemoryBytes()}, then times one-term,
+ * two-term and short-prefix queries. Finally it archives half of the todos, indexes as many new
+ * ones, and reports the heap again: with postings removed on archive it stays flat.
+ * <p>
+ * Run with enough heap for the largest size, e.g. {@code -Xmx8g}.
+ */
+public final class SearchIndexBenchmark {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private SearchIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String[] sizes = values.getOrDefault("todos", "1000000,5000000").split(",");
+        int owners = Integer.parseInt(values.getOrDefault("owners", "1000"));
+        int vocabulary = Integer.parseInt(values.getOrDefault("vocabulary", "50000"));
+        int words = Integer.parseInt(values.getOrDefault("words", "6"));
+        int queries = Integer.parseInt(values.getOrDefault("queries", "100000"));
+        long seed = Long.parseLong(values.getOrDefault("seed", "42"));
+
+        String[] dictionary = dictionary(vocabulary, new Random(seed));
+        System.out.printf("%10s %-14s %10s %10s %10s %10s %12s%n",
+                "todos", "phase", "MB", "MB/1M", "p50 us", "p99 us", "max us");
+        for (String size : sizes) {
+            int todos = Integer.parseInt(size.trim());
+            measure(todos, owners, dictionary, words, queries, seed);
+        }
+    }
+
+    private static void measure(int todos, int owners, String[] dictionary, int words, int queries, long seed) {
+        Random random = new Random(seed);
+        ZipfianGenerator zipf = new ZipfianGenerator(dictionary.length, 0.9, random);
+        UUID[] ids = new UUID[todos];
+        for (int i = 0; i < todos; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        long baseline = usedHeapAfterGc();
+
+        // the index never looks at the repository unless it is rebuilt
+        TodoSearchIndex index = new TodoSearchIndex(null);
+        long start = System.nanoTime();
+        for (int i = 0; i < todos; i++) {
+            index.index(owner(i, owners), ids[i], description(dictionary, zipf, words), status(i));
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long retained = usedHeapAfterGc() - baseline;
+        report(todos, "heap", retained);
+        report(todos, "estimated", index.estimatedMemoryBytes());
+        System.out.printf("%10d %-14s %10d ms%n", todos, "build", buildMillis);
+
+        query(index, todos, owners, "one term", queries, i -> dictionary[zipf.next()]);
+        query(index, todos, owners, "two terms", queries,
+                i -> dictionary[zipf.next()] + " " + dictionary[zipf.next()]);
+        query(index, todos, owners, "prefix", queries, i -> dictionary[zipf.next()].substring(0, 2));
+
+        // archive every other todo and create as many new ones, as a month of archival would
+        Random churn = new Random(seed + 1);
+        Set<UUID> archived = new HashSet<>(todos);
+        for (int i = 0; i < todos; i += 2) {
+            archived.add(ids[i]);
+        }
+        index.removeAll(archived);
+        archived.clear();
+        for (int i = 0; i < todos; i += 2) {
+            ids[i] = new UUID(churn.nextLong(), churn.nextLong());
+            index.index(owner(i, owners), ids[i], description(dictionary, zipf, words), status(i));
+        }
+        report(todos, "after churn", usedHeapAfterGc() - baseline);
+        System.out.printf("%10d %-14s %10d todos%n", todos, "indexed", index.size());
+    }
+
+    private static void query(TodoSearchIndex index, int todos, int owners, String name, int queries,
+                              IntFunction<String> text) {
+        Random random = new Random(7);
+        for (int i = 0; i < Math.min(queries, 1_000); i++) {
+            index.search(owner(random.nextInt(owners), owners), text.apply(i), null, 0, 20);
+        }
+        Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long hits = 0;
+        for (int i = 0; i < queries; i++) {
+            String owner = owner(random.nextInt(owners), owners);
+            String q = text.apply(i);
+            long t = System.nanoTime();
+            hits += index.search(owner, q, i % 4 == 0 ? TodoStatus.NOT_DONE : null, 0, 20).total();
+            latency.recordValue(Math.min(System.nanoTime() - t, HIGHEST_TRACKABLE_NANOS));
+        }
+        System.out.printf("%10d %-14s %10s %10s %10.1f %10.1f %12.1f  (%.1f hits/query)%n", todos, name, "", "",
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0, (double) hits / queries);
+    }
+
+    private static void report(int todos, String phase, long bytes) {
+        System.out.printf("%10d %-14s %10.1f %10.1f%n", todos, phase, bytes / 1e6, bytes / 1e6 * 1_000_000 / todos);
+    }
+
+    private static String[] dictionary(int size, Random random) {
+        Set<String> words = new HashSet<>(size * 2);
+        while (words.size() < size) {
+            char[] word = new char[3 + random.nextInt(8)];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            }
+            words.add(new String(word));
+        }
+        String[] ranked = words.toArray(String[]::new);
+        // rank order must not depend on HashSet iteration order
+        Arrays.sort(ranked);
+        Collections.shuffle(Arrays.asList(ranked), random);
+        return ranked;
+    }
+
+    private static String description(String[] dictionary, ZipfianGenerator zipf, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(dictionary[zipf.next()]);
+        }
+        return text.toString();
+    }
+
+    private static String owner(int i, int owners) {
+        return "tenant-" + (i % owners);
+    }
+
+    private static TodoStatus status(int i) {
+        return i % 3 == 0 ? TodoStatus.DONE : TodoStatus.NOT_DONE;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
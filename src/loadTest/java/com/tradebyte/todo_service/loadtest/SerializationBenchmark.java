@@ -0,0 +1,170 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedInputStream;
+import com.tradebyte.todo_service.config.TodoProtobufHttpMessageConverter;
+import com.tradebyte.todo_service.config.WebConfig;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Payload size and encode/decode cost of a todo list in each negotiated encoding: JSON, CBOR,
+ * Smile (configured as in {@code WebConfig}) and the hand-written Protobuf converter. For each
+ * {@code --items} count it warms up, then reports bytes and mean encode and decode time per list.
+ */
+public final class SerializationBenchmark {
+
+    private static final TypeReference<List<TodoResponse>> TODO_LIST = new TypeReference<>() {
+    };
+
+    // keeps the JIT from dropping the measured calls
+    private static volatile long blackhole;
+
+    private SerializationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String[] sizes = values.getOrDefault("items", "1000,100000").split(",");
+        // encoded todos per measurement; smaller lists are encoded more often
+        long budget = Long.parseLong(values.getOrDefault("todos", "5000000"));
+
+        Codec[] codecs = {
+                new JacksonCodec("json", Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()),
+                new JacksonCodec("cbor", WebConfig.binaryMapper(Jackson2ObjectMapperBuilder.cbor())),
+                new JacksonCodec("smile", WebConfig.binaryMapper(Jackson2ObjectMapperBuilder.smile())),
+                new ProtobufCodec()
+        };
+
+        System.out.printf("%-9s %10s %12s %10s %14s %14s%n",
+                "format", "items", "bytes", "vs json", "encode us", "decode us");
+        for (String size : sizes) {
+            List<TodoResponse> todos = todos(Integer.parseInt(size.trim()));
+            int iterations = (int) Math.max(5, budget / todos.size());
+            long jsonBytes = 0;
+            for (Codec codec : codecs) {
+                byte[] encoded = codec.encode(todos);
+                if (!codec.decode(encoded).equals(todos)) {
+                    throw new IllegalStateException(codec.name() + " did not round-trip the list");
+                }
+                jsonBytes = jsonBytes == 0 ? encoded.length : jsonBytes;
+
+                measure(codec, todos, encoded, iterations);
+                double[] micros = measure(codec, todos, encoded, iterations);
+                System.out.printf("%-9s %10d %12d %9.0f%% %14.1f %14.1f%n", codec.name(), todos.size(),
+                        encoded.length, 100.0 * encoded.length / jsonBytes, micros[0], micros[1]);
+            }
+        }
+    }
+
+    // mean encode and decode time in microseconds
+    private static double[] measure(Codec codec, List<TodoResponse> todos, byte[] encoded, int iterations)
+            throws IOException {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += codec.encode(todos).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += codec.decode(encoded).size();
+        }
+        long decodeNanos = System.nanoTime() - start;
+        blackhole = sink;
+        return new double[]{encodeNanos / 1e3 / iterations, decodeNanos / 1e3 / iterations};
+    }
+
+    private static List<TodoResponse> todos(int count) {
+        Random random = new Random(42);
+        // UTC and microsecond precision, as the binary encodings return them
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+        List<TodoResponse> todos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean done = i % 3 == 0;
+            todos.add(new TodoResponse(new UUID(random.nextLong(), random.nextLong()), "Benchmark todo number " + i,
+                    done ? TodoStatus.DONE : TodoStatus.NOT_DONE, now.minusDays(i % 30), now.plusDays(i % 365),
+                    done ? now : null));
+        }
+        return todos;
+    }
+
+
+    private interface Codec {
+        String name();
+
+        byte[] encode(List<TodoResponse> todos) throws IOException;
+
+        List<TodoResponse> decode(byte[] bytes) throws IOException;
+    }
+
+    private record JacksonCodec(String name, ObjectMapper mapper) implements Codec {
+        @Override
+        public byte[] encode(List<TodoResponse> todos) throws IOException {
+            return mapper.writeValueAsBytes(todos);
+        }
+
+        @Override
+        public List<TodoResponse> decode(byte[] bytes) throws IOException {
+            return mapper.readValue(bytes, TODO_LIST);
+        }
+    }
+
+    private static final class ProtobufCodec implements Codec {
+        private final TodoProtobufHttpMessageConverter converter = new TodoProtobufHttpMessageConverter();
+
+        @Override
+        public String name() {
+            return "protobuf";
+        }
+
+        @Override
+        public byte[] encode(List<TodoResponse> todos) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            HttpHeaders headers = new HttpHeaders();
+            converter.write(todos, TodoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+            });
+            return body.toByteArray();
+        }
+
+        @Override
+        public List<TodoResponse> decode(byte[] bytes) throws IOException {
+            return TodoProtobufHttpMessageConverter.readTodoList(CodedInputStream.newInstance(bytes));
+        }
+    }
+}
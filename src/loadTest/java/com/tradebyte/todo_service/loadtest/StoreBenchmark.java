@@ -0,0 +1,116 @@
+package com.tradebyte.todo_service.loadtest;
+
+import com.tradebyte.todo_service.TodoServiceApplication;
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the JPA repository with the in-memory store on the operations {@code TodoService}
+ * issues, single-threaded and without caches: lookup by id, status transitions, the
+ * not-done list and a filtered list. Both stores are seeded with the same {@code --todos}.
+ */
+public final class StoreBenchmark {
+
+    private static final String OWNER = "benchmark";
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private StoreBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int todos = Integer.parseInt(values.getOrDefault("todos", "20000"));
+        int iterations = Integer.parseInt(values.getOrDefault("iterations", "20000"));
+        long seed = Long.parseLong(values.getOrDefault("seed", "42"));
+
+        System.out.printf("%-10s %-16s %10s %10s %10s %10s%n", "store", "operation", "ops/s", "p50 us", "p99 us", "max us");
+        bench("jpa", todos, iterations, seed);
+        bench("in-memory", todos, iterations, seed);
+    }
+
+    private static void bench(String store, int todos, int iterations, long seed) throws Exception {
+        Path dir = Files.createTempDirectory("store-benchmark");
+        List<String> properties = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:store-" + store + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.com.tradebyte=WARN",
+                "--todo.archive.enabled=false",
+                "--todo.in-memory.dir=" + dir));
+        if (store.equals("in-memory")) {
+            properties.add("--spring.profiles.active=in-memory");
+        }
+
+        ConfigurableApplicationContext context = SpringApplication.run(TodoServiceApplication.class,
+                properties.toArray(String[]::new));
+        try {
+            TodoRepository repo = context.getBean(TodoRepository.class);
+            Random random = new Random(seed);
+            OffsetDateTime now = OffsetDateTime.now();
+            List<UUID> ids = new ArrayList<>(todos);
+            for (int i = 0; i < todos; i++) {
+                TodoItem item = new TodoItem();
+                item.setOwner(OWNER);
+                item.setDescription("Benchmark todo " + i);
+                item.setStatus(TodoStatus.NOT_DONE);
+                item.setCreationDatetime(now.minusDays(random.nextInt(30)));
+                item.setDueDatetime(now.plusDays(1 + random.nextInt(365)));
+                ids.add(repo.save(item).getId());
+            }
+            TodoFilter nextWeek = new TodoFilter(Set.of(TodoStatus.NOT_DONE), null, now.plusDays(7),
+                    null, null, null, null, null, null);
+
+            run(store, "findById", iterations, i -> repo.findById(ids.get(random.nextInt(todos))));
+            run(store, "markDone", iterations, i -> repo.markDoneUnlessPastDue(ids.get(i % todos), OWNER,
+                    OffsetDateTime.now()));
+            run(store, "markNotDone", iterations, i -> repo.markNotDoneUnlessPastDue(ids.get(i % todos), OWNER));
+            run(store, "findByOwnerAndStatus", Math.max(1, iterations / 100),
+                    i -> repo.findByOwnerAndStatus(OWNER, TodoStatus.NOT_DONE));
+            run(store, "findFiltered", Math.max(1, iterations / 100), i -> repo.findFiltered(OWNER, nextWeek));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(String store, String operation, int iterations, IntConsumer op) {
+        for (int i = 0; i < Math.min(iterations, 1_000); i++) {
+            op.accept(i);
+        }
+        Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long t = System.nanoTime();
+            op.accept(i);
+            latency.recordValue(Math.min(System.nanoTime() - t, HIGHEST_TRACKABLE_NANOS));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-10s %-16s %10.0f %10.1f %10.1f %10.1f%n", store, operation, iterations / seconds,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+    }
+}
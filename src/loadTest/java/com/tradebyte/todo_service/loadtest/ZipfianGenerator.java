@@ -0,0 +1,50 @@
+package com.tradebyte.todo_service.loadtest;
+
+import java.util.Random;
+
+/**
+ * Zipfian distribution over {@code [0, items)} (Gray et al., "Quickly Generating
+ * Billion-Record Synthetic Databases"): rank 0 is the most popular item. The skew
+ * {@code theta} must lie in {@code (0, 1)}; values closer to 1 concentrate more traffic on
+ * the top ranks.
+ */
+class ZipfianGenerator {
+
+    private final int items;
+    private final double theta;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+    private final Random random;
+
+    ZipfianGenerator(int items, double theta, Random random) {
+        this.items = items;
+        this.theta = theta;
+        this.random = random;
+        this.zetan = zeta(items, theta);
+        double zeta2 = zeta(2, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetan);
+    }
+
+    int next() {
+        double u = random.nextDouble();
+        double uz = u * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, items - 1);
+        }
+        int rank = (int) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
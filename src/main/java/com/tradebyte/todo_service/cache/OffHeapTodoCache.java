@@ -0,0 +1,596 @@
+package com.tradebyte.todo_service.cache;
+
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link Cache} for {@code todoById} that keeps entries off the Java heap.
+ * <p>
+ * Each entry is a fixed 56-byte record in a direct buffer: the two UUID longs as key,
+ * status, creation/due/done as epoch microseconds with their UTC offsets in quarter hours,
+ * and a reference bit. Descriptions are UTF-8 bytes in a per-segment arena that is compacted
+ * when full. The table is split into segments, each an open-addressing hash table with its
+ * own lock; a full segment evicts with the clock algorithm, passing over (and clearing the
+ * bit of) entries read since the hand last came by. A {@link TodoResponse} is only
+ * materialized on read, with each timestamp at its original offset and truncated to
+ * microseconds. Values with an offset that is not a whole quarter hour are not cached.
+ * <p>
+ * One instance is shared by all tenants: {@link #forTenant} returns a tenant's view, which
+ * stores the owner next to the description and only sees, evicts and clears that owner's
+ * entries. Per-tenant quotas are enforced in front of it by {@link TenantPartitionedCache}.
+ */
+public class OffHeapTodoCache implements Cache {
+
+    static final int RECORD_BYTES = 56;
+    private static final int SEGMENTS = 64;
+    private static final double MAX_LOAD = 0.75;
+
+    // record layout
+    private static final int STATE = 0;
+    private static final int STATUS = 1;
+    private static final int OWNER_LENGTH = 2;
+    private static final int DESCRIPTION_LENGTH = 4;
+    private static final int MSB = 8;
+    private static final int LSB = 16;
+    private static final int CREATED = 24;
+    private static final int DUE = 32;
+    private static final int DONE = 40;
+    private static final int DESCRIPTION_OFFSET = 48;
+    private static final int CREATED_ZONE = 52;
+    private static final int DUE_ZONE = 53;
+    private static final int DONE_ZONE = 54;
+    private static final int REFERENCED = 55;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+    private static final byte NO_STATUS = -1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int QUARTER_HOUR_SECONDS = 900;
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+    private static final byte[] NO_OWNER = new byte[0];
+
+    private final String name;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param maxEntries       upper bound on cached todos
+     * @param descriptionBytes off-heap bytes for descriptions, across all segments
+     */
+    public OffHeapTodoCache(String name, int maxEntries, long descriptionBytes) {
+        this.name = name;
+        int perSegment = Math.max(16, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        int arenaPerSegment = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(1024, descriptionBytes / SEGMENTS / 2));
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment, arenaPerSegment);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        return get(key, (byte[]) null);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        return get(key, type, null);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return get(key, valueLoader, null);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        put(key, value, NO_OWNER);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evict(key, null);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return a view of this cache holding only the tenant's entries; a tenant's view never
+     *         returns, evicts or clears another tenant's entry, even for the same id
+     */
+    public Cache forTenant(String tenant) {
+        return new TenantView(tenant);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return direct memory reserved by tables and description arenas
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.reservedBytes();
+        }
+        return bytes;
+    }
+
+
+    // a null owner matches every entry (the plain Cache API); a tenant's view passes its own
+    @Nullable
+    private ValueWrapper get(Object key, @Nullable byte[] owner) {
+        TodoResponse value = read(uuid(key), owner);
+        return value == null ? null : new SimpleValueWrapper(value);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, @Nullable Class<T> type, @Nullable byte[] owner) {
+        Object value = read(uuid(key), owner);
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Callable<T> valueLoader, @Nullable byte[] owner) {
+        // SingleFlightCache coordinates concurrent loads in front of this cache
+        TodoResponse cached = read(uuid(key), owner);
+        if (cached != null) {
+            return (T) cached;
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value, owner == null ? NO_OWNER : owner);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void put(Object key, @Nullable Object value, byte[] owner) {
+        UUID id = uuid(key);
+        if (value == null) {
+            evict(key, owner);
+            return;
+        }
+        if (!(value instanceof TodoResponse response)) {
+            throw new IllegalArgumentException(name + " only stores TodoResponse, got " + value.getClass().getName());
+        }
+        segment(id).put(id, owner, response);
+    }
+
+    private void evict(Object key, @Nullable byte[] owner) {
+        UUID id = uuid(key);
+        segment(id).remove(id.getMostSignificantBits(), id.getLeastSignificantBits(), owner);
+    }
+
+    @Nullable
+    private TodoResponse read(UUID id, @Nullable byte[] owner) {
+        return segment(id).get(id.getMostSignificantBits(), id.getLeastSignificantBits(), owner);
+    }
+
+    private Segment segment(UUID id) {
+        return segments[segmentIndex(id)];
+    }
+
+    static int segmentIndex(UUID id) {
+        return (int) (hash(id.getMostSignificantBits(), id.getLeastSignificantBits()) >>> 58);
+    }
+
+    private static UUID uuid(Object key) {
+        if (key instanceof UUID id) {
+            return id;
+        }
+        throw new IllegalArgumentException("Off-heap cache keys must be UUIDs, got " + key);
+    }
+
+    private static long hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        return h ^ (h >>> 33);
+    }
+
+    private static long micros(OffsetDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond() * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    // offsets span -18:00..+18:00, so quarter hours fit a byte
+    private static byte quarterHours(OffsetDateTime time) {
+        return time == null ? 0 : (byte) (time.getOffset().getTotalSeconds() / QUARTER_HOUR_SECONDS);
+    }
+
+    private static boolean quarterHourOffset(OffsetDateTime time) {
+        return time == null || time.getOffset().getTotalSeconds() % QUARTER_HOUR_SECONDS == 0;
+    }
+
+    private static OffsetDateTime time(long micros, byte quarterHours) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L)
+                .atOffset(ZoneOffset.ofTotalSeconds(quarterHours * QUARTER_HOUR_SECONDS));
+    }
+
+
+    /**
+     * One open-addressing table (linear probing) with its own description arena.
+     */
+    private static final class Segment {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final int maxEntries;
+        private final int capacity;
+        private final int mask;
+        private ByteBuffer table;
+        private ByteBuffer arena;
+        /** The other half of the arena budget; compaction copies live descriptions into it and swaps. */
+        private ByteBuffer spareArena;
+        private int arenaTop;
+        private int used;
+        private int deleted;
+        private int clock;
+
+        private Segment(int maxEntries, int arenaBytes) {
+            this.maxEntries = maxEntries;
+            this.capacity = Integer.highestOneBit((int) Math.ceil(maxEntries / MAX_LOAD)) << 1;
+            this.mask = capacity - 1;
+            this.table = ByteBuffer.allocateDirect(capacity * RECORD_BYTES);
+            this.arena = ByteBuffer.allocateDirect(arenaBytes);
+            this.spareArena = ByteBuffer.allocateDirect(arenaBytes);
+        }
+
+        TodoResponse get(long msb, long lsb, @Nullable byte[] owner) {
+            lock.readLock().lock();
+            try {
+                int slot = find(msb, lsb);
+                if (slot < 0 || !ownedBy(slot, owner)) {
+                    return null;
+                }
+                // concurrent readers only ever set it; the write lock orders it with the clock hand
+                table.put(slot * RECORD_BYTES + REFERENCED, (byte) 1);
+                return materialize(slot);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(UUID id, byte[] owner, TodoResponse value) {
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            byte[] description = value.description() == null ? null : value.description().getBytes(StandardCharsets.UTF_8);
+            int length = owner.length + (description == null ? 0 : description.length);
+
+            lock.writeLock().lock();
+            try {
+                int slot = find(msb, lsb);
+                byte referenced = 0;
+                if (slot >= 0) {
+                    referenced = table.get(slot * RECORD_BYTES + REFERENCED);
+                    delete(slot);
+                }
+                if (length > arena.capacity() / 4 || owner.length > Short.MAX_VALUE) {
+                    // would thrash the arena; such entries are simply not cached
+                    return;
+                }
+                if (!quarterHourOffset(value.creationDatetime()) || !quarterHourOffset(value.dueDatetime())
+                        || !quarterHourOffset(value.doneDatetime())) {
+                    // historical offsets such as +00:53:28 have no byte encoding
+                    return;
+                }
+                while (used >= maxEntries) {
+                    evictOne();
+                }
+                if (used + deleted >= capacity * MAX_LOAD) {
+                    rehash();
+                }
+                // the owner's bytes, then the description's
+                int descriptionOffset = allocate(length);
+                arena.put(descriptionOffset, owner);
+                if (description != null) {
+                    arena.put(descriptionOffset + owner.length, description);
+                }
+
+                slot = insertionSlot(msb, lsb);
+                if (table.get(slot * RECORD_BYTES + STATE) == DELETED) {
+                    deleted--;
+                }
+                int base = slot * RECORD_BYTES;
+                table.put(base + STATE, USED);
+                table.put(base + STATUS, value.status() == null ? NO_STATUS : (byte) value.status().ordinal());
+                table.putShort(base + OWNER_LENGTH, (short) owner.length);
+                table.putInt(base + DESCRIPTION_LENGTH, description == null ? -1 : description.length);
+                table.putLong(base + MSB, msb);
+                table.putLong(base + LSB, lsb);
+                table.putLong(base + CREATED, micros(value.creationDatetime()));
+                table.putLong(base + DUE, micros(value.dueDatetime()));
+                table.putLong(base + DONE, micros(value.doneDatetime()));
+                table.putInt(base + DESCRIPTION_OFFSET, descriptionOffset);
+                table.put(base + CREATED_ZONE, quarterHours(value.creationDatetime()));
+                table.put(base + DUE_ZONE, quarterHours(value.dueDatetime()));
+                table.put(base + DONE_ZONE, quarterHours(value.doneDatetime()));
+                table.put(base + REFERENCED, referenced);
+                used++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long msb, long lsb, @Nullable byte[] owner) {
+            lock.writeLock().lock();
+            try {
+                int slot = find(msb, lsb);
+                if (slot >= 0 && ownedBy(slot, owner)) {
+                    delete(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear(byte[] owner) {
+            lock.writeLock().lock();
+            try {
+                for (int slot = 0; slot < capacity; slot++) {
+                    if (table.get(slot * RECORD_BYTES + STATE) == USED && ownedBy(slot, owner)) {
+                        delete(slot);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                for (int slot = 0; slot < capacity; slot++) {
+                    table.put(slot * RECORD_BYTES + STATE, EMPTY);
+                }
+                used = 0;
+                deleted = 0;
+                arenaTop = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return used;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long reservedBytes() {
+            return (long) table.capacity() + arena.capacity() + spareArena.capacity();
+        }
+
+
+        private int find(long msb, long lsb) {
+            int slot = (int) hash(msb, lsb) & mask;
+            while (true) {
+                int base = slot * RECORD_BYTES;
+                byte state = table.get(base + STATE);
+                if (state == EMPTY) {
+                    return -1;
+                }
+                if (state == USED && table.getLong(base + MSB) == msb && table.getLong(base + LSB) == lsb) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private boolean ownedBy(int slot, @Nullable byte[] owner) {
+            if (owner == null) {
+                return true;
+            }
+            int base = slot * RECORD_BYTES;
+            if (table.getShort(base + OWNER_LENGTH) != owner.length) {
+                return false;
+            }
+            int offset = table.getInt(base + DESCRIPTION_OFFSET);
+            for (int i = 0; i < owner.length; i++) {
+                if (arena.get(offset + i) != owner[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int insertionSlot(long msb, long lsb) {
+            int slot = (int) hash(msb, lsb) & mask;
+            while (table.get(slot * RECORD_BYTES + STATE) == USED) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void delete(int slot) {
+            table.put(slot * RECORD_BYTES + STATE, DELETED);
+            used--;
+            deleted++;
+        }
+
+        // clock: a referenced entry loses its bit and survives this pass, so the hand stops within two turns
+        private void evictOne() {
+            while (true) {
+                int base = clock * RECORD_BYTES;
+                if (table.get(base + STATE) == USED) {
+                    if (table.get(base + REFERENCED) == 0) {
+                        break;
+                    }
+                    table.put(base + REFERENCED, (byte) 0);
+                }
+                clock = (clock + 1) & mask;
+            }
+            delete(clock);
+            clock = (clock + 1) & mask;
+        }
+
+        // rewrites the table without tombstones
+        private void rehash() {
+            ByteBuffer old = table;
+            table = ByteBuffer.allocateDirect(capacity * RECORD_BYTES);
+            deleted = 0;
+            byte[] record = new byte[RECORD_BYTES];
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = slot * RECORD_BYTES;
+                if (old.get(base + STATE) == USED) {
+                    old.get(base, record);
+                    int target = insertionSlot(old.getLong(base + MSB), old.getLong(base + LSB));
+                    table.put(target * RECORD_BYTES, record);
+                }
+            }
+        }
+
+        private int allocate(int length) {
+            if (arenaTop + length > arena.capacity()) {
+                compactArena();
+            }
+            while (arenaTop + length > arena.capacity()) {
+                evictOne();
+                compactArena();
+            }
+            int offset = arenaTop;
+            arenaTop += length;
+            return offset;
+        }
+
+        // copies live descriptions into the spare arena and swaps the two
+        private void compactArena() {
+            int top = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = slot * RECORD_BYTES;
+                int length = table.getShort(base + OWNER_LENGTH) + Math.max(0, table.getInt(base + DESCRIPTION_LENGTH));
+                if (table.get(base + STATE) == USED && length > 0) {
+                    spareArena.put(top, arena, table.getInt(base + DESCRIPTION_OFFSET), length);
+                    table.putInt(base + DESCRIPTION_OFFSET, top);
+                    top += length;
+                }
+            }
+            ByteBuffer swap = arena;
+            arena = spareArena;
+            spareArena = swap;
+            arenaTop = top;
+        }
+
+        private TodoResponse materialize(int slot) {
+            int base = slot * RECORD_BYTES;
+            int length = table.getInt(base + DESCRIPTION_LENGTH);
+            String description = null;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                arena.get(table.getInt(base + DESCRIPTION_OFFSET) + table.getShort(base + OWNER_LENGTH), bytes);
+                description = new String(bytes, StandardCharsets.UTF_8);
+            }
+            byte status = table.get(base + STATUS);
+            return new TodoResponse(
+                    new UUID(table.getLong(base + MSB), table.getLong(base + LSB)),
+                    description,
+                    status == NO_STATUS ? null : STATUSES[status],
+                    time(table.getLong(base + CREATED), table.get(base + CREATED_ZONE)),
+                    time(table.getLong(base + DUE), table.get(base + DUE_ZONE)),
+                    time(table.getLong(base + DONE), table.get(base + DONE_ZONE)));
+        }
+    }
+
+
+    private final class TenantView implements Cache {
+
+        private final byte[] owner;
+
+        private TenantView(String tenant) {
+            this.owner = tenant.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return OffHeapTodoCache.this;
+        }
+
+        @Override
+        @Nullable
+        public ValueWrapper get(Object key) {
+            return OffHeapTodoCache.this.get(key, owner);
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object key, @Nullable Class<T> type) {
+            return OffHeapTodoCache.this.get(key, type, owner);
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return OffHeapTodoCache.this.get(key, valueLoader, owner);
+        }
+
+        @Override
+        public void put(Object key, @Nullable Object value) {
+            OffHeapTodoCache.this.put(key, value, owner);
+        }
+
+        @Override
+        public void evict(Object key) {
+            OffHeapTodoCache.this.evict(key, owner);
+        }
+
+        @Override
+        public void clear() {
+            for (Segment segment : segments) {
+                segment.clear(owner);
+            }
+        }
+    }
+}
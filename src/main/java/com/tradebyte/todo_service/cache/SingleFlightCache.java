@@ -0,0 +1,235 @@
+package com.tradebyte.todo_service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * {@link Cache} decorator that coalesces concurrent misses for the same key into a single
+ * load (used by {@code @Cacheable(sync = true)}), so an eviction does not turn into one
+ * database query per waiting request. A put, evict or clear drops the key's in-flight load
+ * from the map, and a load only stores its result while it is still the key's in-flight load,
+ * so a load that raced with a write to the same key never caches an outdated value. Writes
+ * to other keys do not affect it.
+ * <p>
+ * With stale-while-revalidate enabled, the value an eviction removes is kept aside; a miss on
+ * such a key returns it immediately and refreshes it in the background, again single-flighted.
+ * Only the value current just before the latest write is kept (an eviction of a key that is
+ * already gone drops its stale copy), so readers are at most one write behind. Stale copies
+ * expire after {@code maxStaleness}, and at most {@code maxStaleEntries} are kept. A value
+ * derived from this cache and cached elsewhere is loaded inside {@link #bypassingStale(Supplier)},
+ * so a stale copy is never stored again as a fresh derived value.
+ */
+public class SingleFlightCache implements Cache {
+
+    private static final ThreadLocal<Boolean> BYPASS_STALE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Cache delegate;
+    private final Executor refreshExecutor;
+    private final boolean staleWhileRevalidate;
+    private final long maxStalenessNanos;
+    private final int maxStaleEntries;
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Stale> stale = new ConcurrentHashMap<>();
+
+    public SingleFlightCache(Cache delegate) {
+        this(delegate, false, null, Duration.ZERO, 0);
+    }
+
+    public SingleFlightCache(Cache delegate, boolean staleWhileRevalidate, @Nullable Executor refreshExecutor,
+                             Duration maxStaleness, int maxStaleEntries) {
+        if (staleWhileRevalidate && refreshExecutor == null) {
+            throw new IllegalArgumentException("stale-while-revalidate requires a refresh executor");
+        }
+        this.delegate = delegate;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.refreshExecutor = refreshExecutor;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.maxStaleEntries = maxStaleEntries;
+    }
+
+    /**
+     * Runs {@code loader} so that every miss it causes loads the current value instead of
+     * serving a stale copy.
+     */
+    public static <T> T bypassingStale(Supplier<T> loader) {
+        if (BYPASS_STALE.get()) {
+            return loader.get();
+        }
+        BYPASS_STALE.set(Boolean.TRUE);
+        try {
+            return loader.get();
+        } finally {
+            BYPASS_STALE.remove();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper hit = delegate.get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        if (staleWhileRevalidate && !BYPASS_STALE.get()) {
+            Stale previous = stale.get(key);
+            if (previous != null && !previous.isExpired(System.nanoTime())) {
+                refreshInBackground(key, valueLoader);
+                return (T) previous.value();
+            }
+            if (previous != null) {
+                stale.remove(key, previous);
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return (T) await(running, key, valueLoader);
+        }
+        return (T) load(key, valueLoader, mine);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        inFlight.remove(key);
+        stale.remove(key);
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        inFlight.remove(key);
+        if (staleWhileRevalidate) {
+            ValueWrapper current = delegate.get(key);
+            if (current != null && current.get() != null) {
+                rememberStale(key, current.get(), System.nanoTime());
+            } else {
+                // already evicted once: the stale copy would be two writes behind
+                stale.remove(key);
+            }
+        }
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        inFlight.clear();
+        if (staleWhileRevalidate && delegate.getNativeCache() instanceof Map<?, ?> entries) {
+            long now = System.nanoTime();
+            stale.keySet().removeIf(key -> !entries.containsKey(key));
+            entries.forEach((k, v) -> {
+                if (v != null) {
+                    rememberStale(k, v, now);
+                }
+            });
+        } else {
+            stale.clear();
+        }
+        delegate.clear();
+    }
+
+    int staleSize() {
+        return stale.size();
+    }
+
+
+    private Object load(Object key, Callable<?> valueLoader, CompletableFuture<Object> mine) {
+        try {
+            ValueWrapper again = delegate.get(key);
+            Object value = again != null ? again.get() : valueLoader.call();
+            if (again == null) {
+                storeIfCurrent(key, value, mine);
+            }
+            mine.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // under the key's map lock, so a concurrent put/evict/clear either comes after the store or cancels it
+    private void storeIfCurrent(Object key, Object value, CompletableFuture<Object> mine) {
+        inFlight.computeIfPresent(key, (k, running) -> {
+            if (running == mine) {
+                delegate.put(key, value);
+                stale.remove(key);
+            }
+            return running;
+        });
+    }
+
+    private void rememberStale(Object key, Object value, long now) {
+        if (stale.size() >= maxStaleEntries && !stale.containsKey(key)) {
+            stale.values().removeIf(s -> s.isExpired(now));
+            if (stale.size() >= maxStaleEntries) {
+                return;
+            }
+        }
+        stale.put(key, new Stale(value, now + maxStalenessNanos));
+    }
+
+    private Object await(CompletableFuture<Object> running, Object key, Callable<?> valueLoader) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                load(key, valueLoader, mine);
+            } catch (ValueRetrievalException ignored) {
+                // keep serving the stale value; the next miss retries
+            }
+        });
+    }
+
+
+    private record Stale(Object value, long expiresAtNanos) {
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tradebyte.todo_service.cache;
+
+/**
+ * Cache key of a {@link TenantPartitionedCache}: the owning tenant and the key within its partition.
+ * Built in cache annotations with {@code T(com.tradebyte.todo_service.cache.TenantKey).of(#owner, ...)}.
+ */
+public record TenantKey(String tenant, Object key) {
+
+    public static TenantKey of(String tenant, Object key) {
+        return new TenantKey(tenant, key);
+    }
+}
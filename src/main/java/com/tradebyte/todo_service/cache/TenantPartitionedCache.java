@@ -0,0 +1,185 @@
+package com.tradebyte.todo_service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * {@link Cache} split into one partition per tenant, keyed by {@link TenantKey}. Each partition
+ * is the store the factory returns for its tenant, behind a {@link SingleFlightCache}, and holds
+ * at most {@code maxEntriesPerTenant} entries; beyond that its oldest entries are dropped first,
+ * so one tenant cannot push the others out of the cache. The store may be a tenant's view of
+ * one shared store ({@link OffHeapTodoCache#forTenant}).
+ * <p>
+ * Evicting a plain tenant name instead of a {@link TenantKey} clears only that tenant's
+ * partition. Writes use this ({@code @CacheEvict(key = "#owner")}) so they leave the other
+ * tenants' cached lists alone.
+ */
+public class TenantPartitionedCache implements Cache {
+
+    private final String name;
+    private final Function<String, Cache> storeFactory;
+    private final int maxEntriesPerTenant;
+    private final boolean staleWhileRevalidate;
+    private final Executor refreshExecutor;
+    private final Duration maxStaleness;
+
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    public TenantPartitionedCache(String name, Function<String, Cache> storeFactory, int maxEntriesPerTenant) {
+        this(name, storeFactory, maxEntriesPerTenant, false, null, Duration.ZERO);
+    }
+
+    public TenantPartitionedCache(String name, Function<String, Cache> storeFactory, int maxEntriesPerTenant,
+                                  boolean staleWhileRevalidate, @Nullable Executor refreshExecutor,
+                                  Duration maxStaleness) {
+        if (maxEntriesPerTenant < 1) {
+            throw new IllegalArgumentException("maxEntriesPerTenant must be positive");
+        }
+        this.name = name;
+        this.storeFactory = storeFactory;
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.refreshExecutor = refreshExecutor;
+        this.maxStaleness = maxStaleness;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the partitions by tenant
+     */
+    @Override
+    public Object getNativeCache() {
+        return Collections.unmodifiableMap(partitions);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        TenantKey k = tenantKey(key);
+        Partition p = partitions.get(k.tenant());
+        return p == null ? null : p.front.get(k.key());
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        TenantKey k = tenantKey(key);
+        Partition p = partitions.get(k.tenant());
+        return p == null ? null : p.front.get(k.key(), type);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        TenantKey k = tenantKey(key);
+        Partition p = partition(k.tenant());
+        T value = p.front.get(k.key(), valueLoader);
+        p.track(k.key());
+        return value;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        TenantKey k = tenantKey(key);
+        Partition p = partition(k.tenant());
+        p.front.put(k.key(), value);
+        p.track(k.key());
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (key instanceof String tenant) {
+            Partition p = partitions.get(tenant);
+            if (p != null) {
+                p.clear();
+            }
+            return;
+        }
+        TenantKey k = tenantKey(key);
+        Partition p = partitions.get(k.tenant());
+        if (p != null) {
+            p.front.evict(k.key());
+            p.untrack(k.key());
+        }
+    }
+
+    @Override
+    public void clear() {
+        partitions.values().forEach(Partition::clear);
+    }
+
+    /**
+     * @return the number of entries tracked for the tenant
+     */
+    int size(String tenant) {
+        Partition p = partitions.get(tenant);
+        return p == null ? 0 : p.keys.size();
+    }
+
+
+    private Partition partition(String tenant) {
+        return partitions.computeIfAbsent(tenant, t -> new Partition(storeFactory.apply(t)));
+    }
+
+    private TenantKey tenantKey(Object key) {
+        if (key instanceof TenantKey k) {
+            return k;
+        }
+        throw new IllegalArgumentException("Cache '" + name + "' expects TenantKey keys but got " + key);
+    }
+
+
+    private final class Partition {
+        private final Cache store;
+        private final SingleFlightCache front;
+        private final Map<Object, Boolean> keys = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<Object> insertionOrder = new ConcurrentLinkedQueue<>();
+
+        private Partition(Cache store) {
+            this.store = store;
+            this.front = new SingleFlightCache(store, staleWhileRevalidate, refreshExecutor, maxStaleness,
+                    maxEntriesPerTenant);
+        }
+
+        private void track(Object key) {
+            if (keys.putIfAbsent(key, Boolean.TRUE) == null) {
+                insertionOrder.add(key);
+            }
+            while (keys.size() > maxEntriesPerTenant) {
+                Object oldest = insertionOrder.poll();
+                if (oldest == null) {
+                    return;
+                }
+                if (keys.remove(oldest) != null) {
+                    // straight to the store: a quota eviction must not keep a stale copy around
+                    store.evict(oldest);
+                }
+            }
+        }
+
+        private void untrack(Object key) {
+            if (keys.remove(key) != null) {
+                insertionOrder.remove(key);
+            }
+        }
+
+        private void clear() {
+            front.clear();
+            keys.clear();
+            insertionOrder.clear();
+        }
+    }
+}
@@ -1,23 +1,59 @@
 package com.tradebyte.todo_service.config;
 
+import com.tradebyte.todo_service.cache.OffHeapTodoCache;
+import com.tradebyte.todo_service.cache.SingleFlightCache;
+import com.tradebyte.todo_service.cache.TenantPartitionedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
 
 /**
- * Configuration class for Spring Cache using in-memory ConcurrentMapCacheManager.
- * Defines caches used in the Todo application.
+ * Configuration class for Spring Cache using in-memory ConcurrentMapCaches.
+ * Defines caches used in the Todo application; each cache is partitioned by tenant with a
+ * per-tenant entry quota ({@link TenantPartitionedCache}), and each partition is wrapped in a
+ * {@link SingleFlightCache} so concurrent misses for one key share a single load.
+ * {@code todoById} can be kept off-heap instead ({@code todo.cache.by-id.off-heap}), in one
+ * {@link OffHeapTodoCache} shared by all tenants and sized once for all of them.
  */
 @Configuration
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(@Value("${todo.cache.list-stale-while-revalidate:false}") boolean listStaleWhileRevalidate,
+                                     @Value("${todo.cache.list-stale-max-age:PT10S}") Duration listStaleMaxAge,
+                                     @Value("${todo.cache.tenant-quota.by-id:10000}") int byIdQuota,
+                                     @Value("${todo.cache.tenant-quota.lists:64}") int listQuota,
+                                     @Value("${todo.cache.by-id.off-heap:false}") boolean byIdOffHeap,
+                                     @Value("${todo.cache.by-id.off-heap-entries:100000}") int byIdOffHeapEntries,
+                                     @Value("${todo.cache.by-id.description-memory:32MB}") DataSize byIdDescriptionMemory) {
+        SimpleAsyncTaskExecutor refreshExecutor = new SimpleAsyncTaskExecutor("todo-cache-refresh-");
+        refreshExecutor.setConcurrencyLimit(2);
+
+        Function<String, Cache> todoById = tenant -> new ConcurrentMapCache("todoById");
+        if (byIdOffHeap) {
+            OffHeapTodoCache shared = new OffHeapTodoCache("todoById", byIdOffHeapEntries, byIdDescriptionMemory.toBytes());
+            todoById = shared::forTenant;
+        }
+
         // Register all caches used in the application
-        return new ConcurrentMapCacheManager(
-                "todoById",
-                "todoList"
-        );
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(
+                new TenantPartitionedCache("todoById", todoById, byIdQuota),
+                new TenantPartitionedCache("todoList", tenant -> new ConcurrentMapCache("todoList"), listQuota,
+                        listStaleWhileRevalidate, refreshExecutor, listStaleMaxAge),
+                new TenantPartitionedCache("todoListPayload", tenant -> new ConcurrentMapCache("todoListPayload"),
+                        listQuota, listStaleWhileRevalidate, refreshExecutor, listStaleMaxAge)
+        ));
+        return manager;
     }
-}
\ No newline at end of file
+}
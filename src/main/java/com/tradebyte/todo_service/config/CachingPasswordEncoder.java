@@ -0,0 +1,103 @@
+package com.tradebyte.todo_service.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link PasswordEncoder} decorator that remembers successful verifications for a short TTL,
+ * so HTTP Basic clients pay the (bcrypt-class) hashing cost once per TTL instead of on every
+ * request. Only matches are cached; a wrong password always goes to the delegate.
+ * <p>
+ * Entries are keyed by a salted SHA-256 of the stored hash and the raw password, so the cache
+ * never holds a password, and changing a user's password invalidates its entries. The salt is
+ * random per process. At most {@code maxEntries} verifications are kept in an access-ordered
+ * map, the least recently used dropped first; an expired entry is removed when it is next seen.
+ * The map is guarded by its own lock, which is never held while the delegate hashes.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final byte[] salt = new byte[32];
+
+    /** Expiry by key, least recently used first; guarded by itself. */
+    private final LinkedHashMap<String, Long> verified;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, Duration ttl, int maxEntries) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > CachingPasswordEncoder.this.maxEntries;
+            }
+        };
+        new SecureRandom().nextBytes(salt);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String key = key(rawPassword, encodedPassword);
+        long now = System.nanoTime();
+        synchronized (verified) {
+            Long expiresAt = verified.get(key);
+            if (expiresAt != null) {
+                if (now - expiresAt < 0) {
+                    return true;
+                }
+                verified.remove(key);
+            }
+        }
+
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches && ttlNanos > 0) {
+            synchronized (verified) {
+                verified.put(key, now + ttlNanos);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    int size() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+
+    private String key(CharSequence rawPassword, String encodedPassword) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
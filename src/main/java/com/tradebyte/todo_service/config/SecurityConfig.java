@@ -1,13 +1,23 @@
 package com.tradebyte.todo_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+import java.util.List;
+
 
 @Configuration
 public class SecurityConfig {
@@ -33,4 +43,47 @@ public class SecurityConfig {
                 .formLogin(AbstractHttpConfigurer::disable)
                 .build();
     }
+
+    /**
+     * In-memory users; each user is a tenant and only sees its own todos. The
+     * {@code spring.security.user} account is kept, further users come from
+     * {@code todo.security.users} as comma-separated {@code name:password} pairs.
+     */
+    @Bean
+    public InMemoryUserDetailsManager userDetailsService(SecurityProperties security,
+                                                         @Value("${todo.security.users:}") List<String> users) {
+        InMemoryUserDetailsManager manager = new InMemoryUserDetailsManager();
+        manager.createUser(user(security.getUser().getName(), security.getUser().getPassword()));
+        for (String entry : users) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("todo.security.users entries must be name:password, got '" + entry + "'");
+            }
+            manager.createUser(user(entry.substring(0, colon).trim(), entry.substring(colon + 1)));
+        }
+        return manager;
+    }
+
+    /**
+     * Verifies the {@code {id}}-prefixed passwords of {@link #userDetailsService}. With
+     * {@code todo.security.credential-cache.enabled}, a verified HTTP Basic credential is
+     * remembered for {@code ttl}, so repeated requests skip the password hash.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${todo.security.credential-cache.enabled:true}") boolean cacheCredentials,
+            @Value("${todo.security.credential-cache.ttl:PT1M}") Duration ttl,
+            @Value("${todo.security.credential-cache.max-entries:10000}") int maxEntries) {
+        PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        return cacheCredentials ? new CachingPasswordEncoder(encoder, ttl, maxEntries) : encoder;
+    }
+
+    private static UserDetails user(String name, String password) {
+        // plain passwords as in spring.security.user; encoded ones ({bcrypt}...) are kept as they are
+        String encoded = password.startsWith("{") ? password : "{noop}" + password;
+        return User.withUsername(name).password(encoded).roles("USER").build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.tradebyte.todo_service.config;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rate-limits API calls per tenant: every authenticated user gets its own Resilience4j
+ * {@link RateLimiter}, created on first use from the {@code tenant} configuration
+ * ({@code resilience4j.ratelimiter.configs.tenant}). A tenant over its limit gets 429
+ * without slowing down the others.
+ * <p>
+ * Only the handlers named in {@code todo.rate-limit.endpoints} as {@code Controller.method}
+ * are limited, by default the reads and description updates that were limited before; {@code *}
+ * limits every handler the interceptor is registered for.
+ */
+@Component
+public class TenantRateLimitInterceptor implements HandlerInterceptor {
+
+    static final String CONFIG = "tenant";
+    static final String ALL = "*";
+
+    private final RateLimiterRegistry registry;
+    private final Set<String> endpoints;
+
+    public TenantRateLimitInterceptor(
+            RateLimiterRegistry registry,
+            @Value("${todo.rate-limit.endpoints:TodoController.getById,TodoController.updateDescription,TodoController.list}")
+            List<String> endpoints) {
+        this.registry = registry;
+        this.endpoints = Set.copyOf(endpoints.stream().map(String::trim).toList());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal principal = request.getUserPrincipal();
+        if (principal == null || !limits(handler)) {
+            return true;
+        }
+        RateLimiter limiter = registry.rateLimiter("tenant:" + principal.getName(), CONFIG);
+        if (!limiter.acquirePermission()) {
+            throw RequestNotPermitted.createRequestNotPermitted(limiter);
+        }
+        return true;
+    }
+
+    private boolean limits(Object handler) {
+        if (endpoints.contains(ALL)) {
+            return true;
+        }
+        return handler instanceof HandlerMethod method
+                && endpoints.contains(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+    }
+}
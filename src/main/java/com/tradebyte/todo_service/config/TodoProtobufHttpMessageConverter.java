@@ -0,0 +1,367 @@
+package com.tradebyte.todo_service.config;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoImportResponse;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSearchResponse;
+import com.tradebyte.todo_service.dto.TodoSeriesRequest;
+import com.tradebyte.todo_service.dto.TodoSeriesResponse;
+import com.tradebyte.todo_service.dto.TodoStatsResponse;
+import com.tradebyte.todo_service.dto.TodoUpdateRequest;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hand-written encoder/decoder for the schema in {@code proto/todo.proto}.
+ * UUIDs travel as two fixed64 fields and timestamps as UTC epoch microseconds,
+ * so no string formatting or parsing happens on either side.
+ */
+public class TodoProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    // Todo
+    private static final int ID_MSB = 1;
+    private static final int ID_LSB = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int STATUS = 4;
+    private static final int CREATION_MICROS = 5;
+    private static final int DUE_MICROS = 6;
+    private static final int DONE_MICROS = 7;
+    // TodoList / TodoSearchResult / TodoSeriesList
+    private static final int ITEMS = 1;
+    private static final int PAGE = 2;
+    private static final int SIZE = 3;
+    private static final int TOTAL = 4;
+    // TodoCreateRequest / TodoUpdateRequest / TodoSeriesRequest
+    private static final int REQUEST_DESCRIPTION = 1;
+    private static final int REQUEST_DUE_MICROS = 2;
+    private static final int REQUEST_RULE = 3;
+    // TodoStats, whose maps are repeated key/value entries
+    private static final int COUNTS = 1;
+    private static final int DUE_SOON = 2;
+    private static final int COMPLETION_TIME = 3;
+    private static final int GENERATED_MICROS = 4;
+    private static final int ENTRY_KEY = 1;
+    private static final int ENTRY_VALUE = 2;
+    // TodoImportResult / TodoImportResult.LineError
+    private static final int IMPORTED = 1;
+    private static final int FAILED = 2;
+    private static final int ERRORS = 3;
+    private static final int IMPORT_ERROR = 4;
+    private static final int LINE = 1;
+    private static final int LINE_MESSAGE = 2;
+    // TodoSeries, whose id takes the Todo field numbers
+    private static final int SERIES_DESCRIPTION = 3;
+    private static final int SERIES_RULE = 4;
+    private static final int FIRST_DUE_MICROS = 5;
+    private static final int NEXT_DUE_MICROS = 6;
+
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+
+    public TodoProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TodoResponse.class == clazz
+                || TodoSearchResponse.class == clazz
+                || TodoStatsResponse.class == clazz
+                || TodoImportResponse.class == clazz
+                || TodoSeriesResponse.class == clazz
+                || TodoCreateRequest.class == clazz
+                || TodoUpdateRequest.class == clazz
+                || TodoSeriesRequest.class == clazz
+                || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return (TodoResponse.class == clazz || TodoCreateRequest.class == clazz || TodoUpdateRequest.class == clazz
+                || TodoSeriesRequest.class == clazz)
+                && canRead(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        if (clazz == TodoResponse.class) {
+            return readTodo(in);
+        }
+        String description = null;
+        Long dueMicros = null;
+        String rule = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case REQUEST_DESCRIPTION -> description = in.readString();
+                case REQUEST_DUE_MICROS -> dueMicros = in.readSInt64();
+                case REQUEST_RULE -> rule = in.readString();
+                default -> in.skipField(tag);
+            }
+        }
+        if (clazz == TodoUpdateRequest.class) {
+            return new TodoUpdateRequest(description);
+        }
+        if (clazz == TodoCreateRequest.class) {
+            return new TodoCreateRequest(description, fromMicros(dueMicros));
+        }
+        if (clazz == TodoSeriesRequest.class) {
+            return new TodoSeriesRequest(description, fromMicros(dueMicros), rule);
+        }
+        throw new HttpMessageNotReadableException("Unsupported protobuf type " + clazz.getName(), inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof TodoResponse todo) {
+            writeTodoFields(out, todo);
+        } else if (body instanceof TodoSearchResponse result) {
+            writeItems(out, result.items());
+            out.writeInt32(PAGE, result.page());
+            out.writeInt32(SIZE, result.size());
+            out.writeInt64(TOTAL, result.total());
+        } else if (body instanceof TodoStatsResponse stats) {
+            writeEntries(out, COUNTS, stats.counts());
+            writeEntries(out, DUE_SOON, stats.dueSoon());
+            writeEntries(out, COMPLETION_TIME, stats.completionTime());
+            if (stats.generatedAt() != null) {
+                out.writeSInt64(GENERATED_MICROS, toMicros(stats.generatedAt()));
+            }
+        } else if (body instanceof TodoImportResponse result) {
+            out.writeInt64(IMPORTED, result.imported());
+            out.writeInt64(FAILED, result.failed());
+            writeLineErrors(out, result.errors());
+            if (result.error() != null) {
+                out.writeString(IMPORT_ERROR, result.error());
+            }
+        } else if (body instanceof TodoSeriesResponse series) {
+            writeSeriesFields(out, series);
+        } else if (body instanceof List<?> list) {
+            writeItems(out, list);
+        } else {
+            throw new HttpMessageNotWritableException("Unsupported protobuf type " + body.getClass().getName());
+        }
+        out.flush();
+    }
+
+
+    /**
+     * Decodes one {@code Todo} message from the remaining input.
+     */
+    static TodoResponse readTodo(CodedInputStream in) throws IOException {
+        long msb = 0;
+        long lsb = 0;
+        String description = null;
+        TodoStatus status = null;
+        Long creation = null;
+        Long due = null;
+        Long done = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ID_MSB -> msb = in.readFixed64();
+                case ID_LSB -> lsb = in.readFixed64();
+                case DESCRIPTION -> description = in.readString();
+                case STATUS -> {
+                    int value = in.readEnum();
+                    status = value > 0 && value <= STATUSES.length ? STATUSES[value - 1] : null;
+                }
+                case CREATION_MICROS -> creation = in.readSInt64();
+                case DUE_MICROS -> due = in.readSInt64();
+                case DONE_MICROS -> done = in.readSInt64();
+                default -> in.skipField(tag);
+            }
+        }
+        return new TodoResponse(new UUID(msb, lsb), description, status,
+                fromMicros(creation), fromMicros(due), fromMicros(done));
+    }
+
+    /**
+     * Decodes a {@code TodoList} message.
+     */
+    public static List<TodoResponse> readTodoList(CodedInputStream in) throws IOException {
+        List<TodoResponse> items = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == ITEMS) {
+                int limit = in.pushLimit(in.readRawVarint32());
+                items.add(readTodo(in));
+                in.popLimit(limit);
+            } else {
+                in.skipField(tag);
+            }
+        }
+        return items;
+    }
+
+
+    /**
+     * Writes a {@code TodoList} or, for series, a {@code TodoSeriesList}; both repeat field 1.
+     */
+    private static void writeItems(CodedOutputStream out, List<?> items) throws IOException {
+        for (Object item : items) {
+            if (item instanceof TodoResponse todo) {
+                out.writeTag(ITEMS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(todoSize(todo));
+                writeTodoFields(out, todo);
+            } else if (item instanceof TodoSeriesResponse series) {
+                out.writeTag(ITEMS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(seriesSize(series));
+                writeSeriesFields(out, series);
+            } else {
+                throw new HttpMessageNotWritableException("Unsupported protobuf list element "
+                        + (item == null ? "null" : item.getClass().getName()));
+            }
+        }
+    }
+
+    private static void writeEntries(CodedOutputStream out, int field, Map<?, Long> entries) throws IOException {
+        if (entries == null) {
+            return;
+        }
+        for (Map.Entry<?, Long> entry : entries.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            long value = entry.getValue() == null ? 0 : entry.getValue();
+            out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(CodedOutputStream.computeStringSize(ENTRY_KEY, key)
+                    + CodedOutputStream.computeInt64Size(ENTRY_VALUE, value));
+            out.writeString(ENTRY_KEY, key);
+            out.writeInt64(ENTRY_VALUE, value);
+        }
+    }
+
+    private static void writeLineErrors(CodedOutputStream out, List<TodoImportResponse.LineError> errors)
+            throws IOException {
+        if (errors == null) {
+            return;
+        }
+        for (TodoImportResponse.LineError error : errors) {
+            int size = CodedOutputStream.computeInt64Size(LINE, error.line());
+            if (error.message() != null) {
+                size += CodedOutputStream.computeStringSize(LINE_MESSAGE, error.message());
+            }
+            out.writeTag(ERRORS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size);
+            out.writeInt64(LINE, error.line());
+            if (error.message() != null) {
+                out.writeString(LINE_MESSAGE, error.message());
+            }
+        }
+    }
+
+    private static void writeSeriesFields(CodedOutputStream out, TodoSeriesResponse series) throws IOException {
+        if (series.id() != null) {
+            out.writeFixed64(ID_MSB, series.id().getMostSignificantBits());
+            out.writeFixed64(ID_LSB, series.id().getLeastSignificantBits());
+        }
+        if (series.description() != null) {
+            out.writeString(SERIES_DESCRIPTION, series.description());
+        }
+        if (series.rule() != null) {
+            out.writeString(SERIES_RULE, series.rule());
+        }
+        if (series.firstDue() != null) {
+            out.writeSInt64(FIRST_DUE_MICROS, toMicros(series.firstDue()));
+        }
+        if (series.nextDue() != null) {
+            out.writeSInt64(NEXT_DUE_MICROS, toMicros(series.nextDue()));
+        }
+    }
+
+    private static int seriesSize(TodoSeriesResponse series) {
+        int size = 0;
+        if (series.id() != null) {
+            size += CodedOutputStream.computeFixed64Size(ID_MSB, 0) + CodedOutputStream.computeFixed64Size(ID_LSB, 0);
+        }
+        if (series.description() != null) {
+            size += CodedOutputStream.computeStringSize(SERIES_DESCRIPTION, series.description());
+        }
+        if (series.rule() != null) {
+            size += CodedOutputStream.computeStringSize(SERIES_RULE, series.rule());
+        }
+        if (series.firstDue() != null) {
+            size += CodedOutputStream.computeSInt64Size(FIRST_DUE_MICROS, toMicros(series.firstDue()));
+        }
+        if (series.nextDue() != null) {
+            size += CodedOutputStream.computeSInt64Size(NEXT_DUE_MICROS, toMicros(series.nextDue()));
+        }
+        return size;
+    }
+
+    private static void writeTodoFields(CodedOutputStream out, TodoResponse todo) throws IOException {
+        if (todo.id() != null) {
+            out.writeFixed64(ID_MSB, todo.id().getMostSignificantBits());
+            out.writeFixed64(ID_LSB, todo.id().getLeastSignificantBits());
+        }
+        if (todo.description() != null) {
+            out.writeString(DESCRIPTION, todo.description());
+        }
+        if (todo.status() != null) {
+            out.writeEnum(STATUS, todo.status().ordinal() + 1);
+        }
+        if (todo.creationDatetime() != null) {
+            out.writeSInt64(CREATION_MICROS, toMicros(todo.creationDatetime()));
+        }
+        if (todo.dueDatetime() != null) {
+            out.writeSInt64(DUE_MICROS, toMicros(todo.dueDatetime()));
+        }
+        if (todo.doneDatetime() != null) {
+            out.writeSInt64(DONE_MICROS, toMicros(todo.doneDatetime()));
+        }
+    }
+
+    private static int todoSize(TodoResponse todo) {
+        int size = 0;
+        if (todo.id() != null) {
+            size += CodedOutputStream.computeFixed64Size(ID_MSB, 0) + CodedOutputStream.computeFixed64Size(ID_LSB, 0);
+        }
+        if (todo.description() != null) {
+            size += CodedOutputStream.computeStringSize(DESCRIPTION, todo.description());
+        }
+        if (todo.status() != null) {
+            size += CodedOutputStream.computeEnumSize(STATUS, todo.status().ordinal() + 1);
+        }
+        if (todo.creationDatetime() != null) {
+            size += CodedOutputStream.computeSInt64Size(CREATION_MICROS, toMicros(todo.creationDatetime()));
+        }
+        if (todo.dueDatetime() != null) {
+            size += CodedOutputStream.computeSInt64Size(DUE_MICROS, toMicros(todo.dueDatetime()));
+        }
+        if (todo.doneDatetime() != null) {
+            size += CodedOutputStream.computeSInt64Size(DONE_MICROS, toMicros(todo.doneDatetime()));
+        }
+        return size;
+    }
+
+    private static long toMicros(OffsetDateTime time) {
+        return time.toEpochSecond() * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static OffsetDateTime fromMicros(Long micros) {
+        if (micros == null) {
+            return null;
+        }
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L)
+                .atOffset(ZoneOffset.UTC);
+    }
+}
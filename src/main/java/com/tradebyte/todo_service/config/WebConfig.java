@@ -0,0 +1,55 @@
+package com.tradebyte.todo_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the binary encodings negotiated through {@code Accept}/{@code Content-Type}:
+ * CBOR ({@code application/cbor}), Smile ({@code application/x-jackson-smile}) and
+ * Protobuf ({@code application/x-protobuf}). They are appended after JSON so clients
+ * sending {@code Accept: *}{@code /*} keep getting JSON. Also registers the per-tenant
+ * rate limit on the todo API, which limits the handlers in {@code todo.rate-limit.endpoints}.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TenantRateLimitInterceptor tenantRateLimit;
+
+    public WebConfig(TenantRateLimitInterceptor tenantRateLimit) {
+        this.tenantRateLimit = tenantRateLimit;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(tenantRateLimit).addPathPatterns("/api/v1/todos/**");
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryMapper(Jackson2ObjectMapperBuilder.cbor())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryMapper(Jackson2ObjectMapperBuilder.smile())));
+        converters.add(new TodoProtobufHttpMessageConverter());
+    }
+
+    /**
+     * UUIDs are written as native 16-byte binary by Jackson for these formats. Timestamps stay
+     * ISO-8601 strings as in JSON: as numbers they would be decimal epoch seconds without the offset.
+     */
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
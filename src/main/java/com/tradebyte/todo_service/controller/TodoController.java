@@ -1,8 +1,18 @@
 package com.tradebyte.todo_service.controller;
 
 import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.dto.TodoImportResponse;
 import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSearchResponse;
+import com.tradebyte.todo_service.dto.TodoSortField;
+import com.tradebyte.todo_service.dto.TodoStatsResponse;
 import com.tradebyte.todo_service.dto.TodoUpdateRequest;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.service.IdempotencyKeyStore;
+import com.tradebyte.todo_service.service.TodoImportService;
+import com.tradebyte.todo_service.service.TodoListPayloadService;
+import com.tradebyte.todo_service.service.TodoSeriesService;
 import com.tradebyte.todo_service.service.TodoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,17 +26,31 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * REST controller for managing Todos.
  * Provides endpoints for creating, updating, marking done/not done,
- * retrieving by ID, and listing todos.
+ * retrieving by ID, and listing todos. Every endpoint works on the todos of the
+ * authenticated user, who is the tenant.
  */
 @RestController
 @RequestMapping("/api/v1/todos")
@@ -34,17 +58,31 @@ public class TodoController {
 
     private static final Logger logger = LoggerFactory.getLogger(TodoController.class);
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TodoService service;
+    private final TodoListPayloadService payloads;
+    private final IdempotencyKeyStore idempotency;
+    private final TodoImportService importer;
+    private final TodoSeriesService series;
 
-    public TodoController(TodoService service) {
+    public TodoController(TodoService service, TodoListPayloadService payloads, IdempotencyKeyStore idempotency,
+                          TodoImportService importer, TodoSeriesService series) {
         this.service = service;
+        this.payloads = payloads;
+        this.idempotency = idempotency;
+        this.importer = importer;
+        this.series = series;
     }
 
 
     /**
      * Create a new Todo.
      *
-     * @param req the Todo create request
+     * @param principal      the authenticated tenant
+     * @param req            the Todo create request
+     * @param idempotencyKey optional key; repeats return the first response
      * @return the created Todo
      */
     @Operation(summary = "Create a new Todo", description = "Creates a new todo item.")
@@ -57,19 +95,63 @@ public class TodoController {
                     content = @Content(mediaType = "application/json"))
     })
     @PostMapping
-    public ResponseEntity<TodoResponse> create(@Valid @RequestBody TodoCreateRequest req) {
+    public ResponseEntity<TodoResponse> create(
+            @Parameter(hidden = true) Principal principal,
+            @Valid @RequestBody TodoCreateRequest req,
+            @Parameter(description = "Repeats with the same key return the first response instead of creating a duplicate")
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
         logger.info("Creating new todo with description: {}", req.description());
-        TodoResponse resp = service.create(req);
+        String owner = principal.getName();
+        TodoResponse resp = idempotencyKey == null
+                ? service.create(owner, req)
+                : idempotency.execute(scope(owner, "create"), idempotencyKey, req, () -> service.create(owner, req));
         logger.info("Created todo with id: {}", resp.id());
         return ResponseEntity.status(HttpStatus.CREATED).body(resp);
     }
 
 
+    /**
+     * Bulk import of Todos from a streamed NDJSON or CSV body.
+     *
+     * @param principal   the authenticated tenant
+     * @param contentType {@code application/x-ndjson} or {@code text/csv}
+     * @param body        the upload, read incrementally
+     * @return counts of imported and rejected lines, with per-line errors; 500 with the counts so
+     *         far if a chunk failed to write
+     */
+    @Operation(summary = "Import Todos", description = "Streams NDJSON (one create request per line) or CSV "
+            + "(description,dueDatetime) into todos. Invalid lines are skipped and reported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoImportResponse.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "A chunk failed to write; the counts so far and the error",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoImportResponse.class)))
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<TodoImportResponse> importTodos(
+            @Parameter(hidden = true) Principal principal,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        TodoImportResponse resp = importer.importTodos(principal.getName(), body, TodoImportService.format(contentType));
+        if (resp.aborted()) {
+            logger.warn("Import aborted: {} imported, {} rejected: {}", resp.imported(), resp.failed(), resp.error());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(resp);
+        }
+        logger.info("Import finished: {} imported, {} rejected", resp.imported(), resp.failed());
+        return ResponseEntity.ok(resp);
+    }
+
+
     /**
      * Update the description of an existing Todo.
      *
-     * @param id  the Todo ID
-     * @param req the update request
+     * @param principal the authenticated tenant
+     * @param id        the Todo ID
+     * @param req       the update request
      * @return the updated Todo
      */
     @Operation(summary = "Update Todo description", description = "Updates the description of a todo by ID.")
@@ -85,11 +167,12 @@ public class TodoController {
     })
     @PatchMapping("/{id}/description")
     public TodoResponse updateDescription(
+            @Parameter(hidden = true) Principal principal,
             @Parameter(description = "ID of the todo to update") @PathVariable UUID id,
             @Valid @RequestBody TodoUpdateRequest req
     ) {
         logger.info("Updating description for todo with id: {}", id);
-        TodoResponse updated = service.updateDescription(id, req);
+        TodoResponse updated = service.updateDescription(principal.getName(), id, req);
         logger.info("Updated description for todo with id: {}", id);
         return updated;
     }
@@ -98,7 +181,9 @@ public class TodoController {
     /**
      * Mark a Todo as done.
      *
-     * @param id the Todo ID
+     * @param principal      the authenticated tenant
+     * @param id             the Todo ID
+     * @param idempotencyKey optional key; repeats return the first response
      * @return the updated Todo
      */
     @Operation(summary = "Mark Todo as done", description = "Marks a todo as done by ID.")
@@ -111,9 +196,18 @@ public class TodoController {
                     content = @Content(mediaType = "application/json"))
     })
     @PostMapping("/{id}/done")
-    public TodoResponse markDone(@PathVariable UUID id) {
+    public TodoResponse markDone(
+            @Parameter(hidden = true) Principal principal,
+            @PathVariable UUID id,
+            @Parameter(description = "Repeats with the same key return the first response without re-executing")
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
         logger.info("Marking todo as done with id: {}", id);
-        TodoResponse resp = service.markDone(id);
+        String owner = principal.getName();
+        TodoResponse resp = idempotencyKey == null
+                ? service.markDone(owner, id)
+                : idempotency.execute(scope(owner, "done:" + id), idempotencyKey, null,
+                        () -> service.markDone(owner, id));
         logger.info("Marked todo as done with id: {}", id);
         return resp;
     }
@@ -122,7 +216,9 @@ public class TodoController {
     /**
      * Mark a Todo as not done.
      *
-     * @param id the Todo ID
+     * @param principal      the authenticated tenant
+     * @param id             the Todo ID
+     * @param idempotencyKey optional key; repeats return the first response
      * @return the updated Todo
      */
     @Operation(summary = "Mark Todo as not done", description = "Marks a todo as not done by ID.")
@@ -135,9 +231,18 @@ public class TodoController {
                     content = @Content(mediaType = "application/json"))
     })
     @PostMapping("/{id}/not-done")
-    public TodoResponse markNotDone(@PathVariable UUID id) {
+    public TodoResponse markNotDone(
+            @Parameter(hidden = true) Principal principal,
+            @PathVariable UUID id,
+            @Parameter(description = "Repeats with the same key return the first response without re-executing")
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
         logger.info("Marking todo as not done with id: {}", id);
-        TodoResponse resp = service.markNotDone(id);
+        String owner = principal.getName();
+        TodoResponse resp = idempotencyKey == null
+                ? service.markNotDone(owner, id)
+                : idempotency.execute(scope(owner, "not-done:" + id), idempotencyKey, null,
+                        () -> service.markNotDone(owner, id));
         logger.info("Marked todo as not done with id: {}", id);
         return resp;
     }
@@ -146,7 +251,8 @@ public class TodoController {
     /**
      * Get a Todo by ID.
      *
-     * @param id the Todo ID
+     * @param principal the authenticated tenant
+     * @param id        the Todo ID
      * @return the requested Todo
      */
     @Operation(summary = "Get Todo by ID", description = "Retrieves a todo by its ID.")
@@ -159,21 +265,35 @@ public class TodoController {
                     content = @Content(mediaType = "application/json"))
     })
     @GetMapping("/{id}")
-    public TodoResponse getById(@PathVariable UUID id) {
+    public TodoResponse getById(@Parameter(hidden = true) Principal principal, @PathVariable UUID id) {
         logger.info("Fetching todo with id: {}", id);
-        TodoResponse resp = service.getById(id);
+        TodoResponse resp = service.getById(principal.getName(), id);
         logger.info("Fetched todo with id: {}", id);
         return resp;
     }
 
 
     /**
-     * List todos.
+     * List todos. Without filter parameters this returns all todos or only the
+     * not done ones; any filter parameter switches to a filtered, sorted query
+     * executed in the database. With {@code dueBefore}, occurrences of recurring todos
+     * that are not stored yet are included as well.
      *
-     * @param all if true, returns all todos; otherwise, only todos not done
+     * @param principal     the authenticated tenant
+     * @param all           if true, returns all todos; otherwise, only todos not done
+     * @param statuses      only todos in one of these statuses (overrides {@code all})
+     * @param dueAfter      due at or after this instant
+     * @param dueBefore     due before this instant
+     * @param createdAfter  created at or after this instant
+     * @param createdBefore created before this instant
+     * @param doneAfter     done at or after this instant
+     * @param doneBefore    done before this instant
+     * @param sort          sort key
+     * @param direction     sort direction
      * @return list of todos
      */
-    @Operation(summary = "List Todos", description = "Lists all todos or only not done todos based on query parameter.")
+    @Operation(summary = "List Todos", description = "Lists all todos or only not done todos based on query parameter, "
+            + "optionally filtered by status, due, creation and done time ranges and sorted server-side.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Todos listed successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoResponse.class))),
@@ -181,14 +301,187 @@ public class TodoController {
                     content = @Content(mediaType = "application/json"))
     })
     @GetMapping
-    public List<TodoResponse> list(
+    public ResponseEntity<?> list(
+            @Parameter(hidden = true) Principal principal,
             @Parameter(description = "If true, fetch all todos; otherwise only not done todos")
             @RequestParam(name = "all", required = false, defaultValue = "false")
-            boolean all
+            boolean all,
+            @Parameter(description = "Only todos in one of these statuses")
+            @RequestParam(name = "status", required = false) Set<TodoStatus> statuses,
+            @Parameter(description = "Due at or after this instant (ISO-8601)")
+            @RequestParam(name = "dueAfter", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dueAfter,
+            @Parameter(description = "Due before this instant (ISO-8601)")
+            @RequestParam(name = "dueBefore", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime dueBefore,
+            @Parameter(description = "Created at or after this instant (ISO-8601)")
+            @RequestParam(name = "createdAfter", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdAfter,
+            @Parameter(description = "Created before this instant (ISO-8601)")
+            @RequestParam(name = "createdBefore", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdBefore,
+            @Parameter(description = "Done at or after this instant (ISO-8601)")
+            @RequestParam(name = "doneAfter", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime doneAfter,
+            @Parameter(description = "Done before this instant (ISO-8601)")
+            @RequestParam(name = "doneBefore", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime doneBefore,
+            @Parameter(description = "Sort key")
+            @RequestParam(name = "sort", required = false) TodoSortField sort,
+            @Parameter(description = "Sort direction (ASC or DESC)")
+            @RequestParam(name = "direction", required = false) Sort.Direction direction,
+            @Parameter(hidden = true)
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @Parameter(hidden = true)
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        logger.info("Listing todos with all={}", all);
-        List<TodoResponse> todos = service.getNotDoneOrAll(all);
+        String owner = principal.getName();
+        boolean filtered = (statuses != null && !statuses.isEmpty())
+                || dueAfter != null || dueBefore != null
+                || createdAfter != null || createdBefore != null
+                || doneAfter != null || doneBefore != null
+                || sort != null || direction != null;
+        if (!filtered && prefersJson(accept)) {
+            // pre-serialized (and possibly pre-compressed) payload, cached next to todoList
+            boolean gzip = acceptsGzip(acceptEncoding);
+            logger.info("Listing todos with all={} (cached payload, gzip={})", all, gzip);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(payloads.jsonPayload(owner, all, gzip));
+        }
+        if (!filtered) {
+            logger.info("Listing todos with all={}", all);
+            List<TodoResponse> todos = service.getNotDoneOrAll(owner, all);
+            logger.info("Retrieved {} todos", todos.size());
+            return ResponseEntity.ok(todos);
+        }
+
+        Set<TodoStatus> effectiveStatuses = statuses != null && !statuses.isEmpty()
+                ? statuses
+                : (all ? Set.of() : Set.of(TodoStatus.NOT_DONE));
+        TodoFilter filter = new TodoFilter(effectiveStatuses, dueAfter, dueBefore,
+                createdAfter, createdBefore, doneAfter, doneBefore, sort, direction);
+
+        logger.info("Listing todos with filter={}", filter.cacheKey());
+        List<TodoResponse> todos = series.withVirtualOccurrences(owner, filter, service.find(owner, filter));
         logger.info("Retrieved {} todos", todos.size());
-        return todos;
+        return ResponseEntity.ok(todos);
+    }
+
+
+    /**
+     * Full-text search over todo descriptions.
+     *
+     * @param principal the authenticated tenant
+     * @param q         the search text; the last term is matched as a prefix
+     * @param status    optional status filter
+     * @param page      zero-based page number
+     * @param size      page size
+     * @return one page of matching todos
+     */
+    @Operation(summary = "Search Todos", description = "Full-text and prefix search over todo descriptions.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoSearchResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/search")
+    public TodoSearchResponse search(
+            @Parameter(hidden = true) Principal principal,
+            @Parameter(description = "Search text; the last term is matched as a prefix")
+            @RequestParam(name = "q") String q,
+            @Parameter(description = "Only return todos with this status")
+            @RequestParam(name = "status", required = false) TodoStatus status,
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(name = "page", required = false, defaultValue = "0") int page,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")")
+            @RequestParam(name = "size", required = false, defaultValue = "20") int size
+    ) {
+        logger.info("Searching todos with q={}, status={}", q, status);
+        TodoSearchResponse resp = service.search(principal.getName(), q, status,
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        logger.info("Search returned {} of {} todos", resp.items().size(), resp.total());
+        return resp;
+    }
+
+
+    /**
+     * Aggregated statistics.
+     *
+     * @param principal the authenticated tenant
+     * @return counts per status, due-soon buckets and a completion-time histogram
+     */
+    @Operation(summary = "Todo statistics", description = "Counts per status, due-soon buckets and completion-time histogram, served from in-memory counters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoStatsResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/stats")
+    public TodoStatsResponse stats(@Parameter(hidden = true) Principal principal) {
+        logger.info("Fetching todo statistics");
+        return service.stats(principal.getName());
+    }
+
+
+    // Idempotency-Keys are remembered per tenant, so two tenants can use the same key
+    private static String scope(String owner, String operation) {
+        return owner + "/" + operation;
+    }
+
+    // the most preferred type by quality, then specificity, as Spring's content negotiation picks it
+    private static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            mediaTypes.removeIf(type -> type.getQualityValue() <= 0);
+            MimeTypeUtils.sortBySpecificity(mediaTypes);
+            // stable, so equally weighted types stay in specificity order
+            mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            return !mediaTypes.isEmpty() && mediaTypes.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // gzip, or a wildcard when gzip is not listed, with a non-zero q-value
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcard = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                return quality(parts) > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality(parts);
+            }
+        }
+        return wildcard > 0;
+    }
+
+    private static double quality(String[] codingParams) {
+        for (int i = 1; i < codingParams.length; i++) {
+            String param = codingParams[i].trim();
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package com.tradebyte.todo_service.controller;
+
+import com.tradebyte.todo_service.dto.TodoSeriesRequest;
+import com.tradebyte.todo_service.dto.TodoSeriesResponse;
+import com.tradebyte.todo_service.service.TodoSeriesService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller for recurring todos. Occurrences of a series show up as ordinary todos
+ * under {@code /api/v1/todos}; this controller manages the series themselves.
+ */
+@RestController
+@RequestMapping("/api/v1/todos/series")
+public class TodoSeriesController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSeriesController.class);
+
+    private final TodoSeriesService service;
+
+    public TodoSeriesController(TodoSeriesService service) {
+        this.service = service;
+    }
+
+
+    /**
+     * Create a recurring Todo.
+     *
+     * @param principal the authenticated tenant
+     * @param req       description, first due datetime and recurrence rule
+     * @return the created series
+     */
+    @Operation(summary = "Create a recurring Todo", description = "Creates a todo series from an RRULE subset "
+            + "(FREQ, INTERVAL, COUNT, UNTIL, BYDAY for weekly rules). Occurrences due within the horizon "
+            + "are stored as todos right away, later ones as the horizon moves.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Series created successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoSeriesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error or invalid rule",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping
+    public ResponseEntity<TodoSeriesResponse> create(
+            @Parameter(hidden = true) Principal principal,
+            @Valid @RequestBody TodoSeriesRequest req
+    ) {
+        TodoSeriesResponse resp = service.create(principal.getName(), req);
+        logger.info("Created todo series with id: {}", resp.id());
+        return ResponseEntity.status(HttpStatus.CREATED).body(resp);
+    }
+
+
+    /**
+     * List recurring Todos.
+     *
+     * @param principal the authenticated tenant
+     * @return all series of the tenant
+     */
+    @Operation(summary = "List recurring Todos", description = "Lists the todo series of the tenant.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Series listed successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TodoSeriesResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping
+    public List<TodoSeriesResponse> list(@Parameter(hidden = true) Principal principal) {
+        return service.list(principal.getName());
+    }
+
+
+    /**
+     * Delete a recurring Todo; occurrences already stored stay.
+     *
+     * @param principal the authenticated tenant
+     * @param id        the series ID
+     */
+    @Operation(summary = "Delete a recurring Todo", description = "Stops a series. Occurrences already stored "
+            + "as todos are kept.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Series deleted"),
+            @ApiResponse(responseCode = "404", description = "Series not found",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(
+            @Parameter(hidden = true) Principal principal,
+            @Parameter(description = "ID of the series to delete") @PathVariable UUID id
+    ) {
+        service.delete(principal.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
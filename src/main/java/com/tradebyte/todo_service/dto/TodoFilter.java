@@ -0,0 +1,60 @@
+package com.tradebyte.todo_service.dto;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * Server-side filter for listing todos. Lower bounds ({@code *After}) are inclusive,
+ * upper bounds ({@code *Before}) are exclusive. An empty status set matches every status.
+ */
+public record TodoFilter(
+        Set<TodoStatus> statuses,
+        OffsetDateTime dueAfter,
+        OffsetDateTime dueBefore,
+        OffsetDateTime createdAfter,
+        OffsetDateTime createdBefore,
+        OffsetDateTime doneAfter,
+        OffsetDateTime doneBefore,
+        TodoSortField sortBy,
+        Sort.Direction direction
+) {
+
+    public TodoFilter {
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        sortBy = sortBy == null ? TodoSortField.DUE_DATETIME : sortBy;
+        direction = direction == null ? Sort.Direction.ASC : direction;
+    }
+
+    public Sort sort() {
+        return Sort.by(direction, sortBy.property());
+    }
+
+    /**
+     * Cache key derived from the normalized filter: statuses in declaration order and
+     * timestamps as instants, so equivalent filters share one cache entry.
+     */
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder("filter:");
+        for (TodoStatus status : TodoStatus.values()) {
+            if (statuses.contains(status)) {
+                key.append(status.name()).append(',');
+            }
+        }
+        key.append('|').append(instant(dueAfter))
+                .append('|').append(instant(dueBefore))
+                .append('|').append(instant(createdAfter))
+                .append('|').append(instant(createdBefore))
+                .append('|').append(instant(doneAfter))
+                .append('|').append(instant(doneBefore))
+                .append('|').append(sortBy.name())
+                .append('|').append(direction.name());
+        return key.toString();
+    }
+
+    private static String instant(OffsetDateTime value) {
+        return value == null ? "" : value.toInstant().toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.tradebyte.todo_service.dto;
+
+import java.util.List;
+
+public record TodoImportResponse(
+        long imported,
+        long failed,
+        List<LineError> errors,
+        String error
+) {
+
+    /**
+     * @return true if a chunk failed to write and the rest of the body was not imported
+     */
+    public boolean aborted() {
+        return error != null;
+    }
+
+    public record LineError(
+            long line,
+            String message
+    ) {}
+}
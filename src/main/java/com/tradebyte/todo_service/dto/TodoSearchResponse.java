@@ -0,0 +1,10 @@
+package com.tradebyte.todo_service.dto;
+
+import java.util.List;
+
+public record TodoSearchResponse(
+        List<TodoResponse> items,
+        int page,
+        int size,
+        long total
+) {}
@@ -0,0 +1,21 @@
+package com.tradebyte.todo_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Creates a recurring todo. {@code rule} is an RRULE subset such as
+ * {@code FREQ=WEEKLY;BYDAY=MO,TH;COUNT=10}, applied from {@code firstDue}.
+ */
+public record TodoSeriesRequest(
+        @NotBlank
+        String description,
+
+        @NotNull
+        OffsetDateTime firstDue,
+
+        @NotBlank
+        String rule
+) {}
@@ -0,0 +1,16 @@
+package com.tradebyte.todo_service.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A recurring todo; {@code nextDue} is the first occurrence not stored as a todo yet,
+ * {@code null} once the rule is exhausted.
+ */
+public record TodoSeriesResponse(
+        UUID id,
+        String description,
+        String rule,
+        OffsetDateTime firstDue,
+        OffsetDateTime nextDue
+) {}
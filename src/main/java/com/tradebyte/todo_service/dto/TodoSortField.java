@@ -0,0 +1,20 @@
+package com.tradebyte.todo_service.dto;
+
+/**
+ * Sort keys supported by the list endpoint, mapped to {@code TodoItem} properties.
+ */
+public enum TodoSortField {
+    DUE_DATETIME("dueDatetime"),
+    CREATION_DATETIME("creationDatetime"),
+    DONE_DATETIME("doneDatetime");
+
+    private final String property;
+
+    TodoSortField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+}
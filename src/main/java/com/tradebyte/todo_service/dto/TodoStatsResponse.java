@@ -0,0 +1,13 @@
+package com.tradebyte.todo_service.dto;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+public record TodoStatsResponse(
+        Map<TodoStatus, Long> counts,
+        Map<String, Long> dueSoon,
+        Map<String, Long> completionTime,
+        OffsetDateTime generatedAt
+) {}
@@ -0,0 +1,80 @@
+package com.tradebyte.todo_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Terminal-state todo moved out of {@code todo_items} by the archiver.
+ * Keeps the original id so lookups by id keep working.
+ */
+@Entity
+@Table(name = "todo_items_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedTodoItem implements Persistable<UUID> {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, columnDefinition = "varchar(255) default '" + TodoItem.LEGACY_OWNER + "' not null")
+    private String owner;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TodoStatus status;
+
+    @Column(nullable = false)
+    private OffsetDateTime creationDatetime;
+
+    @Column(nullable = false)
+    private OffsetDateTime dueDatetime;
+
+    private OffsetDateTime doneDatetime;
+
+    @Column(nullable = false)
+    private OffsetDateTime archivedDatetime;
+
+    /**
+     * Archive rows are only ever inserted, and their id is the original todo's. Reporting a new row
+     * as new lets {@code saveAll} persist it directly instead of merging, which would SELECT each id
+     * before inserting it; loaded and persisted rows report themselves as existing.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public ArchivedTodoItem(UUID id, String owner, String description, TodoStatus status,
+                            OffsetDateTime creationDatetime, OffsetDateTime dueDatetime,
+                            OffsetDateTime doneDatetime, OffsetDateTime archivedDatetime) {
+        this.id = id;
+        this.owner = owner;
+        this.description = description;
+        this.status = status;
+        this.creationDatetime = creationDatetime;
+        this.dueDatetime = dueDatetime;
+        this.doneDatetime = doneDatetime;
+        this.archivedDatetime = archivedDatetime;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.tradebyte.todo_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Persisted response for an {@code Idempotency-Key}, used when
+ * {@code todo.idempotency.persist} is enabled so replays survive restarts.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 320)
+    private String id;
+
+    @Lob
+    @Column(nullable = false)
+    private String responseJson;
+
+    /** SHA-256 of the request body; a repeat with another body is rejected. */
+    @Column(length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private OffsetDateTime expiresAt;
+}
@@ -10,16 +10,29 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "todo_items")
+@Table(name = "todo_items", indexes = {
+        @Index(name = "idx_todo_items_owner_status_due", columnList = "owner, status, due_datetime"),
+        @Index(name = "idx_todo_items_owner_creation", columnList = "owner, creation_datetime"),
+        @Index(name = "idx_todo_items_status_due", columnList = "status, due_datetime"),
+        @Index(name = "idx_todo_items_status_done", columnList = "status, done_datetime")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class TodoItem {
+
+    /** Owner of rows created before todos were partitioned by tenant. */
+    public static final String LEGACY_OWNER = "admin";
+
     @Id
     @GeneratedValue
     private UUID id;
 
+    /** Tenant the todo belongs to: the name of the authenticated user that created it. */
+    @Column(nullable = false, columnDefinition = "varchar(255) default '" + LEGACY_OWNER + "' not null")
+    private String owner;
+
     @Column(nullable = false)
     private String description;
 
@@ -34,4 +47,9 @@ public class TodoItem {
     private OffsetDateTime dueDatetime;
 
     private OffsetDateTime doneDatetime;
+
+    // default lets ddl-auto add the column to existing rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.tradebyte.todo_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Recurring todo: a description plus a recurrence rule starting at {@code firstDue}.
+ * Occurrences are only stored in {@code todo_items} once they fall into the materialization
+ * horizon; {@code nextDue} is the due datetime of the first occurrence not stored yet
+ * ({@code null} once the rule is exhausted) and {@code nextIndex} its position in the series.
+ */
+@Entity
+@Table(name = "todo_series", indexes = {
+        @Index(name = "idx_todo_series_next_due", columnList = "next_due"),
+        @Index(name = "idx_todo_series_owner_next_due", columnList = "owner, next_due")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TodoSeries {
+
+    /** Assigned by {@code TodoSeriesService}: the low 48 bits are clear for the occurrence index. */
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private String description;
+
+    /** RRULE subset, see {@code RecurrenceRule}. */
+    @Column(nullable = false)
+    private String rule;
+
+    @Column(nullable = false)
+    private OffsetDateTime firstDue;
+
+    @Column(nullable = false)
+    private OffsetDateTime creationDatetime;
+
+    private OffsetDateTime nextDue;
+
+    @Column(nullable = false)
+    private long nextIndex;
+}
@@ -0,0 +1,9 @@
+package com.tradebyte.todo_service.exception;
+
+import java.util.UUID;
+
+public class ArchivedTodoException extends RuntimeException {
+    public ArchivedTodoException(UUID id) {
+        super("Item " + id + " is archived and cannot be modified.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.tradebyte.todo_service.exception;
+
+public class InvalidRecurrenceRuleException extends RuntimeException {
+    public InvalidRecurrenceRuleException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.tradebyte.todo_service.exception;
 
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -45,6 +46,78 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    /**
+     * Handles ArchivedTodoException and returns 409 Conflict.
+     */
+    @ExceptionHandler(ArchivedTodoException.class)
+    public ResponseEntity<Map<String, String>> handleArchived(ArchivedTodoException e) {
+        logger.error("Archived item conflict: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Conflict");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    /**
+     * Handles InvalidIdempotencyKeyException and returns 400 Bad Request.
+     */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException e) {
+        logger.error("Invalid idempotency key: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Bad Request");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * Handles IdempotencyKeyReusedException and returns 422 Unprocessable Entity.
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        logger.warn("Idempotency key reused: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Unprocessable Entity");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+
+    /**
+     * Handles InvalidRecurrenceRuleException and returns 400 Bad Request.
+     */
+    @ExceptionHandler(InvalidRecurrenceRuleException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRecurrenceRule(InvalidRecurrenceRuleException e) {
+        logger.error("Invalid recurrence rule: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Bad Request");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * Handles SeriesDisabledException and returns 501 Not Implemented.
+     */
+    @ExceptionHandler(SeriesDisabledException.class)
+    public ResponseEntity<Map<String, String>> handleSeriesDisabled(SeriesDisabledException e) {
+        logger.warn("Series request rejected: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Not Implemented");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(response);
+    }
+
+    /**
+     * Handles RequestNotPermitted from a tenant's rate limiter and returns 429 Too Many Requests.
+     */
+    @ExceptionHandler(RequestNotPermitted.class)
+    public ResponseEntity<Map<String, String>> handleRateLimited(RequestNotPermitted e) {
+        logger.warn("Rate limit exceeded: {}", e.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Too Many Requests");
+        response.put("message", "Rate limit exceeded. Try again later.");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+    }
+
     /**
      * Handles validation errors (400 Bad Request) with detailed field errors.
      */
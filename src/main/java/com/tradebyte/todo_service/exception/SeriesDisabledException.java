@@ -0,0 +1,7 @@
+package com.tradebyte.todo_service.exception;
+
+public class SeriesDisabledException extends RuntimeException {
+    public SeriesDisabledException() {
+        super("Recurring todos are disabled (todo.series.enabled=false).");
+    }
+}
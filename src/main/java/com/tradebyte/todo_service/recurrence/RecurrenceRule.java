@@ -0,0 +1,199 @@
+package com.tradebyte.todo_service.recurrence;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Subset of the iCalendar RRULE (RFC 5545): {@code FREQ=DAILY|WEEKLY|MONTHLY|YEARLY} with
+ * optional {@code INTERVAL}, {@code COUNT}, {@code UNTIL} and, for weekly rules, {@code BYDAY}
+ * (e.g. {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=10}).
+ * <p>
+ * Occurrences keep the time of day and offset of the start. Monthly and yearly rules add whole
+ * months / years to the start, so the 31st falls on the last day of shorter months. Any
+ * occurrence can be computed from its predecessor in constant time, which lets a series resume
+ * from its last stored occurrence instead of replaying the rule from the start.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    /** One occurrence: its zero-based position in the series and its due datetime. */
+    public record Occurrence(long index, OffsetDateTime due) {}
+
+    private static final DateTimeFormatter BASIC_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssX");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Long count;
+    private final OffsetDateTime until;
+    private final List<DayOfWeek> byDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Long count, OffsetDateTime until, List<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    /**
+     * Parses a rule such as {@code FREQ=DAILY;INTERVAL=2}; an {@code RRULE:} prefix is accepted.
+     *
+     * @throws IllegalArgumentException if the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule must not be blank");
+        }
+        String body = rule.trim().toUpperCase(Locale.ROOT);
+        if (body.startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Long count = null;
+        OffsetDateTime until = null;
+        List<DayOfWeek> byDay = new ArrayList<>();
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid recurrence rule part '" + part + "'");
+            }
+            String name = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = frequency(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Long.parseLong(value);
+                    case "UNTIL" -> until = parseUntil(value);
+                    case "BYDAY" -> {
+                        for (String day : value.split(",")) {
+                            byDay.add(dayOfWeek(day));
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": '" + value + "'");
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ");
+        }
+        if (interval < 1 || (count != null && count < 1)) {
+            throw new IllegalArgumentException("INTERVAL and COUNT must be positive");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL must not both be set");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, count, until,
+                byDay.stream().distinct().sorted().toList());
+    }
+
+
+    /**
+     * @return the first occurrence at or after {@code start}, or {@code null} if the rule has none
+     */
+    public Occurrence first(OffsetDateTime start) {
+        OffsetDateTime due = start;
+        if (!byDay.isEmpty()) {
+            due = byDay.stream()
+                    .filter(day -> day.compareTo(start.getDayOfWeek()) >= 0)
+                    .findFirst()
+                    .map(day -> at(weekStart(start).plusDays(day.ordinal()), start))
+                    .orElseGet(() -> at(weekStart(start).plusWeeks(interval).plusDays(byDay.get(0).ordinal()), start));
+        }
+        return bounded(new Occurrence(0, due));
+    }
+
+    /**
+     * @return the occurrence after {@code previous}, or {@code null} once COUNT or UNTIL is reached
+     */
+    public Occurrence next(OffsetDateTime start, Occurrence previous) {
+        OffsetDateTime last = previous.due().withOffsetSameInstant(start.getOffset());
+        OffsetDateTime due;
+        if (!byDay.isEmpty()) {
+            LocalDate week = weekStart(last);
+            due = byDay.stream()
+                    .filter(day -> day.compareTo(last.getDayOfWeek()) > 0)
+                    .findFirst()
+                    .map(day -> at(week.plusDays(day.ordinal()), start))
+                    .orElseGet(() -> at(week.plusWeeks(interval).plusDays(byDay.get(0).ordinal()), start));
+        } else {
+            long periods = periodsBetween(start.toLocalDate(), last.toLocalDate()) / interval * interval + interval;
+            due = switch (frequency) {
+                case DAILY -> start.plusDays(periods);
+                case WEEKLY -> start.plusWeeks(periods);
+                case MONTHLY -> start.plusMonths(periods);
+                case YEARLY -> start.plusYears(periods);
+            };
+        }
+        return bounded(new Occurrence(previous.index() + 1, due));
+    }
+
+
+    private Occurrence bounded(Occurrence occurrence) {
+        if (count != null && occurrence.index() >= count) {
+            return null;
+        }
+        if (until != null && occurrence.due().isAfter(until)) {
+            return null;
+        }
+        return occurrence;
+    }
+
+    private long periodsBetween(LocalDate from, LocalDate to) {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(from, to);
+            case WEEKLY -> ChronoUnit.DAYS.between(from, to) / 7;
+            case MONTHLY -> (to.getYear() * 12L + to.getMonthValue()) - (from.getYear() * 12L + from.getMonthValue());
+            case YEARLY -> to.getYear() - from.getYear();
+        };
+    }
+
+    private static LocalDate weekStart(OffsetDateTime dateTime) {
+        return dateTime.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static OffsetDateTime at(LocalDate date, OffsetDateTime start) {
+        return OffsetDateTime.of(date, start.toLocalTime(), start.getOffset());
+    }
+
+    private static OffsetDateTime parseUntil(String value) {
+        return value.contains("-") ? OffsetDateTime.parse(value) : OffsetDateTime.parse(value, BASIC_UTC);
+    }
+
+    private static Frequency frequency(String value) {
+        for (Frequency frequency : Frequency.values()) {
+            if (frequency.name().equals(value)) {
+                return frequency;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported FREQ '" + value + "'");
+    }
+
+    private static DayOfWeek dayOfWeek(String day) {
+        return switch (day.trim()) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Invalid BYDAY value '" + day + "'");
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.tradebyte.todo_service.repository;
+
+import java.time.Duration;
+
+/**
+ * Completion-time buckets of the todo statistics: how long a DONE todo took from creation to
+ * done. The in-memory counters and the queries that reconcile them bucket the same way.
+ */
+public final class CompletionBuckets {
+
+    public static final String[] LABELS = {"lt1h", "lt1d", "lt7d", "lt30d", "gte30d"};
+
+    private static final Duration[] BOUNDS = {
+            Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(7), Duration.ofDays(30)
+    };
+
+    // the same bounds in seconds, as an HQL expression over a todo aliased "t"
+    private static final String TOOK = "(extract(epoch from t.doneDatetime) - extract(epoch from t.creationDatetime))";
+    static final String HQL = "case when " + TOOK + " < 3600 then 0"
+            + " when " + TOOK + " < 86400 then 1"
+            + " when " + TOOK + " < 604800 then 2"
+            + " when " + TOOK + " < 2592000 then 3"
+            + " else 4 end";
+
+    private CompletionBuckets() {
+    }
+
+    /**
+     * @return the index into {@link #LABELS} for a todo that took {@code took} to complete
+     */
+    public static int of(Duration took) {
+        int bucket = 0;
+        while (bucket < BOUNDS.length && took.compareTo(BOUNDS[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,936 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.dto.TodoSortField;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.function.LongPredicate;
+
+/**
+ * Primary todo store held entirely in memory ({@code in-memory} profile), replacing the JPA
+ * repository on the request path.
+ * <p>
+ * Rows live in parallel primitive arrays indexed by a slot number; timestamps are epoch
+ * microseconds in UTC, {@code Long.MIN_VALUE} for null. Each status has a secondary index
+ * ordered by due date, kept once across all owners for the past-due sweep and the archiver
+ * and once per owner for the status lists and due-date filters, so neither scans. NOT_DONE
+ * todos are also indexed by id, so the past-due sweep pages through them in primary key order
+ * the way the JPA keyset query does. Every
+ * mutation is appended to a {@link TodoJournal} before it is applied in memory, so a failed
+ * append changes nothing, and the journal is folded into a snapshot periodically.
+ * <p>
+ * There are no isolated transactions: other requests see a change as soon as it is made. A
+ * change made inside a Spring transaction that then rolls back is undone, and the undo is
+ * journaled too, unless another transaction changed the row since.
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+public class InMemoryTodoRepository implements TodoRepository, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTodoRepository.class);
+
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final byte FREE = -1;
+    private static final long DELETED = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final TodoJournal journal;
+
+    // guarded by lock
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final List<NavigableSet<DueKey>> byStatusDue = statusIndex();
+    private final NavigableSet<IdKey> notDoneById = new TreeSet<>();
+    private final Map<String, Owner> owners = new HashMap<>();
+    private long[] idMsb;
+    private long[] idLsb;
+    private Owner[] ownerOf;
+    private byte[] statuses;
+    private long[] created;
+    private long[] due;
+    private long[] done;
+    private long[] versions;
+    private String[] descriptions;
+    private int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    public InMemoryTodoRepository(@Value("${todo.in-memory.dir:/data/in-memory}") Path dir,
+                                  @Value("${todo.in-memory.fsync:false}") boolean fsync,
+                                  @Value("${todo.in-memory.initial-capacity:1024}") int initialCapacity,
+                                  @Value("${todo.write-behind.enabled:false}") boolean writeBehind) {
+        if (writeBehind) {
+            // write-behind flushes with SQL against todo_items, which this store does not use
+            throw new IllegalStateException("todo.write-behind.enabled cannot be combined with the in-memory profile");
+        }
+        allocate(Math.max(16, initialCapacity));
+
+        this.journal = new TodoJournal(dir, fsync);
+        long start = System.nanoTime();
+        journal.recover(this::apply, this::remove);
+        logger.info("Loaded {} todos from {} in {} ms", slots.size(), dir, (System.nanoTime() - start) / 1_000_000);
+    }
+
+
+    @Override
+    public <S extends TodoItem> S save(S item) {
+        lock.writeLock().lock();
+        try {
+            checkVersion(item);
+            TodoJournal.Row row = row(item);
+            write(row);
+            item.setVersion(row.version());
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends TodoItem> List<S> saveAll(Iterable<S> items) {
+        lock.writeLock().lock();
+        try {
+            List<S> saved = new ArrayList<>();
+            items.forEach(saved::add);
+            // all or nothing: a conflict must not leave earlier items applied but not journaled
+            saved.forEach(this::checkVersion);
+            List<TodoJournal.Row> rows = new ArrayList<>(saved.size());
+            for (S item : saved) {
+                rows.add(row(item));
+            }
+            writeAll(rows);
+            for (int i = 0; i < saved.size(); i++) {
+                saved.get(i).setVersion(rows.get(i).version());
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean insertIfAbsent(TodoItem item) {
+        lock.writeLock().lock();
+        try {
+            if (slots.containsKey(item.getId())) {
+                return false;
+            }
+            item.setStatus(TodoStatus.NOT_DONE);
+            TodoJournal.Row row = row(item);
+            write(row);
+            item.setVersion(row.version());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<TodoItem> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            return slot == null ? Optional.empty() : Optional.of(item(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<TodoItem> findByIdAndOwner(UUID id, String owner) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            return slot == null || !ownerOf[slot].name.equals(owner) ? Optional.empty() : Optional.of(item(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findAll() {
+        lock.readLock().lock();
+        try {
+            List<TodoItem> result = new ArrayList<>(slots.size());
+            for (int slot = 0; slot < highWater; slot++) {
+                if (statuses[slot] != FREE) {
+                    result.add(item(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<TodoItem> findAll(Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            List<TodoItem> content = new ArrayList<>(pageable.getPageSize());
+            long skip = pageable.getOffset();
+            for (int slot = 0; slot < highWater && content.size() < pageable.getPageSize(); slot++) {
+                if (statuses[slot] != FREE && skip-- <= 0) {
+                    content.add(item(slot));
+                }
+            }
+            return new PageImpl<>(content, pageable, slots.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findAllById(Iterable<UUID> ids) {
+        lock.readLock().lock();
+        try {
+            List<TodoItem> result = new ArrayList<>();
+            for (UUID id : ids) {
+                Integer slot = slots.get(id);
+                if (slot != null) {
+                    result.add(item(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> deleteIfUnchanged(Collection<TodoItem> items) {
+        lock.writeLock().lock();
+        try {
+            List<UUID> deleted = new ArrayList<>(items.size());
+            for (TodoItem item : items) {
+                Integer slot = slots.get(item.getId());
+                if (slot != null && statuses[slot] == item.getStatus().ordinal() && versions[slot] == item.getVersion()) {
+                    journal.delete(item.getId());
+                    undoOnRollback(item.getId(), row(slot), DELETED);
+                    remove(item.getId());
+                    deleted.add(item.getId());
+                }
+            }
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findByOwner(String owner) {
+        lock.readLock().lock();
+        try {
+            Owner o = owners.get(owner);
+            List<TodoItem> result = new ArrayList<>();
+            if (o != null) {
+                for (NavigableSet<DueKey> index : o.byStatusDue) {
+                    result.addAll(items(index));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findByOwnerAndStatus(String owner, TodoStatus status) {
+        lock.readLock().lock();
+        try {
+            Owner o = owners.get(owner);
+            return o == null ? new ArrayList<>() : items(o.byStatusDue.get(status.ordinal()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findByStatusAndDueDatetimeBefore(TodoStatus status, OffsetDateTime before) {
+        lock.readLock().lock();
+        try {
+            return items(byStatusDue.get(status.ordinal()).headSet(DueKey.lowest(micros(before)), false));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> findOverdueIds(OffsetDateTime before, UUID after, int limit) {
+        lock.readLock().lock();
+        try {
+            // continues after the cursor, so a whole sweep visits every NOT_DONE todo once
+            long beforeMicros = micros(before);
+            NavigableSet<IdKey> candidates = after == null ? notDoneById : notDoneById.tailSet(IdKey.of(after), false);
+            List<UUID> ids = new ArrayList<>(Math.min(limit, 1024));
+            for (IdKey key : candidates) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                long dueAt = due[key.slot()];
+                if (dueAt != NULL_TIME && dueAt < beforeMicros) {
+                    ids.add(new UUID(key.msb(), key.lsb()));
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<OffsetDateTime> findEarliestDueDatetime(TodoStatus status) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<DueKey> index = byStatusDue.get(status.ordinal());
+            return index.isEmpty() ? Optional.empty() : Optional.of(time(index.first().due()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<StatusCount> countGroupByOwnerAndStatus() {
+        lock.readLock().lock();
+        try {
+            List<StatusCount> result = new ArrayList<>();
+            for (Owner owner : owners.values()) {
+                for (TodoStatus status : STATUSES) {
+                    int count = owner.byStatusDue.get(status.ordinal()).size();
+                    if (count > 0) {
+                        result.add(new Count(owner.name, status, count));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Object[]> countDueByMinute(TodoStatus status, OffsetDateTime from, OffsetDateTime to) {
+        lock.readLock().lock();
+        try {
+            // the index is in due order, so each owner's minutes arrive ascending
+            Map<String, TreeMap<Long, Long>> counts = new HashMap<>();
+            for (DueKey key : byStatusDue.get(status.ordinal())
+                    .subSet(DueKey.lowest(micros(from)), true, DueKey.lowest(micros(to)), false)) {
+                counts.computeIfAbsent(ownerOf[key.slot()].name, o -> new TreeMap<>())
+                        .merge(Math.floorDiv(key.due(), 60_000_000L), 1L, Long::sum);
+            }
+            List<Object[]> result = new ArrayList<>();
+            counts.forEach((owner, minutes) ->
+                    minutes.forEach((minute, count) -> result.add(new Object[]{owner, minute, count})));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Object[]> countDueBefore(TodoStatus status, OffsetDateTime before) {
+        return countPerOwner(index -> index.subSet(DueKey.lowest(NULL_TIME + 1), true,
+                DueKey.lowest(micros(before)), false), status);
+    }
+
+    @Override
+    public List<Object[]> countDueFrom(TodoStatus status, OffsetDateTime from) {
+        return countPerOwner(index -> index.tailSet(DueKey.lowest(micros(from)), true), status);
+    }
+
+    @Override
+    public List<Object[]> countByCompletionBucket(TodoStatus status) {
+        lock.readLock().lock();
+        try {
+            Map<String, long[]> counts = new HashMap<>();
+            for (DueKey key : byStatusDue.get(status.ordinal())) {
+                int slot = key.slot();
+                if (created[slot] != NULL_TIME && done[slot] != NULL_TIME) {
+                    int bucket = CompletionBuckets.of(Duration.of(done[slot] - created[slot], ChronoUnit.MICROS));
+                    counts.computeIfAbsent(ownerOf[slot].name, o -> new long[CompletionBuckets.LABELS.length])[bucket]++;
+                }
+            }
+            List<Object[]> result = new ArrayList<>();
+            counts.forEach((owner, buckets) -> {
+                for (int bucket = 0; bucket < buckets.length; bucket++) {
+                    if (buckets[bucket] > 0) {
+                        result.add(new Object[]{owner, bucket, buckets[bucket]});
+                    }
+                }
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Object[]> countPerOwner(UnaryOperator<NavigableSet<DueKey>> range, TodoStatus status) {
+        lock.readLock().lock();
+        try {
+            List<Object[]> result = new ArrayList<>();
+            for (Owner owner : owners.values()) {
+                long count = range.apply(owner.byStatusDue.get(status.ordinal())).size();
+                if (count > 0) {
+                    result.add(new Object[]{owner.name, count});
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findArchivable(TodoStatus doneStatus, TodoStatus pastDue, OffsetDateTime cutoff,
+                                         Pageable pageable) {
+        long cutoffMicros = micros(cutoff);
+        lock.readLock().lock();
+        try {
+            List<TodoItem> result = new ArrayList<>(pageable.getPageSize());
+            long skip = pageable.getOffset();
+            for (DueKey key : byStatusDue.get(doneStatus.ordinal())) {
+                long doneAt = done[key.slot()];
+                if (doneAt != NULL_TIME && doneAt < cutoffMicros && skip-- <= 0) {
+                    result.add(item(key.slot()));
+                    if (result.size() == pageable.getPageSize()) {
+                        return result;
+                    }
+                }
+            }
+            for (DueKey key : byStatusDue.get(pastDue.ordinal()).headSet(DueKey.lowest(cutoffMicros), false)) {
+                if (skip-- <= 0) {
+                    result.add(item(key.slot()));
+                    if (result.size() == pageable.getPageSize()) {
+                        return result;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TodoItem> findFiltered(String owner, TodoFilter filter) {
+        LongPredicate createdInRange = range(filter.createdAfter(), filter.createdBefore());
+        LongPredicate doneInRange = range(filter.doneAfter(), filter.doneBefore());
+        long dueFrom = filter.dueAfter() == null ? Long.MIN_VALUE : micros(filter.dueAfter());
+        long dueTo = filter.dueBefore() == null ? Long.MAX_VALUE : micros(filter.dueBefore());
+
+        if (dueFrom >= dueTo) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Owner o = owners.get(owner);
+            if (o == null) {
+                return List.of();
+            }
+            List<Integer> matches = new ArrayList<>();
+            for (TodoStatus status : STATUSES) {
+                if (!filter.statuses().isEmpty() && !filter.statuses().contains(status)) {
+                    continue;
+                }
+                for (DueKey key : o.byStatusDue.get(status.ordinal())
+                        .subSet(DueKey.lowest(dueFrom), true, DueKey.lowest(dueTo), false)) {
+                    if (createdInRange.test(created[key.slot()]) && doneInRange.test(done[key.slot()])) {
+                        matches.add(key.slot());
+                    }
+                }
+            }
+
+            long[] column = column(filter.sortBy());
+            // null timestamps are Long.MIN_VALUE: first when ascending, last when descending, as in H2
+            Comparator<Integer> order = Comparator.<Integer>comparingLong(slot -> column[slot])
+                    .thenComparingInt(slot -> slot);
+            matches.sort(filter.direction() == Sort.Direction.ASC ? order : order.reversed());
+
+            List<TodoItem> result = new ArrayList<>(matches.size());
+            for (int slot : matches) {
+                result.add(item(slot));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<TodoItem> markDoneUnlessPastDue(UUID id, String owner, OffsetDateTime doneAt) {
+        long doneMicros = micros(doneAt);
+        return mutateUnlessPastDue(id, owner, false,
+                row -> changed(row, TodoStatus.DONE.ordinal(), doneMicros, row.description()));
+    }
+
+    @Override
+    public Optional<TodoItem> markNotDoneUnlessPastDue(UUID id, String owner) {
+        return mutateUnlessPastDue(id, owner, false,
+                row -> changed(row, TodoStatus.NOT_DONE.ordinal(), NULL_TIME, row.description()));
+    }
+
+    @Override
+    public Optional<TodoItem> updateDescriptionUnlessPastDue(UUID id, String owner, String description) {
+        return mutateUnlessPastDue(id, owner, true, row -> changed(row, row.status(), row.done(), description));
+    }
+
+    @Override
+    public List<TodoItem> markPastDue(Collection<UUID> ids, OffsetDateTime before) {
+        long cutoff = micros(before);
+        lock.writeLock().lock();
+        try {
+            List<TodoItem> marked = new ArrayList<>();
+            List<TodoJournal.Row> rows = new ArrayList<>();
+            for (UUID id : ids) {
+                Integer slot = slots.get(id);
+                if (slot == null || statuses[slot] != TodoStatus.NOT_DONE.ordinal() || due[slot] >= cutoff) {
+                    continue;
+                }
+                marked.add(item(slot));
+                TodoJournal.Row row = row(slot);
+                rows.add(changed(row, TodoStatus.PAST_DUE.ordinal(), row.done(), row.description()));
+            }
+            writeAll(rows);
+            return marked;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int markPastDueIfUnchanged(UUID id, long version, TodoStatus notDone, TodoStatus pastDue) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot == null || versions[slot] != version || statuses[slot] != notDone.ordinal()) {
+                return 0;
+            }
+            TodoJournal.Row row = row(slot);
+            write(changed(row, pastDue.ordinal(), row.done(), row.description()));
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Folds the journal into a new snapshot. The rows are copied under the lock and written
+     * outside it, so writers only wait for the copy and for swapping in the finished file.
+     */
+    @Scheduled(fixedDelayString = "${todo.in-memory.snapshot-interval:PT5M}",
+            initialDelayString = "${todo.in-memory.snapshot-interval:PT5M}")
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long start = System.nanoTime();
+            List<TodoJournal.Row> rows;
+            long mark;
+            lock.readLock().lock();
+            try {
+                rows = liveRows();
+                mark = journal.mark();
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Path written = journal.writeSnapshot(rows);
+
+            lock.writeLock().lock();
+            try {
+                journal.installSnapshot(written, mark);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Wrote snapshot of {} todos in {} ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        snapshot();
+        journal.close();
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // returns the row as it was before the change, or as it is after it
+    private Optional<TodoItem> mutateUnlessPastDue(UUID id, String owner, boolean returnChanged,
+                                                   UnaryOperator<TodoJournal.Row> change) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot == null || !ownerOf[slot].name.equals(owner) || statuses[slot] == TodoStatus.PAST_DUE.ordinal()) {
+                return Optional.empty();
+            }
+            TodoItem before = item(slot);
+            write(change.apply(row(slot)));
+            return Optional.of(returnChanged ? item(slot) : before);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // journal first: a failed append leaves memory as it was
+    private void write(TodoJournal.Row row) {
+        journal.put(row);
+        applyUndoably(row);
+    }
+
+    private void writeAll(List<TodoJournal.Row> rows) {
+        journal.putAll(rows);
+        rows.forEach(this::applyUndoably);
+    }
+
+    private void applyUndoably(TodoJournal.Row row) {
+        Integer slot = slots.get(row.id());
+        undoOnRollback(row.id(), slot == null ? null : row(slot), row.version());
+        apply(row);
+    }
+
+    // remembers the previous row for the surrounding transaction, if there is one
+    @SuppressWarnings("unchecked")
+    private void undoOnRollback(UUID id, @Nullable TodoJournal.Row previous, long writtenVersion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Deque<Undo> undo = (Deque<Undo>) TransactionSynchronizationManager.getResource(this);
+        if (undo == null) {
+            Deque<Undo> changes = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryTodoRepository.this);
+                    if (status == STATUS_ROLLED_BACK) {
+                        rollBack(changes);
+                    }
+                }
+            });
+            undo = changes;
+        }
+        undo.push(new Undo(id, previous, writtenVersion));
+    }
+
+    // newest change first; a row another transaction changed since is left alone
+    private void rollBack(Deque<Undo> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Undo change : changes) {
+                Integer slot = slots.get(change.id());
+                boolean unchanged = change.writtenVersion() == DELETED
+                        ? slot == null
+                        : slot != null && versions[slot] == change.writtenVersion();
+                if (!unchanged) {
+                    logger.warn("Not rolling back todo {}: it was changed by another transaction", change.id());
+                } else if (change.previous() == null) {
+                    journal.delete(change.id());
+                    remove(change.id());
+                } else {
+                    journal.put(change.previous());
+                    apply(change.previous());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkVersion(TodoItem item) {
+        Integer slot = item.getId() == null ? null : slots.get(item.getId());
+        if (slot != null && versions[slot] != item.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(TodoItem.class, item.getId());
+        }
+    }
+
+    // the row a checked item is stored as; assigns the id of a new item
+    private TodoJournal.Row row(TodoItem item) {
+        if (item.getId() == null) {
+            item.setId(UUID.randomUUID());
+        }
+        long version = slots.containsKey(item.getId()) ? item.getVersion() + 1 : 0;
+        return new TodoJournal.Row(item.getId(), item.getOwner(), (byte) item.getStatus().ordinal(),
+                micros(item.getCreationDatetime()), micros(item.getDueDatetime()),
+                micros(item.getDoneDatetime()), version, item.getDescription());
+    }
+
+    private static TodoJournal.Row changed(TodoJournal.Row row, int status, long doneAt, String description) {
+        return new TodoJournal.Row(row.id(), row.owner(), (byte) status, row.created(), row.due(), doneAt,
+                row.version() + 1, description);
+    }
+
+    // inserts or replaces a row; also used for journal replay
+    private void apply(TodoJournal.Row row) {
+        Integer existing = slots.get(row.id());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unindex(slot);
+        } else {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : highWater++;
+            if (slot == statuses.length) {
+                allocate(statuses.length * 2);
+            }
+            slots.put(row.id(), slot);
+        }
+        idMsb[slot] = row.id().getMostSignificantBits();
+        idLsb[slot] = row.id().getLeastSignificantBits();
+        ownerOf[slot] = owners.computeIfAbsent(row.owner(), Owner::new);
+        statuses[slot] = row.status();
+        created[slot] = row.created();
+        due[slot] = row.due();
+        done[slot] = row.done();
+        versions[slot] = row.version();
+        descriptions[slot] = row.description();
+        index(slot);
+    }
+
+    private void remove(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        unindex(slot);
+        statuses[slot] = FREE;
+        ownerOf[slot] = null;
+        descriptions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void index(int slot) {
+        DueKey key = new DueKey(due[slot], slot);
+        byStatusDue.get(statuses[slot]).add(key);
+        ownerOf[slot].byStatusDue.get(statuses[slot]).add(key);
+        if (statuses[slot] == TodoStatus.NOT_DONE.ordinal()) {
+            notDoneById.add(new IdKey(idMsb[slot], idLsb[slot], slot));
+        }
+    }
+
+    private void unindex(int slot) {
+        DueKey key = new DueKey(due[slot], slot);
+        byStatusDue.get(statuses[slot]).remove(key);
+        ownerOf[slot].byStatusDue.get(statuses[slot]).remove(key);
+        if (statuses[slot] == TodoStatus.NOT_DONE.ordinal()) {
+            notDoneById.remove(new IdKey(idMsb[slot], idLsb[slot], slot));
+        }
+    }
+
+    private void allocate(int capacity) {
+        int previous = statuses == null ? 0 : statuses.length;
+        idMsb = idMsb == null ? new long[capacity] : Arrays.copyOf(idMsb, capacity);
+        idLsb = idLsb == null ? new long[capacity] : Arrays.copyOf(idLsb, capacity);
+        ownerOf = ownerOf == null ? new Owner[capacity] : Arrays.copyOf(ownerOf, capacity);
+        statuses = statuses == null ? new byte[capacity] : Arrays.copyOf(statuses, capacity);
+        Arrays.fill(statuses, previous, capacity, FREE);
+        created = created == null ? new long[capacity] : Arrays.copyOf(created, capacity);
+        due = due == null ? new long[capacity] : Arrays.copyOf(due, capacity);
+        done = done == null ? new long[capacity] : Arrays.copyOf(done, capacity);
+        versions = versions == null ? new long[capacity] : Arrays.copyOf(versions, capacity);
+        descriptions = descriptions == null ? new String[capacity] : Arrays.copyOf(descriptions, capacity);
+    }
+
+    private TodoItem item(int slot) {
+        TodoItem item = new TodoItem();
+        item.setId(new UUID(idMsb[slot], idLsb[slot]));
+        item.setOwner(ownerOf[slot].name);
+        item.setDescription(descriptions[slot]);
+        item.setStatus(STATUSES[statuses[slot]]);
+        item.setCreationDatetime(time(created[slot]));
+        item.setDueDatetime(time(due[slot]));
+        item.setDoneDatetime(time(done[slot]));
+        item.setVersion(versions[slot]);
+        return item;
+    }
+
+    private List<TodoItem> items(Iterable<DueKey> keys) {
+        List<TodoItem> result = new ArrayList<>();
+        for (DueKey key : keys) {
+            result.add(item(key.slot()));
+        }
+        return result;
+    }
+
+    private TodoJournal.Row row(int slot) {
+        return new TodoJournal.Row(new UUID(idMsb[slot], idLsb[slot]), ownerOf[slot].name, statuses[slot],
+                created[slot], due[slot], done[slot], versions[slot], descriptions[slot]);
+    }
+
+    private List<TodoJournal.Row> liveRows() {
+        List<TodoJournal.Row> rows = new ArrayList<>(slots.size());
+        for (int slot = 0; slot < highWater; slot++) {
+            if (statuses[slot] != FREE) {
+                rows.add(row(slot));
+            }
+        }
+        return rows;
+    }
+
+    private static List<NavigableSet<DueKey>> statusIndex() {
+        List<NavigableSet<DueKey>> index = new ArrayList<>(STATUSES.length);
+        for (int i = 0; i < STATUSES.length; i++) {
+            index.add(new TreeSet<>());
+        }
+        return index;
+    }
+
+    private long[] column(TodoSortField field) {
+        return switch (field) {
+            case DUE_DATETIME -> due;
+            case CREATION_DATETIME -> created;
+            case DONE_DATETIME -> done;
+        };
+    }
+
+    // SQL semantics: a null column never matches a range condition
+    private static LongPredicate range(OffsetDateTime after, OffsetDateTime before) {
+        if (after == null && before == null) {
+            return value -> true;
+        }
+        long from = after == null ? Long.MIN_VALUE : micros(after);
+        long to = before == null ? Long.MAX_VALUE : micros(before);
+        return value -> value != NULL_TIME && value >= from && value < to;
+    }
+
+    private static long micros(OffsetDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(), 1_000_000L), time.getNano() / 1_000);
+    }
+
+    private static OffsetDateTime time(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L)
+                .atOffset(ZoneOffset.UTC);
+    }
+
+
+    /**
+     * Secondary index key: due date, then slot to keep keys unique.
+     */
+    private record DueKey(long due, int slot) implements Comparable<DueKey> {
+
+        static DueKey lowest(long due) {
+            return new DueKey(due, Integer.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Integer.compare(slot, other.slot);
+        }
+    }
+
+    /**
+     * Id index key in unsigned 128-bit order, the order H2 uses for UUID columns; ids are
+     * unique, so the slot is not compared.
+     */
+    private record IdKey(long msb, long lsb, int slot) implements Comparable<IdKey> {
+
+        static IdKey of(UUID id) {
+            return new IdKey(id.getMostSignificantBits(), id.getLeastSignificantBits(), -1);
+        }
+
+        @Override
+        public int compareTo(IdKey other) {
+            int byMsb = Long.compareUnsigned(msb, other.msb);
+            return byMsb != 0 ? byMsb : Long.compareUnsigned(lsb, other.lsb);
+        }
+    }
+
+    /**
+     * An owner's name, shared by all of its slots, and its per-status due-date index.
+     */
+    private static final class Owner {
+        private final String name;
+        private final List<NavigableSet<DueKey>> byStatusDue = statusIndex();
+
+        private Owner(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A change made inside a transaction: the row before it (null if there was none) and the
+     * version it wrote, {@link #DELETED} for a delete.
+     */
+    private record Undo(UUID id, @Nullable TodoJournal.Row previous, long writtenVersion) {
+    }
+
+    private record Count(String owner, TodoStatus status, long count) implements StatusCount {
+
+        @Override
+        public String getOwner() {
+            return owner;
+        }
+
+        @Override
+        public TodoStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Spring Data JPA implementation of {@link TodoRepository}, backed by {@code todo_items}.
+ */
+public interface JpaTodoRepository extends JpaRepository<TodoItem, UUID>, JpaSpecificationExecutor<TodoItem>,
+        TodoRepository {
+
+    @Override
+    Optional<TodoItem> findByIdAndOwner(UUID id, String owner);
+
+    @Override
+    List<TodoItem> findByOwner(String owner);
+
+    @Override
+    List<TodoItem> findByOwnerAndStatus(String owner, TodoStatus status);
+
+    @Override
+    List<TodoItem> findByStatusAndDueDatetimeBefore(TodoStatus status, OffsetDateTime before);
+
+    // primary key order, so consecutive pages scan disjoint id ranges
+    @Query(value = "SELECT id FROM todo_items WHERE status = 'NOT_DONE' AND due_datetime < :before"
+            + " ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UUID> findFirstOverdueIds(@Param("before") OffsetDateTime before, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM todo_items WHERE status = 'NOT_DONE' AND due_datetime < :before AND id > :after"
+            + " ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UUID> findOverdueIdsAfter(@Param("before") OffsetDateTime before, @Param("after") UUID after,
+                                   @Param("limit") int limit);
+
+    @Override
+    default List<UUID> findOverdueIds(OffsetDateTime before, UUID after, int limit) {
+        return after == null ? findFirstOverdueIds(before, limit) : findOverdueIdsAfter(before, after, limit);
+    }
+
+    @Override
+    @Query("select min(t.dueDatetime) from TodoItem t where t.status = :status")
+    Optional<OffsetDateTime> findEarliestDueDatetime(@Param("status") TodoStatus status);
+
+    @Override
+    @Query("select t.owner as owner, t.status as status, count(t) as count from TodoItem t"
+            + " group by t.owner, t.status")
+    List<StatusCount> countGroupByOwnerAndStatus();
+
+    @Override
+    @Query("select t.owner, floor(extract(epoch from t.dueDatetime) / 60), count(t) from TodoItem t"
+            + " where t.status = :status and t.dueDatetime >= :from and t.dueDatetime < :to"
+            + " group by t.owner, floor(extract(epoch from t.dueDatetime) / 60)")
+    List<Object[]> countDueByMinute(@Param("status") TodoStatus status, @Param("from") OffsetDateTime from,
+                                    @Param("to") OffsetDateTime to);
+
+    @Override
+    @Query("select t.owner, count(t) from TodoItem t where t.status = :status and t.dueDatetime < :before"
+            + " group by t.owner")
+    List<Object[]> countDueBefore(@Param("status") TodoStatus status, @Param("before") OffsetDateTime before);
+
+    @Override
+    @Query("select t.owner, count(t) from TodoItem t where t.status = :status and t.dueDatetime >= :from"
+            + " group by t.owner")
+    List<Object[]> countDueFrom(@Param("status") TodoStatus status, @Param("from") OffsetDateTime from);
+
+    @Override
+    @Query("select t.owner, " + CompletionBuckets.HQL + ", count(t) from TodoItem t"
+            + " where t.status = :status and t.creationDatetime is not null and t.doneDatetime is not null"
+            + " group by t.owner, " + CompletionBuckets.HQL)
+    List<Object[]> countByCompletionBucket(@Param("status") TodoStatus status);
+
+    @Override
+    @Query("select t from TodoItem t where (t.status = :done and t.doneDatetime < :cutoff)"
+            + " or (t.status = :pastDue and t.dueDatetime < :cutoff)")
+    List<TodoItem> findArchivable(@Param("done") TodoStatus done,
+                                  @Param("pastDue") TodoStatus pastDue,
+                                  @Param("cutoff") OffsetDateTime cutoff,
+                                  Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TodoItem t where t.id in :ids and t.version = :version")
+    int deleteUnchanged(@Param("ids") Collection<UUID> ids, @Param("version") long version);
+
+    @Query("select t.id from TodoItem t where t.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Every write bumps the version, so a row still at the version it was read with is unchanged. A chunk
+    // spans only a handful of versions, so this is one DELETE per distinct version rather than per row,
+    // and one SELECT to tell which rows a newer version kept. Only the archiver deletes todos.
+    @Override
+    @Transactional
+    default List<UUID> deleteIfUnchanged(Collection<TodoItem> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<UUID>> idsByVersion = items.stream().collect(Collectors.groupingBy(
+                TodoItem::getVersion, Collectors.mapping(TodoItem::getId, Collectors.toList())));
+        idsByVersion.forEach((version, ids) -> deleteUnchanged(ids, version));
+
+        List<UUID> ids = items.stream().map(TodoItem::getId).toList();
+        Set<UUID> kept = new HashSet<>(findExistingIds(ids));
+        return ids.stream().filter(id -> !kept.contains(id)).toList();
+    }
+
+    // Conditional mutations. A request reads the row without locking it and applies its change with one
+    // UPDATE guarded by the version it read, retrying on a fresh read when another writer got there first;
+    // the row that was read is then exactly the state the UPDATE replaced. Only the past-due sweep, a
+    // background batch, locks its chunk so one UPDATE can mark every row it read. Every bulk UPDATE clears
+    // the persistence context, so no managed entity keeps the old state.
+
+    // a constructor expression bypasses the persistence context, so a retry always sees the committed row
+    @Query("select new com.tradebyte.todo_service.entity.TodoItem(t.id, t.owner, t.description, t.status,"
+            + " t.creationDatetime, t.dueDatetime, t.doneDatetime, t.version)"
+            + " from TodoItem t where t.id = :id and t.owner = :owner")
+    Optional<TodoItem> findCurrentByIdAndOwner(@Param("id") UUID id, @Param("owner") String owner);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TodoItem t where t.id in :ids and t.status = :notDone and t.dueDatetime < :before")
+    List<TodoItem> findOverdueForUpdate(@Param("ids") Collection<UUID> ids, @Param("notDone") TodoStatus notDone,
+                                        @Param("before") OffsetDateTime before);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TodoItem t set t.status = :status, t.doneDatetime = :done, t.version = t.version + 1"
+            + " where t.id = :id and t.version = :version and t.status <> :pastDue")
+    int setStatusIfUnchanged(@Param("id") UUID id, @Param("version") long version,
+                             @Param("status") TodoStatus status, @Param("done") OffsetDateTime done,
+                             @Param("pastDue") TodoStatus pastDue);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TodoItem t set t.description = :description, t.version = t.version + 1"
+            + " where t.id = :id and t.version = :version and t.status <> :pastDue")
+    int setDescriptionIfUnchanged(@Param("id") UUID id, @Param("version") long version,
+                                  @Param("description") String description, @Param("pastDue") TodoStatus pastDue);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TodoItem t set t.status = :pastDue, t.version = t.version + 1"
+            + " where t.id in :ids and t.status = :notDone and t.dueDatetime < :before")
+    int setPastDue(@Param("ids") Collection<UUID> ids, @Param("before") OffsetDateTime before,
+                   @Param("notDone") TodoStatus notDone, @Param("pastDue") TodoStatus pastDue);
+
+    @Override
+    @Transactional
+    default Optional<TodoItem> markDoneUnlessPastDue(UUID id, String owner, OffsetDateTime done) {
+        return setStatusUnlessPastDue(id, owner, TodoStatus.DONE, done);
+    }
+
+    @Override
+    @Transactional
+    default Optional<TodoItem> markNotDoneUnlessPastDue(UUID id, String owner) {
+        return setStatusUnlessPastDue(id, owner, TodoStatus.NOT_DONE, null);
+    }
+
+    private Optional<TodoItem> setStatusUnlessPastDue(UUID id, String owner, TodoStatus status, OffsetDateTime done) {
+        while (true) {
+            Optional<TodoItem> before = findCurrentByIdAndOwner(id, owner);
+            if (before.isEmpty() || before.get().getStatus() == TodoStatus.PAST_DUE) {
+                return Optional.empty();
+            }
+            if (setStatusIfUnchanged(id, before.get().getVersion(), status, done, TodoStatus.PAST_DUE) == 1) {
+                return before;
+            }
+        }
+    }
+
+    // the response is the row that was read plus the change the UPDATE applied, so no re-read
+    @Override
+    @Transactional
+    default Optional<TodoItem> updateDescriptionUnlessPastDue(UUID id, String owner, String description) {
+        while (true) {
+            Optional<TodoItem> before = findCurrentByIdAndOwner(id, owner);
+            if (before.isEmpty() || before.get().getStatus() == TodoStatus.PAST_DUE) {
+                return Optional.empty();
+            }
+            TodoItem item = before.get();
+            if (setDescriptionIfUnchanged(id, item.getVersion(), description, TodoStatus.PAST_DUE) == 1) {
+                item.setDescription(description);
+                item.setVersion(item.getVersion() + 1);
+                return Optional.of(item);
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    default List<TodoItem> markPastDue(Collection<UUID> ids, OffsetDateTime before) {
+        List<TodoItem> overdue = findOverdueForUpdate(ids, TodoStatus.NOT_DONE, before);
+        if (!overdue.isEmpty()) {
+            setPastDue(overdue.stream().map(TodoItem::getId).toList(), before, TodoStatus.NOT_DONE, TodoStatus.PAST_DUE);
+        }
+        return overdue;
+    }
+
+    @Override
+    @Modifying
+    @Transactional
+    @Query("update TodoItem t set t.status = :pastDue, t.version = t.version + 1"
+            + " where t.id = :id and t.version = :version and t.status = :notDone")
+    int markPastDueIfUnchanged(@Param("id") UUID id,
+                               @Param("version") long version,
+                               @Param("notDone") TodoStatus notDone,
+                               @Param("pastDue") TodoStatus pastDue);
+
+    // recurring occurrences carry an id derived from their series, which @GeneratedValue would replace
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO todo_items (id, owner, description, status, creation_datetime, due_datetime, version)"
+            + " SELECT :id, :owner, :description, 'NOT_DONE', :created, :due, 0 FROM DUAL"
+            + " WHERE NOT EXISTS (SELECT 1 FROM todo_items WHERE id = :id)", nativeQuery = true)
+    int insertNotDoneIfAbsent(@Param("id") UUID id, @Param("owner") String owner,
+                              @Param("description") String description,
+                              @Param("created") OffsetDateTime created, @Param("due") OffsetDateTime due);
+
+    @Override
+    default boolean insertIfAbsent(TodoItem item) {
+        return insertNotDoneIfAbsent(item.getId(), item.getOwner(), item.getDescription(),
+                item.getCreationDatetime(), item.getDueDatetime()) == 1;
+    }
+
+    @Override
+    default List<TodoItem> findFiltered(String owner, TodoFilter filter) {
+        return findAll(TodoSpecifications.matching(owner, filter), filter.sort());
+    }
+}
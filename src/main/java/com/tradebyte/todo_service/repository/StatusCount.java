@@ -0,0 +1,12 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+
+/**
+ * Projection for row counts per owner and status.
+ */
+public interface StatusCount {
+    String getOwner();
+    TodoStatus getStatus();
+    long getCount();
+}
@@ -0,0 +1,32 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.entity.ArchivedTodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TodoArchiveRepository extends JpaRepository<ArchivedTodoItem, UUID> {
+
+    Optional<ArchivedTodoItem> findByIdAndOwner(UUID id, String owner);
+
+    List<ArchivedTodoItem> findByOwnerAndIdIn(String owner, Collection<UUID> ids);
+
+    @Query("select a.owner as owner, a.status as status, count(a) as count from ArchivedTodoItem a"
+            + " group by a.owner, a.status")
+    List<StatusCount> countGroupByOwnerAndStatus();
+
+    /**
+     * @return {@code [owner, bucket, count]} of the archived todos in the status per
+     *         {@link CompletionBuckets completion bucket}
+     */
+    @Query("select t.owner, " + CompletionBuckets.HQL + ", count(t) from ArchivedTodoItem t"
+            + " where t.status = :status and t.creationDatetime is not null and t.doneDatetime is not null"
+            + " group by t.owner, " + CompletionBuckets.HQL)
+    List<Object[]> countByCompletionBucket(@Param("status") TodoStatus status);
+}
@@ -0,0 +1,322 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.entity.TodoItem;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durability for {@link InMemoryTodoRepository}: an append-only journal of row images and
+ * deletes, plus a snapshot that replaces the journal's history. Recovery loads the snapshot
+ * and replays the journal on top; both record kinds are idempotent, so replaying a journal
+ * that was already folded into the snapshot is harmless. A torn journal tail is cut off.
+ * <p>
+ * Not thread-safe; the repository calls it under its lock, except {@link #writeSnapshot},
+ * which only writes a temporary file.
+ */
+final class TodoJournal implements Closeable {
+
+    private static final String JOURNAL_FILE = "todos.journal";
+    private static final String SNAPSHOT_FILE = "todos.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x54444f32;
+    /** Snapshots written before rows had an owner. */
+    private static final int LEGACY_SNAPSHOT_MAGIC = 0x54444f53;
+    /** Row image without owner, written before todos were partitioned by owner. */
+    private static final byte LEGACY_PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte PUT = 3;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path dir;
+    private final boolean fsync;
+    private FileChannel channel;
+    private DataOutputStream out;
+
+    TodoJournal(Path dir, boolean fsync) {
+        this.dir = dir;
+        this.fsync = fsync;
+    }
+
+
+    /**
+     * Loads the snapshot and replays the journal, then opens the journal for appends.
+     */
+    void recover(Consumer<Row> onPut, Consumer<UUID> onDelete) {
+        try {
+            Files.createDirectories(dir);
+            Path snapshot = dir.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                readSnapshot(snapshot, onPut);
+            }
+            Path journal = dir.resolve(JOURNAL_FILE);
+            long valid = Files.exists(journal) ? replay(journal, onPut, onDelete) : 0;
+
+            open(journal);
+            channel.truncate(valid);
+            channel.position(valid);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover todo journal in " + dir, e);
+        }
+    }
+
+    void put(Row row) {
+        append(PUT, payload -> row.write(payload));
+        sync();
+    }
+
+    /**
+     * Appends all rows, then flushes (and fsyncs) once for the whole batch.
+     */
+    void putAll(List<Row> rows) {
+        for (Row row : rows) {
+            append(PUT, payload -> row.write(payload));
+        }
+        sync();
+    }
+
+    void delete(UUID id) {
+        append(DELETE, payload -> {
+            payload.writeLong(id.getMostSignificantBits());
+            payload.writeLong(id.getLeastSignificantBits());
+        });
+        sync();
+    }
+
+    /**
+     * @return the end of the journal; a snapshot of the rows as of now covers everything before it
+     */
+    long mark() {
+        try {
+            out.flush();
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot flush todo journal", e);
+        }
+    }
+
+    /**
+     * Writes the rows to a temporary snapshot file, leaving the journal alone.
+     *
+     * @return the file to pass to {@link #installSnapshot}
+     */
+    Path writeSnapshot(List<Row> rows) {
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(file), 1 << 16), new CRC32());
+            DataOutputStream data = new DataOutputStream(checked);
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(rows.size());
+            for (Row row : rows) {
+                row.write(data);
+            }
+            data.flush();
+            data.writeLong(checked.getChecksum().getValue());
+            data.flush();
+            file.force(true);
+            return tmp;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write todo snapshot in " + dir, e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot and drops the journal records before {@code mark}; records appended
+     * since the mark are kept. Each step is an atomic rename, and a crash in between only
+     * replays records the snapshot already contains.
+     */
+    void installSnapshot(Path written, long mark) {
+        Path journal = dir.resolve(JOURNAL_FILE);
+        Path tail = dir.resolve(JOURNAL_FILE + ".tmp");
+        try {
+            Files.move(written, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+
+            out.flush();
+            long end = channel.position();
+            try (FileChannel copy = FileChannel.open(tail, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (long position = mark; position < end; ) {
+                    position += channel.transferTo(position, end - position, copy);
+                }
+                copy.force(true);
+            }
+            channel.close();
+            Files.move(tail, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            open(journal);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write todo snapshot in " + dir, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.flush();
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private void open(Path journal) throws IOException {
+        channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream payload) throws IOException;
+    }
+
+    private void append(byte type, PayloadWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream payload = new DataOutputStream(bytes);
+            payload.writeByte(type);
+            writer.write(payload);
+            byte[] record = bytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            out.writeInt(record.length);
+            out.write(record);
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to todo journal", e);
+        }
+    }
+
+    private void sync() {
+        try {
+            out.flush();
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to todo journal", e);
+        }
+    }
+
+    // returns the length of the valid prefix
+    private static long replay(Path journal, Consumer<Row> onPut, Consumer<UUID> onDelete) throws IOException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+            while (true) {
+                int length;
+                byte[] record;
+                int expected;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    record = in.readNBytes(length);
+                    if (record.length < length) {
+                        break;
+                    }
+                    expected = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if ((int) crc.getValue() != expected) {
+                    break;
+                }
+
+                DataInputStream payload = new DataInputStream(new ByteArrayInputStream(record));
+                byte type = payload.readByte();
+                if (type == PUT || type == LEGACY_PUT) {
+                    onPut.accept(Row.read(payload, type == PUT));
+                } else if (type == DELETE) {
+                    onDelete.accept(new UUID(payload.readLong(), payload.readLong()));
+                } else {
+                    break;
+                }
+                valid += Integer.BYTES + length + Integer.BYTES;
+            }
+        }
+        return valid;
+    }
+
+    private static void readSnapshot(Path snapshot, Consumer<Row> onPut) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16)) {
+            CheckedInputStream checked = new CheckedInputStream(file, new CRC32());
+            DataInputStream data = new DataInputStream(checked);
+            int magic = data.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != LEGACY_SNAPSHOT_MAGIC) {
+                throw new IOException("Not a todo snapshot: " + snapshot);
+            }
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                onPut.accept(Row.read(data, magic == SNAPSHOT_MAGIC));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (new DataInputStream(file).readLong() != expected) {
+                throw new IOException("Corrupt todo snapshot: " + snapshot);
+            }
+        }
+    }
+
+
+    /**
+     * One todo as stored on disk; timestamps are epoch microseconds, {@code Long.MIN_VALUE} for null.
+     * Rows from before owners existed are read as owned by {@link TodoItem#LEGACY_OWNER}.
+     */
+    record Row(UUID id, String owner, byte status, long created, long due, long done, long version,
+               String description) {
+
+        void write(DataOutputStream data) throws IOException {
+            data.writeLong(id.getMostSignificantBits());
+            data.writeLong(id.getLeastSignificantBits());
+            data.writeUTF(owner);
+            data.writeByte(status);
+            data.writeLong(created);
+            data.writeLong(due);
+            data.writeLong(done);
+            data.writeLong(version);
+            byte[] text = description.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(text.length);
+            data.write(text);
+        }
+
+        static Row read(DataInputStream data, boolean withOwner) throws IOException {
+            UUID id = new UUID(data.readLong(), data.readLong());
+            String owner = withOwner ? data.readUTF() : TodoItem.LEGACY_OWNER;
+            byte status = data.readByte();
+            long created = data.readLong();
+            long due = data.readLong();
+            long done = data.readLong();
+            long version = data.readLong();
+            byte[] text = data.readNBytes(data.readInt());
+            return new Row(id, owner, status, created, due, done, version, new String(text, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,14 +1,136 @@
 package com.tradebyte.todo_service.repository;
 
+import com.tradebyte.todo_service.dto.TodoFilter;
 import com.tradebyte.todo_service.entity.TodoItem;
 import com.tradebyte.todo_service.entity.TodoStatus;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface TodoRepository extends JpaRepository<TodoItem, UUID> {
-    List<TodoItem> findByStatus(TodoStatus status);
+/**
+ * Storage operations on todos used by the services. Implemented by {@link JpaTodoRepository}
+ * and, with the {@code in-memory} profile, by {@link InMemoryTodoRepository}.
+ * <p>
+ * Request-path reads and mutations are scoped to one owner (tenant); the sweep, the
+ * archiver and the statistics rebuild work across all owners.
+ */
+public interface TodoRepository {
+
+    <S extends TodoItem> S save(S item);
+
+    <S extends TodoItem> List<S> saveAll(Iterable<S> items);
+
+    /**
+     * Inserts a NOT_DONE todo with a preassigned id unless a todo with that id exists.
+     *
+     * @return true if inserted
+     */
+    boolean insertIfAbsent(TodoItem item);
+
+    Optional<TodoItem> findById(UUID id);
+
+    Optional<TodoItem> findByIdAndOwner(UUID id, String owner);
+
+    List<TodoItem> findAll();
+
+    Page<TodoItem> findAll(Pageable pageable);
+
+    List<TodoItem> findAllById(Iterable<UUID> ids);
+
+    /**
+     * Deletes those of the todos that still have the version they were read with, so a change
+     * committed since the read keeps its row.
+     *
+     * @return the ids actually deleted
+     */
+    List<UUID> deleteIfUnchanged(Collection<TodoItem> items);
+
+    List<TodoItem> findByOwner(String owner);
+
+    List<TodoItem> findByOwnerAndStatus(String owner, TodoStatus status);
+
     List<TodoItem> findByStatusAndDueDatetimeBefore(TodoStatus status, OffsetDateTime before);
+
+    /**
+     * Keyset page of NOT_DONE todos due before {@code before}, in the database's id order.
+     *
+     * @param after the last id of the previous page; {@code null} for the first page
+     * @return up to {@code limit} ids greater than {@code after}
+     */
+    List<UUID> findOverdueIds(OffsetDateTime before, UUID after, int limit);
+
+    /**
+     * @return the earliest due datetime among todos in the status; empty if there are none
+     */
+    Optional<OffsetDateTime> findEarliestDueDatetime(TodoStatus status);
+
+    List<StatusCount> countGroupByOwnerAndStatus();
+
+    /**
+     * Counts the todos in the status due in {@code [from, to)} per owner and due minute.
+     *
+     * @return {@code [owner, epochMinute, count]} rows
+     */
+    List<Object[]> countDueByMinute(TodoStatus status, OffsetDateTime from, OffsetDateTime to);
+
+    /**
+     * @return {@code [owner, count]} of the todos in the status due before {@code before}
+     */
+    List<Object[]> countDueBefore(TodoStatus status, OffsetDateTime before);
+
+    /**
+     * @return {@code [owner, count]} of the todos in the status due at or after {@code from}
+     */
+    List<Object[]> countDueFrom(TodoStatus status, OffsetDateTime from);
+
+    /**
+     * @return {@code [owner, bucket, count]} of the todos in the status per
+     *         {@link CompletionBuckets completion bucket}
+     */
+    List<Object[]> countByCompletionBucket(TodoStatus status);
+
+    List<TodoItem> findArchivable(TodoStatus done, TodoStatus pastDue, OffsetDateTime cutoff, Pageable pageable);
+
+    List<TodoItem> findFiltered(String owner, TodoFilter filter);
+
+    /**
+     * Sets DONE unless the todo is PAST_DUE atomically.
+     *
+     * @return the todo as it was before the update; empty if missing, owned by someone else or PAST_DUE
+     */
+    Optional<TodoItem> markDoneUnlessPastDue(UUID id, String owner, OffsetDateTime done);
+
+    /**
+     * Sets NOT_DONE unless the todo is PAST_DUE atomically.
+     *
+     * @return the todo as it was before the update; empty if missing, owned by someone else or PAST_DUE
+     */
+    Optional<TodoItem> markNotDoneUnlessPastDue(UUID id, String owner);
+
+    /**
+     * Changes the description unless the todo is PAST_DUE atomically.
+     *
+     * @return the updated todo; empty if missing, owned by someone else or PAST_DUE
+     */
+    Optional<TodoItem> updateDescriptionUnlessPastDue(UUID id, String owner, String description);
+
+    /**
+     * Sets PAST_DUE on those of the todos that are still NOT_DONE and due before {@code before},
+     * atomically.
+     *
+     * @return the updated todos as they were before the update
+     */
+    List<TodoItem> markPastDue(Collection<UUID> ids, OffsetDateTime before);
+
+    /**
+     * Sets PAST_DUE if the todo still has the given version and status.
+     *
+     * @return 1 if updated, otherwise 0
+     */
+    int markPastDueIfUnchanged(UUID id, long version, TodoStatus notDone, TodoStatus pastDue);
 }
@@ -0,0 +1,22 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.entity.TodoSeries;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TodoSeriesRepository extends JpaRepository<TodoSeries, UUID> {
+
+    Optional<TodoSeries> findByIdAndOwner(UUID id, String owner);
+
+    List<TodoSeries> findByOwner(String owner);
+
+    /** Series with an occurrence due before the given instant that is not stored yet. */
+    List<TodoSeries> findByNextDueBeforeOrderByNextDue(OffsetDateTime before, Pageable pageable);
+
+    List<TodoSeries> findByOwnerAndNextDueBefore(String owner, OffsetDateTime before);
+}
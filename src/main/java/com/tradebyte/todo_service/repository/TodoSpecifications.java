@@ -0,0 +1,48 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.entity.TodoItem;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-based {@link Specification}s for {@link TodoItem} queries.
+ */
+public final class TodoSpecifications {
+
+    private TodoSpecifications() {
+    }
+
+    /**
+     * Builds a specification matching the owner's todos that meet every condition set on the filter.
+     */
+    public static Specification<TodoItem> matching(String owner, TodoFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("owner"), owner));
+            if (!filter.statuses().isEmpty()) {
+                predicates.add(root.get("status").in(filter.statuses()));
+            }
+            range(predicates, root, cb, "dueDatetime", filter.dueAfter(), filter.dueBefore());
+            range(predicates, root, cb, "creationDatetime", filter.createdAfter(), filter.createdBefore());
+            range(predicates, root, cb, "doneDatetime", filter.doneAfter(), filter.doneBefore());
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static void range(List<Predicate> predicates, Root<TodoItem> root, CriteriaBuilder cb,
+                              String property, OffsetDateTime after, OffsetDateTime before) {
+        if (after != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<OffsetDateTime>get(property), after));
+        }
+        if (before != null) {
+            predicates.add(cb.lessThan(root.<OffsetDateTime>get(property), before));
+        }
+    }
+}
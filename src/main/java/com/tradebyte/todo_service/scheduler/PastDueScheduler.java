@@ -1,27 +1,172 @@
 package com.tradebyte.todo_service.scheduler;
 
+import com.tradebyte.todo_service.service.DueWatermark;
 import com.tradebyte.todo_service.service.TodoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Runs the past-due sweep when the earliest NOT_DONE todo falls due instead of polling: after
+ * each run the next one is scheduled at the {@link DueWatermark}, at least
+ * {@code todo.past-due.min-interval} and at most {@code todo.past-due.max-interval} later.
+ * A todo due earlier than the scheduled run moves the run forward. The max interval bounds
+ * the delay for todos written by other instances sharing the database.
+ * <p>
+ * Metrics: {@code todo.past_due.sweep.lag} (how long the earliest overdue todo waited at the
+ * last run), {@code todo.past_due.sweep.next_run} (seconds until the next run), and the
+ * counters {@code todo.past_due.sweep.runs} and {@code todo.past_due.marked}.
+ */
 @Component
 public class PastDueScheduler {
 
     private final TodoService service;
+    private final DueWatermark watermark;
+    private final TaskScheduler taskScheduler;
     private final Logger logger = LoggerFactory.getLogger(PastDueScheduler.class);
 
-    public PastDueScheduler(TodoService service) {
+    private final boolean enabled;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Counter runs;
+    private final Counter marked;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private ScheduledFuture<?> scheduled;
+    private long generation;
+    private Instant nextRun;
+    private Instant lastStart = Instant.MIN;
+    private boolean running;
+
+    private volatile Duration lag = Duration.ZERO;
+
+    public PastDueScheduler(TodoService service,
+                            DueWatermark watermark,
+                            TaskScheduler taskScheduler,
+                            MeterRegistry meterRegistry,
+                            @Value("${todo.past-due.enabled:true}") boolean enabled,
+                            @Value("${todo.past-due.min-interval:PT1S}") Duration minInterval,
+                            @Value("${todo.past-due.max-interval:PT5M}") Duration maxInterval) {
         this.service = service;
+        this.watermark = watermark;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.runs = meterRegistry.counter("todo.past_due.sweep.runs");
+        this.marked = meterRegistry.counter("todo.past_due.marked");
+        Gauge.builder("todo.past_due.sweep.lag", this, s -> s.lag.toMillis() / 1000.0)
+                .baseUnit("seconds")
+                .description("Time between the earliest overdue due datetime and the sweep that marked it")
+                .register(meterRegistry);
+        Gauge.builder("todo.past_due.sweep.next_run", this, PastDueScheduler::secondsUntilNextRun)
+                .baseUnit("seconds")
+                .description("Time until the next past-due sweep")
+                .register(meterRegistry);
     }
 
-    // runs every minute; adjust interval as needed
-    @Scheduled(fixedDelayString = "PT1M")
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        watermark.onEarlier(this::wakeUpBy);
+        synchronized (lock) {
+            scheduleAt(Instant.now());
+        }
+    }
+
+    // one sweep, then schedules the next
     public void markPastDue() {
-        int updated = service.markPastDueIfRequired();
-        if (updated > 0) {
-            logger.info("Marked {} todo(s) as PAST_DUE", updated);
+        Instant start = Instant.now();
+        synchronized (lock) {
+            running = true;
+            lastStart = start;
+            nextRun = null;
+        }
+        Instant earliest = watermark.take();
+        lag = earliest != null && earliest.isBefore(start) ? Duration.between(earliest, start) : Duration.ZERO;
+        try {
+            int updated = service.markPastDueIfRequired();
+            runs.increment();
+            marked.increment(updated);
+            if (updated > 0) {
+                logger.info("Marked {} todo(s) as PAST_DUE, {} ms after the earliest was due", updated, lag.toMillis());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Past-due sweep failed: {}", e.getMessage(), e);
+            // retried after the min interval
+            if (earliest != null) {
+                watermark.offer(earliest.atOffset(ZoneOffset.UTC));
+            }
+        } finally {
+            synchronized (lock) {
+                running = false;
+                scheduleAt(next(start, watermark.peek()));
+            }
+        }
+    }
+
+    Instant nextRun() {
+        synchronized (lock) {
+            return nextRun;
         }
     }
+
+    // a todo became due earlier than the scheduled run
+    private void wakeUpBy(Instant due) {
+        synchronized (lock) {
+            if (running || nextRun == null || !due.isBefore(nextRun)) {
+                return;
+            }
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            scheduleAt(next(lastStart, due));
+        }
+    }
+
+    private Instant next(Instant lastStart, Instant due) {
+        Instant earliest = lastStart.equals(Instant.MIN) ? Instant.now() : lastStart.plus(minInterval);
+        Instant latest = Instant.now().plus(maxInterval);
+        if (due == null || due.isAfter(latest)) {
+            return latest;
+        }
+        return due.isBefore(earliest) ? earliest : due;
+    }
+
+    // a newer schedule supersedes older ones, also if their run already fired and waits for the lock
+    private void scheduleAt(Instant at) {
+        long current = ++generation;
+        nextRun = at;
+        scheduled = taskScheduler.schedule(() -> runIfCurrent(current), at);
+    }
+
+    private void runIfCurrent(long scheduledGeneration) {
+        synchronized (lock) {
+            if (scheduledGeneration != generation) {
+                return;
+            }
+            running = true;
+        }
+        markPastDue();
+    }
+
+    private double secondsUntilNextRun() {
+        Instant next = nextRun();
+        return next == null ? 0 : Math.max(0, Duration.between(Instant.now(), next).toMillis() / 1000.0);
+    }
 }
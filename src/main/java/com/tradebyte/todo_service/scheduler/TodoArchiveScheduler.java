@@ -0,0 +1,61 @@
+package com.tradebyte.todo_service.scheduler;
+
+import com.tradebyte.todo_service.service.TodoArchiveService;
+import com.tradebyte.todo_service.writebehind.TodoWriteBehindBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+@Component
+public class TodoArchiveScheduler {
+
+    private final TodoArchiveService archiveService;
+    private final TodoWriteBehindBuffer writeBehind;
+    private final Logger logger = LoggerFactory.getLogger(TodoArchiveScheduler.class);
+
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    public TodoArchiveScheduler(TodoArchiveService archiveService,
+                                TodoWriteBehindBuffer writeBehind,
+                                @Value("${todo.archive.enabled:true}") boolean enabled,
+                                @Value("${todo.archive.min-age:P30D}") Duration minAge,
+                                @Value("${todo.archive.chunk-size:500}") int chunkSize,
+                                @Value("${todo.archive.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.archiveService = archiveService;
+        this.writeBehind = writeBehind;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    // moves terminal-state todos in chunks, one transaction per chunk
+    @Scheduled(fixedDelayString = "${todo.archive.interval:PT1H}", initialDelayString = "PT1M")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        // archival selects by status in the database
+        writeBehind.flush();
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(minAge);
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int moved = archiveService.archiveChunk(cutoff, chunkSize);
+            total += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Archived {} todo(s) older than {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.tradebyte.todo_service.scheduler;
+
+import com.tradebyte.todo_service.service.TodoSeriesService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TodoSeriesScheduler {
+
+    private final TodoSeriesService seriesService;
+
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public TodoSeriesScheduler(TodoSeriesService seriesService,
+                               @Value("${todo.series.enabled:true}") boolean enabled,
+                               @Value("${todo.series.chunk-size:500}") int chunkSize) {
+        this.seriesService = seriesService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    // moves the horizon forward, one transaction per chunk of series
+    @Scheduled(fixedDelayString = "${todo.series.interval:PT1H}", initialDelayString = "PT10S")
+    public void materialize() {
+        if (!enabled) {
+            return;
+        }
+        // a full chunk means more series may be waiting
+        int processed;
+        do {
+            processed = seriesService.materializeChunk(chunkSize);
+        } while (processed == chunkSize);
+    }
+}
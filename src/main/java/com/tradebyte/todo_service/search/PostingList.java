@@ -0,0 +1,65 @@
+package com.tradebyte.todo_service.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, growable array of internal document ids for a single token.
+ * Ids are mostly handed out monotonically, so appends keep the array sorted; a reused id
+ * of a removed todo is inserted in place.
+ */
+class PostingList {
+
+    private int[] docs = new int[4];
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] >= doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                return;
+            }
+            insertAt(-pos - 1, doc);
+            return;
+        }
+        ensureCapacity();
+        docs[size++] = doc;
+    }
+
+    void remove(int doc) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(docs, size);
+    }
+
+    long memoryBytes() {
+        return 16L + 4L * docs.length;
+    }
+
+    private void insertAt(int pos, int doc) {
+        ensureCapacity();
+        System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+        docs[pos] = doc;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length + (docs.length >> 1) + 1);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tradebyte.todo_service.search;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of matching todo ids, in index order, plus the total number of matches.
+ */
+public record SearchHits(
+        List<UUID> ids,
+        long total
+) {}
@@ -0,0 +1,331 @@
+package com.tradebyte.todo_service.search;
+
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over todo descriptions.
+ * Every todo gets a compact internal doc id; each token maps to a sorted
+ * {@link PostingList} of those ids. The last query term is matched as a prefix,
+ * all other terms must match exactly. Tokens are keyed by owner, so a search only
+ * walks the posting lists of the searching owner's todos. Rebuilt from the database
+ * on startup and kept current by {@code TodoService}. {@code TodoArchiveService} removes
+ * archived todos and their doc ids are reused, so the index stays as large as the live table.
+ */
+@Component
+public class TodoSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    /** Separates owner and token in posting keys; never part of a token. */
+    private static final char OWNER_SEPARATOR = '\u0000';
+    private static final int REBUILD_PAGE_SIZE = 5_000;
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+
+    private final TodoRepository repo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private UUID[] uuids = new UUID[1024];
+    private String[][] docTokens = new String[1024][];
+    private byte[] statuses = new byte[1024];
+    private int nextDoc;
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+
+    public TodoSearchIndex(TodoRepository repo) {
+        this.repo = repo;
+    }
+
+
+    /**
+     * Rebuilds the index from the database, page by page, once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            clear();
+            int pageNo = 0;
+            Page<TodoItem> page;
+            do {
+                page = repo.findAll(PageRequest.of(pageNo++, REBUILD_PAGE_SIZE));
+                for (TodoItem item : page) {
+                    put(item.getOwner(), item.getId(), item.getDescription(), item.getStatus());
+                }
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Rebuilt search index with {} todos and {} tokens in {} ms",
+                docIds.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+
+    /**
+     * Adds a todo to the index, or replaces its description and status if already indexed.
+     */
+    public void index(String owner, UUID id, String description, TodoStatus status) {
+        lock.writeLock().lock();
+        try {
+            put(owner, id, description, status);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Updates the status used for filtering without re-tokenizing the description.
+     */
+    public void updateStatus(UUID id, TodoStatus status) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIds.get(id);
+            if (doc != null) {
+                statuses[doc] = (byte) status.ordinal();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Removes todos from the index, e.g. once they have been archived. Unknown ids are ignored.
+     */
+    public void removeAll(Collection<UUID> ids) {
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                Integer doc = docIds.remove(id);
+                if (doc != null) {
+                    removePostings(doc);
+                    uuids[doc] = null;
+                    docTokens[doc] = null;
+                    if (freeCount == freeDocs.length) {
+                        freeDocs = Arrays.copyOf(freeDocs, freeCount << 1);
+                    }
+                    freeDocs[freeCount++] = doc;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Searches one owner's todos.
+     *
+     * @param owner  the owner whose todos are searched
+     * @param query  free text; the last term is matched as a prefix
+     * @param status optional status filter
+     * @param page   zero-based page number
+     * @param size   page size
+     * @return the requested page of ids and the total number of matches
+     */
+    public SearchHits search(String owner, String query, TodoStatus status, int page, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<int[]> lists = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                String term = key(owner, terms.get(i));
+                int[] docs = i == terms.size() - 1 ? prefixDocs(term) : exactDocs(term);
+                if (docs.length == 0) {
+                    return new SearchHits(List.of(), 0);
+                }
+                lists.add(docs);
+            }
+            lists.sort(Comparator.comparingInt(a -> a.length));
+
+            int[] result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+
+            long total = 0;
+            long from = (long) page * size;
+            List<UUID> ids = new ArrayList<>(Math.min(size, result.length));
+            for (int doc : result) {
+                if (status != null && statuses[doc] != status.ordinal()) {
+                    continue;
+                }
+                if (total >= from && ids.size() < size) {
+                    ids.add(uuids[doc]);
+                }
+                total++;
+            }
+            return new SearchHits(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Approximate heap used by the posting lists and per-document arrays, in bytes.
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) uuids.length * (8 + 32) + docTokens.length * 8L + statuses.length
+                    + freeDocs.length * 4L;
+            for (Map.Entry<String, PostingList> e : postings.entrySet()) {
+                bytes += 40L + 2L * e.getKey().length() + e.getValue().memoryBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static String key(String owner, String token) {
+        return owner + OWNER_SEPARATOR + token;
+    }
+
+    private void put(String owner, UUID id, String description, TodoStatus status) {
+        Integer existing = docIds.get(id);
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            removePostings(doc);
+        } else {
+            doc = freeCount > 0 ? freeDocs[--freeCount] : nextDoc++;
+            ensureCapacity(doc);
+            docIds.put(id, doc);
+            uuids[doc] = id;
+        }
+
+        String[] tokens = tokenize(description).stream().map(token -> key(owner, token)).toArray(String[]::new);
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new PostingList()).add(doc);
+        }
+        docTokens[doc] = tokens;
+        statuses[doc] = (byte) (status == null ? STATUSES.length : status.ordinal());
+    }
+
+    private void removePostings(int doc) {
+        for (String token : docTokens[doc]) {
+            PostingList list = postings.get(token);
+            list.remove(doc);
+            if (list.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private int[] exactDocs(String term) {
+        PostingList list = postings.get(term);
+        return list == null ? new int[0] : list.toArray();
+    }
+
+    private int[] prefixDocs(String prefix) {
+        NavigableMap<String, PostingList> matches =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matches.size() == 1) {
+            return matches.firstEntry().getValue().toArray();
+        }
+        BitSet union = new BitSet(nextDoc);
+        for (PostingList list : matches.values()) {
+            for (int doc : list.toArray()) {
+                union.set(doc);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    private static int[] intersect(int[] smaller, int[] larger) {
+        int[] out = new int[smaller.length];
+        int n = 0;
+        int from = 0;
+        for (int doc : smaller) {
+            int pos = Arrays.binarySearch(larger, from, larger.length, doc);
+            if (pos >= 0) {
+                out[n++] = doc;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+            if (from >= larger.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private void ensureCapacity(int doc) {
+        if (doc < uuids.length) {
+            return;
+        }
+        int capacity = uuids.length << 1;
+        uuids = Arrays.copyOf(uuids, capacity);
+        docTokens = Arrays.copyOf(docTokens, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+
+    private void clear() {
+        postings.clear();
+        docIds.clear();
+        Arrays.fill(uuids, null);
+        Arrays.fill(docTokens, null);
+        nextDoc = 0;
+        freeCount = 0;
+    }
+}
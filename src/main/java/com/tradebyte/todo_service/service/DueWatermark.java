@@ -0,0 +1,58 @@
+package com.tradebyte.todo_service.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Earliest due datetime of a NOT_DONE todo the past-due sweep has not handled yet, so the sweep
+ * can sleep until then instead of polling. {@link TodoService} offers the due datetime of every
+ * todo that becomes NOT_DONE; the sweep takes the watermark when it starts and offers the
+ * earliest remaining due datetime when it finishes.
+ * <p>
+ * A due datetime earlier than the current watermark is passed to the listener, which lets the
+ * scheduler move its next run forward.
+ */
+@Component
+public class DueWatermark {
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final AtomicLong earliest = new AtomicLong(NONE);
+    private volatile Consumer<Instant> listener = due -> { };
+
+    public void offer(OffsetDateTime due) {
+        if (due == null) {
+            return;
+        }
+        long millis = due.toInstant().toEpochMilli();
+        if (millis < earliest.getAndAccumulate(millis, Math::min)) {
+            listener.accept(Instant.ofEpochMilli(millis));
+        }
+    }
+
+    /**
+     * @return the earliest offered due datetime, or {@code null} if nothing is pending
+     */
+    public Instant peek() {
+        long millis = earliest.get();
+        return millis == NONE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /**
+     * Clears the watermark; due datetimes offered from now on are kept.
+     *
+     * @return the watermark before clearing, or {@code null} if nothing was pending
+     */
+    public Instant take() {
+        long millis = earliest.getAndSet(NONE);
+        return millis == NONE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    public void onEarlier(Consumer<Instant> listener) {
+        this.listener = listener;
+    }
+}
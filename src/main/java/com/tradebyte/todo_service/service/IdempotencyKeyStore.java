@@ -0,0 +1,236 @@
+package com.tradebyte.todo_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.IdempotencyRecord;
+import com.tradebyte.todo_service.exception.IdempotencyKeyReusedException;
+import com.tradebyte.todo_service.exception.InvalidIdempotencyKeyException;
+import com.tradebyte.todo_service.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-expiring store for {@code Idempotency-Key} responses.
+ * The first request for a key runs the action; concurrent duplicates wait on the same
+ * in-flight future, and later repeats get the stored {@link TodoResponse} without
+ * touching {@link TodoService}. Failed actions are not remembered, so a retry runs again.
+ * A key reused with a different request body is rejected instead of replayed.
+ * With {@code todo.idempotency.persist} enabled, completed responses are also written to
+ * {@code idempotency_records}, in the same transaction as the action, and survive restarts.
+ */
+@Component
+public class IdempotencyKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyStore.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepo;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transactions;
+    private final long ttlNanos;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final boolean persist;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyKeyStore(IdempotencyRecordRepository recordRepo,
+                               ObjectMapper mapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${todo.idempotency.ttl:PT24H}") Duration ttl,
+                               @Value("${todo.idempotency.max-entries:100000}") int maxEntries,
+                               @Value("${todo.idempotency.persist:false}") boolean persist) {
+        this.recordRepo = recordRepo;
+        this.mapper = mapper;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.persist = persist;
+    }
+
+
+    /**
+     * Runs the action once per {@code scope} and key within the TTL.
+     *
+     * @param scope   the operation the key applies to, e.g. {@code "done:<id>"}
+     * @param key     the client-supplied Idempotency-Key
+     * @param request the request body, or {@code null} if the operation has none
+     * @param action  the operation to execute on first use of the key
+     * @return the response of the first execution
+     * @throws IdempotencyKeyReusedException if the key was first used with a different body
+     */
+    public TodoResponse execute(String scope, String key, Object request, Supplier<TodoResponse> action) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+
+        while (true) {
+            long now = System.nanoTime();
+            Entry existing = entries.get(id);
+            if (existing != null && !existing.isExpired(now)) {
+                if (!existing.requestHash.equals(requestHash)) {
+                    throw new IdempotencyKeyReusedException(key);
+                }
+                logger.info("Replaying idempotent response for key {}", id);
+                return await(existing);
+            }
+
+            Entry entry = new Entry(requestHash, now + ttlNanos);
+            boolean owner = existing == null
+                    ? entries.putIfAbsent(id, entry) == null
+                    : entries.replace(id, existing, entry);
+            if (!owner) {
+                continue;
+            }
+            insertionOrder.add(id);
+            evictIfFull();
+            return run(id, key, entry, action);
+        }
+    }
+
+
+    /**
+     * Drops expired keys from memory and, when persistence is enabled, from the database.
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+        insertionOrder.removeIf(id -> !entries.containsKey(id));
+        if (persist) {
+            int deleted = recordRepo.deleteExpired(OffsetDateTime.now());
+            if (deleted > 0) {
+                logger.info("Purged {} expired idempotency records", deleted);
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+
+    private TodoResponse run(String id, String key, Entry entry, Supplier<TodoResponse> action) {
+        try {
+            // the action joins this transaction, so the todo and its record commit or roll back together
+            TodoResponse response = !persist ? action.get() : transactions.execute(status ->
+                    loadPersisted(id, key, entry.requestHash).orElseGet(() -> {
+                        TodoResponse first = action.get();
+                        store(id, entry.requestHash, first);
+                        return first;
+                    }));
+            entry.future.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            entries.remove(id, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private TodoResponse await(Entry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Optional<TodoResponse> loadPersisted(String id, String key, String requestHash) {
+        return recordRepo.findById(id)
+                .filter(r -> r.getExpiresAt().isAfter(OffsetDateTime.now()))
+                .map(r -> {
+                    // records written before request hashes were stored have none
+                    if (r.getRequestHash() != null && !r.getRequestHash().equals(requestHash)) {
+                        throw new IdempotencyKeyReusedException(key);
+                    }
+                    try {
+                        return mapper.readValue(r.getResponseJson(), TodoResponse.class);
+                    } catch (JsonProcessingException e) {
+                        logger.warn("Ignoring unreadable idempotency record {}: {}", id, e.getMessage());
+                        return null;
+                    }
+                });
+    }
+
+    private void store(String id, String requestHash, TodoResponse response) {
+        try {
+            recordRepo.save(new IdempotencyRecord(id, mapper.writeValueAsString(response), requestHash,
+                    OffsetDateTime.now().plus(ttl)));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not persist idempotency record {}: {}", id, e.getMessage());
+        }
+    }
+
+    // SHA-256 of the body as JSON; the same request always serializes the same way
+    private String hash(Object request) {
+        if (request == null) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(mapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint idempotent request", e);
+        }
+    }
+
+    private void evictIfFull() {
+        while (entries.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest);
+            if (entry != null && entry.future.isDone()) {
+                entries.remove(oldest, entry);
+            } else if (entry != null) {
+                // never drop an in-flight key, or its duplicates would run again
+                insertionOrder.add(oldest);
+                return;
+            }
+        }
+    }
+
+
+    private static final class Entry {
+        private final CompletableFuture<TodoResponse> future = new CompletableFuture<>();
+        private final String requestHash;
+        private final long expiresAtNanos;
+
+        private Entry(String requestHash, long expiresAtNanos) {
+            this.requestHash = requestHash;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+}
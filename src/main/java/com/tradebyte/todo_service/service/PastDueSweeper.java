@@ -0,0 +1,170 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Splits the past-due sweep into chunks of {@code todo.past-due.chunk-size} overdue ids, each
+ * marked in its own transaction. The ids are read as keyset pages in primary key order, so each
+ * chunk is a disjoint id range.
+ * <p>
+ * A backlog that fits one chunk is handled on the calling thread. A larger one (catch-up after
+ * downtime) is spread over a fixed pool of {@code todo.past-due.catch-up.workers} threads. The
+ * number of chunks in flight is capped by a semaphore sized to the connection pool minus
+ * {@code todo.past-due.catch-up.reserved-connections}, so the catch-up never starves request
+ * traffic of connections; the id reader waits for a free permit before reading the next page.
+ */
+@Component
+public class PastDueSweeper implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PastDueSweeper.class);
+
+    private static final int PROGRESS_EVERY_CHUNKS = 50;
+
+    private final TodoRepository repo;
+    private final TransactionTemplate transactions;
+    private final int chunkSize;
+    private final int workers;
+    private final Semaphore inFlight;
+    private final ExecutorService pool;
+
+    public PastDueSweeper(TodoRepository repo,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${todo.past-due.chunk-size:1000}") int chunkSize,
+                          @Value("${todo.past-due.catch-up.workers:4}") int workers,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                          @Value("${todo.past-due.catch-up.reserved-connections:2}") int reservedConnections) {
+        this.repo = repo;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.workers = Math.max(1, Math.min(workers, connectionPoolSize - reservedConnections));
+        this.inFlight = new Semaphore(this.workers);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.workers, task -> {
+            Thread thread = new Thread(task, "past-due-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Marks all NOT_DONE todos due before {@code before}, chunk by chunk. Chunks committed before
+     * a failure stay marked; the first failure is rethrown once all submitted chunks finished.
+     *
+     * @param before    the sweep time
+     * @param markChunk marks one chunk of ids and returns how many it marked; runs in a transaction
+     * @return the number of todos marked
+     */
+    public int sweep(OffsetDateTime before, ToIntFunction<List<UUID>> markChunk) {
+        List<UUID> page = repo.findOverdueIds(before, null, chunkSize);
+        if (page.size() < chunkSize) {
+            return page.isEmpty() ? 0 : inTransaction(markChunk, page);
+        }
+
+        long start = System.nanoTime();
+        logger.info("Past-due catch-up started with {} worker(s), {} todos per chunk", workers, chunkSize);
+        AtomicLong marked = new AtomicLong();
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<?>> submitted = new ArrayList<>();
+        try {
+            // stops reading after a failed chunk; the rest is left for the next sweep
+            while (!page.isEmpty() && !failed.get()) {
+                inFlight.acquire();
+                List<UUID> chunk = page;
+                submitted.add(pool.submit(() -> {
+                    try {
+                        long total = marked.addAndGet(inTransaction(markChunk, chunk));
+                        if (chunks.incrementAndGet() % PROGRESS_EVERY_CHUNKS == 0) {
+                            logger.info("Past-due catch-up: {} todos marked in {} chunks", total, chunks.get());
+                        }
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                if (page.size() < chunkSize) {
+                    break;
+                }
+                page = repo.findOverdueIds(before, page.get(page.size() - 1), chunkSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Past-due catch-up interrupted; waiting for {} submitted chunks", submitted.size());
+        }
+
+        RuntimeException failure = awaitAll(submitted);
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Past-due catch-up marked {} todos in {} chunks in {} ms ({} todos/s)",
+                marked.get(), chunks.get(), millis, marked.get() * 1000 / millis);
+        if (failure != null) {
+            throw failure;
+        }
+        return (int) marked.get();
+    }
+
+    int workers() {
+        return workers;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+
+    private int inTransaction(ToIntFunction<List<UUID>> markChunk, List<UUID> chunk) {
+        Integer marked = transactions.execute(status -> markChunk.applyAsInt(chunk));
+        return marked == null ? 0 : marked;
+    }
+
+    // waits for every chunk, also after a failure, so no chunk is still running when this returns
+    private static RuntimeException awaitAll(List<Future<?>> submitted) {
+        RuntimeException failure = null;
+        boolean interrupted = false;
+        for (Future<?> future : submitted) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException cause
+                                ? cause
+                                : new IllegalStateException("Past-due chunk failed", e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+}
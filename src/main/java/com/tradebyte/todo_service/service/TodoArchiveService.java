@@ -0,0 +1,102 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.entity.ArchivedTodoItem;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.TodoArchiveRepository;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import com.tradebyte.todo_service.search.TodoSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves DONE and PAST_DUE todos out of the hot {@code todo_items} table into
+ * {@code todo_items_archive}, and looks an owner's archived todos up by id. Archived todos
+ * leave the search index.
+ */
+@Service
+public class TodoArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoArchiveService.class);
+
+    private final TodoRepository repo;
+    private final TodoArchiveRepository archiveRepo;
+    private final TodoSearchIndex searchIndex;
+
+    public TodoArchiveService(TodoRepository repo, TodoArchiveRepository archiveRepo, TodoSearchIndex searchIndex) {
+        this.repo = repo;
+        this.archiveRepo = archiveRepo;
+        this.searchIndex = searchIndex;
+    }
+
+
+    /**
+     * ARCHIVER USES THIS
+     * Moves one chunk of terminal-state todos older than the cutoff into the archive table,
+     * in its own transaction.
+     *
+     * @param cutoff    DONE todos done before, and PAST_DUE todos due before, this instant are archived
+     * @param chunkSize maximum number of todos moved
+     * @return the number of todos archived
+     */
+    @CacheEvict(value = {"todoList", "todoListPayload"}, allEntries = true)
+    @Transactional
+    public int archiveChunk(OffsetDateTime cutoff, int chunkSize) {
+        List<TodoItem> chunk = repo.findArchivable(TodoStatus.DONE, TodoStatus.PAST_DUE, cutoff,
+                PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // a todo changed since it was read (e.g. marked not done) keeps its row and is not archived
+        Set<UUID> deleted = new HashSet<>(repo.deleteIfUnchanged(chunk));
+        OffsetDateTime now = OffsetDateTime.now();
+        archiveRepo.saveAll(chunk.stream()
+                .filter(item -> deleted.contains(item.getId()))
+                .map(item -> toArchived(item, now))
+                .collect(Collectors.toList()));
+        AfterCommit.run(() -> searchIndex.removeAll(deleted));
+
+        logger.info("Archived {} todos older than {} ({} changed concurrently)",
+                deleted.size(), cutoff, chunk.size() - deleted.size());
+        return deleted.size();
+    }
+
+
+    @Transactional(readOnly = true)
+    public Optional<ArchivedTodoItem> findArchived(String owner, UUID id) {
+        return archiveRepo.findByIdAndOwner(id, owner);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedTodoItem> findArchived(String owner, Collection<UUID> ids) {
+        return ids.isEmpty() ? List.of() : archiveRepo.findByOwnerAndIdIn(owner, ids);
+    }
+
+
+    private ArchivedTodoItem toArchived(TodoItem item, OffsetDateTime archivedAt) {
+        return new ArchivedTodoItem(
+                item.getId(),
+                item.getOwner(),
+                item.getDescription(),
+                item.getStatus(),
+                item.getCreationDatetime(),
+                item.getDueDatetime(),
+                item.getDoneDatetime(),
+                archivedAt
+        );
+    }
+}
@@ -0,0 +1,280 @@
+package com.tradebyte.todo_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoImportResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a bulk upload into {@code todo_items}. The body is read line by line, each line is
+ * validated with the {@link TodoCreateRequest} constraints, and valid todos are written in
+ * chunks of {@code todo.import.chunk-size}, each through {@link TodoService#createAll} in its
+ * own transaction. At most one chunk and one line of {@code todo.import.max-line-length}
+ * characters are held in memory; a longer line is skipped and reported like an invalid one.
+ * If a chunk fails to write, the import stops and reports the counts so far with the error;
+ * committed chunks stay.
+ * <p>
+ * Supported formats: NDJSON (one {@code TodoCreateRequest} JSON object per line) and CSV with
+ * the columns {@code description,dueDatetime}, an optional header and RFC 4180 quoting within
+ * a line. Blank lines are skipped.
+ */
+@Service
+public class TodoImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoImportService.class);
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "description,dueDatetime";
+
+    private final TodoService service;
+    private final ObjectMapper mapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final int maxLineLength;
+
+    public TodoImportService(TodoService service,
+                             ObjectMapper mapper,
+                             Validator validator,
+                             @Value("${todo.import.chunk-size:1000}") int chunkSize,
+                             @Value("${todo.import.max-reported-errors:100}") int maxReportedErrors,
+                             @Value("${todo.import.max-line-length:65536}") int maxLineLength) {
+        this.service = service;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+
+    /**
+     * Imports all valid lines of the body for one owner.
+     *
+     * @param owner  the tenant the todos are created for
+     * @param body   the uploaded body, read incrementally
+     * @param format the body format
+     * @return counts of imported and rejected lines, with the first rejected lines' errors, and
+     *         the error that stopped the import if a chunk failed to write
+     */
+    public TodoImportResponse importTodos(String owner, InputStream body, Format format) throws IOException {
+        logger.info("Importing {} todos for {}", format, owner);
+
+        LineReader reader = new LineReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                maxLineLength);
+        List<TodoCreateRequest> chunk = new ArrayList<>(chunkSize);
+        List<TodoImportResponse.LineError> errors = new ArrayList<>();
+        long imported = 0;
+        long failed = 0;
+        long lineNumber = 0;
+
+        String line;
+        try {
+            while ((line = reader.next()) != null) {
+                lineNumber++;
+                if (!reader.tooLong() && (line.isBlank()
+                        || (format == Format.CSV && lineNumber == 1 && isHeader(line)))) {
+                    continue;
+                }
+                try {
+                    if (reader.tooLong()) {
+                        throw new IllegalArgumentException("Line exceeds " + maxLineLength + " characters");
+                    }
+                    chunk.add(validate(format == Format.CSV ? parseCsv(line) : parseJson(line)));
+                } catch (IllegalArgumentException e) {
+                    failed++;
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add(new TodoImportResponse.LineError(lineNumber, e.getMessage()));
+                    }
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    imported += write(owner, chunk, imported);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                imported += write(owner, chunk, imported);
+            }
+        } catch (ChunkFailedException e) {
+            // the failed chunk rolled back; the lines after it were not read
+            logger.error("Import for {} stopped at line {} after {} todos", owner, lineNumber, imported, e.getCause());
+            return new TodoImportResponse(imported, failed, errors,
+                    "Writing the " + chunk.size() + " todos up to line " + lineNumber + " failed; "
+                            + "the import stopped there: " + e.getCause().getMessage());
+        }
+
+        logger.info("Imported {} todos for {}, rejected {} lines", imported, owner, failed);
+        return new TodoImportResponse(imported, failed, errors, null);
+    }
+
+    /**
+     * Maps a request {@code Content-Type} to an import format.
+     *
+     * @throws IllegalArgumentException if the type is neither NDJSON nor CSV
+     */
+    public static Format format(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase();
+        return switch (type) {
+            case "application/x-ndjson" -> Format.NDJSON;
+            case "text/csv" -> Format.CSV;
+            default -> throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+        };
+    }
+
+
+    private int write(String owner, List<TodoCreateRequest> chunk, long importedSoFar) {
+        int written;
+        try {
+            written = service.createAll(owner, chunk);
+        } catch (RuntimeException e) {
+            throw new ChunkFailedException(e);
+        }
+        chunk.clear();
+        logger.info("Imported {} todos for {} so far", importedSoFar + written, owner);
+        return written;
+    }
+
+    private TodoCreateRequest parseJson(String line) {
+        try {
+            TodoCreateRequest req = mapper.readValue(line, TodoCreateRequest.class);
+            if (req == null) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            return req;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static TodoCreateRequest parseCsv(String line) {
+        List<String> fields = csvFields(line);
+        if (fields.size() != 2) {
+            throw new IllegalArgumentException("Expected 2 columns (" + CSV_HEADER + ") but got " + fields.size());
+        }
+        String due = fields.get(1).trim();
+        try {
+            return new TodoCreateRequest(fields.get(0), due.isEmpty() ? null : OffsetDateTime.parse(due));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("dueDatetime: invalid date-time '" + due + "'");
+        }
+    }
+
+    private static List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private TodoCreateRequest validate(TodoCreateRequest req) {
+        Set<ConstraintViolation<TodoCreateRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+        return req;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.replace("\"", "").replace(" ", "").equalsIgnoreCase(CSV_HEADER);
+    }
+
+    private static final class ChunkFailedException extends RuntimeException {
+        ChunkFailedException(RuntimeException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Reads lines like {@link BufferedReader#readLine()} but keeps at most {@code maxLength}
+     * characters of each, so one oversized line cannot exhaust the heap.
+     */
+    private static final class LineReader {
+
+        private final BufferedReader in;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(BufferedReader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        // the next line without its terminator, or null at the end of the body
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+            while (c >= 0 && c != '\n' && c != '\r') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+                c = in.read();
+            }
+            if (c == '\r') {
+                in.mark(1);
+                if (in.read() != '\n') {
+                    in.reset();
+                }
+            }
+            return line.toString();
+        }
+
+        // whether the last line was cut off at maxLength
+        boolean tooLong() {
+            return tooLong;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradebyte.todo_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo_service.cache.SingleFlightCache;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized (and optionally gzip-compressed) JSON payloads of the unfiltered todo lists.
+ * Cached in {@code todoListPayload}, which is evicted together with {@code todoList},
+ * so a hot list read is a buffer copy instead of a full serialization. The list is read
+ * bypassing stale {@code todoList} copies, so a stale-while-revalidate list is never cached
+ * here as a fresh payload.
+ */
+@Service
+public class TodoListPayloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoListPayloadService.class);
+
+    private final TodoService service;
+    private final ObjectMapper mapper;
+
+    public TodoListPayloadService(TodoService service, ObjectMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+
+    /**
+     * Returns the JSON payload of {@link TodoService#getNotDoneOrAll(String, boolean)}.
+     *
+     * @param owner the tenant whose todos are listed
+     * @param all   if true, all todos; otherwise only not done todos
+     * @param gzip  if true, the payload is gzip-compressed
+     * @return the serialized payload
+     */
+    @Cacheable(value = "todoListPayload",
+            key = "T(com.tradebyte.todo_service.cache.TenantKey).of(#owner, #all + ':' + #gzip)", sync = true)
+    public byte[] jsonPayload(String owner, boolean all, boolean gzip) {
+        List<TodoResponse> todos = SingleFlightCache.bypassingStale(() -> service.getNotDoneOrAll(owner, all));
+        try {
+            byte[] json = mapper.writeValueAsBytes(todos);
+            byte[] payload = gzip ? gzip(json) : json;
+            logger.info("Serialized {} todos into {} bytes (all={}, gzip={})", todos.size(), payload.length, all, gzip);
+            return payload;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,362 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSeriesRequest;
+import com.tradebyte.todo_service.dto.TodoSeriesResponse;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoSeries;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.exception.ImmutablePastDueException;
+import com.tradebyte.todo_service.exception.InvalidRecurrenceRuleException;
+import com.tradebyte.todo_service.exception.NotFoundException;
+import com.tradebyte.todo_service.exception.SeriesDisabledException;
+import com.tradebyte.todo_service.recurrence.RecurrenceRule;
+import com.tradebyte.todo_service.recurrence.RecurrenceRule.Occurrence;
+import com.tradebyte.todo_service.repository.TodoSeriesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring todos. A series stores its rule and a cursor ({@code nextDue}/{@code nextIndex});
+ * only occurrences due within {@code todo.series.horizon} are stored as todos, so storage and
+ * the past-due sweep scale with the active window instead of the length of the rule.
+ * <p>
+ * Occurrences beyond the horizon are computed on read: a filtered list with a {@code dueBefore}
+ * bound includes them as virtual todos. Every occurrence has a fixed id: its series id, whose
+ * low 48 bits are always clear, with its position in those bits. A virtual todo keeps its id
+ * once it is stored, and the series and position are read back from the id with one lookup by
+ * primary key. {@link TodoService} resolves such ids through {@link TodoService.VirtualTodos}:
+ * reading one returns the computed todo, and the first change stores it.
+ * <p>
+ * Series live in {@code todo_series} (JPA). With {@code todo.series.enabled=false}, as in the
+ * {@code in-memory} profile where that table would not survive a restart, the series endpoints
+ * are rejected and no virtual todos are returned.
+ */
+@Service
+public class TodoSeriesService implements TodoService.VirtualTodos {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSeriesService.class);
+
+    private static final long INDEX_BITS = (1L << 48) - 1;
+
+    private final TodoSeriesRepository repo;
+    private final TodoService todos;
+    private final Duration horizon;
+    private final int maxVirtualPerSeries;
+    private final boolean enabled;
+
+    public TodoSeriesService(TodoSeriesRepository repo,
+                             TodoService todos,
+                             @Value("${todo.series.horizon:P7D}") Duration horizon,
+                             @Value("${todo.series.max-virtual-per-series:1000}") int maxVirtualPerSeries,
+                             @Value("${todo.series.enabled:true}") boolean enabled) {
+        this.repo = repo;
+        this.todos = todos;
+        this.horizon = horizon;
+        this.maxVirtualPerSeries = maxVirtualPerSeries;
+        this.enabled = enabled;
+        if (enabled) {
+            todos.useVirtualTodos(this);
+        }
+    }
+
+
+    /**
+     * Creates a series and stores its occurrences within the horizon. Occurrences due before
+     * now are skipped.
+     *
+     * @param owner the tenant creating the series
+     * @param req   description, first due datetime and rule
+     * @return the created series
+     */
+    @Transactional
+    public TodoSeriesResponse create(String owner, TodoSeriesRequest req) {
+        ensureEnabled();
+        logger.info("Creating todo series with rule: {}", req.rule());
+        RecurrenceRule rule = parse(req.rule());
+        OffsetDateTime now = OffsetDateTime.now();
+
+        Occurrence next = rule.first(req.firstDue());
+        while (next != null && next.due().isBefore(now)) {
+            next = rule.next(req.firstDue(), next);
+        }
+
+        TodoSeries series = new TodoSeries();
+        series.setId(newSeriesId());
+        series.setOwner(owner);
+        series.setDescription(req.description());
+        series.setRule(req.rule());
+        series.setFirstDue(req.firstDue());
+        series.setCreationDatetime(now);
+        moveTo(series, next, 0);
+        series = repo.save(series);
+        materialize(series, rule, now.plus(horizon));
+
+        logger.info("Created todo series with id: {}", series.getId());
+        return map(series);
+    }
+
+
+    /**
+     * @param owner the tenant whose series are listed
+     * @return all series of the tenant, including exhausted ones
+     */
+    @Transactional(readOnly = true)
+    public List<TodoSeriesResponse> list(String owner) {
+        ensureEnabled();
+        return repo.findByOwner(owner).stream().map(this::map).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Deletes a series. Occurrences already stored stay as ordinary todos.
+     *
+     * @param owner the tenant the series belongs to
+     * @param id    the series ID
+     */
+    @Transactional
+    public void delete(String owner, UUID id) {
+        ensureEnabled();
+        TodoSeries series = repo.findByIdAndOwner(id, owner).orElseThrow(() -> new NotFoundException(id));
+        repo.delete(series);
+        logger.info("Deleted todo series with id: {}", id);
+    }
+
+
+    /**
+     * SCHEDULER USES THIS
+     * Stores the occurrences entering the horizon for up to {@code chunkSize} series, in one
+     * transaction. Each processed series moves its cursor past the horizon, so repeated calls
+     * walk through all due series.
+     *
+     * @return the number of series processed
+     */
+    @Transactional
+    public int materializeChunk(int chunkSize) {
+        OffsetDateTime horizonEnd = OffsetDateTime.now().plus(horizon);
+        List<TodoSeries> due = repo.findByNextDueBeforeOrderByNextDue(horizonEnd, PageRequest.of(0, chunkSize));
+        int stored = 0;
+        for (TodoSeries series : due) {
+            stored += materialize(series, RecurrenceRule.parse(series.getRule()), horizonEnd);
+        }
+        if (!due.isEmpty()) {
+            logger.info("Stored {} occurrence(s) of {} todo series", stored, due.size());
+        }
+        return due.size();
+    }
+
+
+    /**
+     * Adds the occurrences of the tenant's series that are not stored yet and fall into the
+     * filter to an already filtered list, keeping the filter's sort order. Only filters with a
+     * {@code dueBefore} bound are expanded, at most {@code todo.series.max-virtual-per-series}
+     * occurrences per series; a filter on the done datetime never matches an occurrence.
+     *
+     * @param owner  the tenant whose todos are listed
+     * @param filter the list filter
+     * @param stored the stored todos matching the filter
+     * @return {@code stored} plus the matching virtual occurrences
+     */
+    @Transactional(readOnly = true)
+    public List<TodoResponse> withVirtualOccurrences(String owner, TodoFilter filter, List<TodoResponse> stored) {
+        if (!enabled || filter.dueBefore() == null || filter.doneAfter() != null || filter.doneBefore() != null) {
+            return stored;
+        }
+        List<TodoSeries> pending = repo.findByOwnerAndNextDueBefore(owner, filter.dueBefore());
+        if (pending.isEmpty()) {
+            return stored;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<TodoResponse> merged = new ArrayList<>(stored);
+        int added = 0;
+        for (TodoSeries series : pending) {
+            if (!within(series.getCreationDatetime(), filter.createdAfter(), filter.createdBefore())) {
+                continue;
+            }
+            RecurrenceRule rule = RecurrenceRule.parse(series.getRule());
+            Occurrence next = cursor(series);
+            for (int i = 0; i < maxVirtualPerSeries && next != null && next.due().isBefore(filter.dueBefore()); i++) {
+                TodoResponse virtual = virtual(series, next, now);
+                if ((filter.statuses().isEmpty() || filter.statuses().contains(virtual.status()))
+                        && (filter.dueAfter() == null || !next.due().isBefore(filter.dueAfter()))) {
+                    merged.add(virtual);
+                    added++;
+                }
+                next = rule.next(series.getFirstDue(), next);
+            }
+        }
+        if (added == 0) {
+            return stored;
+        }
+        merged.sort(order(filter));
+        return merged;
+    }
+
+
+    /**
+     * @return the virtual todo with this id, if it is an occurrence of one of the tenant's series
+     *         that is not stored yet and within {@code todo.series.max-virtual-per-series}
+     */
+    @Override
+    public Optional<TodoResponse> findVirtual(String owner, UUID id) {
+        return locate(owner, id).map(found -> virtual(found.series(), found.occurrence(), OffsetDateTime.now()));
+    }
+
+    /**
+     * Stores a virtual todo so it can be changed like any other, together with the earlier
+     * occurrences of its series, and moves the series' cursor past it: as after the scheduler's
+     * run, every occurrence before the cursor is stored and every one after it is virtual.
+     * Runs in the caller's transaction.
+     *
+     * @return false if the id is not a virtual todo of the tenant
+     * @throws ImmutablePastDueException if the occurrence is already overdue, as it is listed PAST_DUE
+     */
+    @Override
+    public boolean storeVirtual(String owner, UUID id) {
+        Optional<Located> found = locate(owner, id);
+        if (found.isEmpty()) {
+            return false;
+        }
+        TodoSeries series = found.get().series();
+        OffsetDateTime due = found.get().occurrence().due();
+        if (due.isBefore(OffsetDateTime.now())) {
+            throw new ImmutablePastDueException(id);
+        }
+        int stored = materialize(series, RecurrenceRule.parse(series.getRule()), due.plusNanos(1));
+        logger.info("Stored {} occurrence(s) of todo series {} on the first change of {}", stored, series.getId(), id);
+        return true;
+    }
+
+
+    /**
+     * A random id with the low 48 bits clear, where its occurrences carry their index.
+     */
+    static UUID newSeriesId() {
+        UUID random = UUID.randomUUID();
+        return new UUID(random.getMostSignificantBits(), random.getLeastSignificantBits() & ~INDEX_BITS);
+    }
+
+    /**
+     * Id of the todo for the occurrence at {@code index}; the same for its virtual and stored form.
+     */
+    static UUID occurrenceId(UUID seriesId, long index) {
+        if (index < 0 || index > INDEX_BITS) {
+            throw new IllegalStateException("Occurrence index " + index + " does not fit into a todo id");
+        }
+        return new UUID(seriesId.getMostSignificantBits(), seriesId.getLeastSignificantBits() | index);
+    }
+
+
+    private int materialize(TodoSeries series, RecurrenceRule rule, OffsetDateTime horizonEnd) {
+        List<TodoItem> occurrences = new ArrayList<>();
+        Occurrence next = cursor(series);
+        while (next != null && next.due().isBefore(horizonEnd)) {
+            occurrences.add(occurrence(series, next));
+            next = rule.next(series.getFirstDue(), next);
+        }
+        moveTo(series, next, series.getNextIndex() + occurrences.size());
+        return occurrences.isEmpty() ? 0 : todos.insertOccurrences(series.getOwner(), occurrences);
+    }
+
+    private Optional<Located> locate(String owner, UUID id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        UUID seriesId = new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() & ~INDEX_BITS);
+        long index = id.getLeastSignificantBits() & INDEX_BITS;
+        return repo.findByIdAndOwner(seriesId, owner).flatMap(series -> virtualAt(series, index));
+    }
+
+    // only occurrences after the cursor and within max-virtual-per-series are virtual
+    private Optional<Located> virtualAt(TodoSeries series, long index) {
+        Occurrence next = cursor(series);
+        if (next == null || index < next.index() || index - next.index() >= maxVirtualPerSeries) {
+            return Optional.empty();
+        }
+        RecurrenceRule rule = RecurrenceRule.parse(series.getRule());
+        while (next != null && next.index() < index) {
+            next = rule.next(series.getFirstDue(), next);
+        }
+        return next == null ? Optional.empty() : Optional.of(new Located(series, next));
+    }
+
+    private static TodoResponse virtual(TodoSeries series, Occurrence occurrence, OffsetDateTime now) {
+        // the sweep only sees stored todos, so an occurrence the scheduler has not caught up with is past due here
+        TodoStatus status = occurrence.due().isBefore(now) ? TodoStatus.PAST_DUE : TodoStatus.NOT_DONE;
+        return new TodoResponse(occurrenceId(series.getId(), occurrence.index()), series.getDescription(),
+                status, series.getCreationDatetime(), occurrence.due(), null);
+    }
+
+    private void ensureEnabled() {
+        if (!enabled) {
+            throw new SeriesDisabledException();
+        }
+    }
+
+    private static Occurrence cursor(TodoSeries series) {
+        return series.getNextDue() == null ? null : new Occurrence(series.getNextIndex(), series.getNextDue());
+    }
+
+    private static void moveTo(TodoSeries series, Occurrence next, long exhaustedIndex) {
+        series.setNextDue(next == null ? null : next.due());
+        series.setNextIndex(next == null ? exhaustedIndex : next.index());
+    }
+
+    private static TodoItem occurrence(TodoSeries series, Occurrence occurrence) {
+        TodoItem item = new TodoItem();
+        item.setId(occurrenceId(series.getId(), occurrence.index()));
+        item.setOwner(series.getOwner());
+        item.setDescription(series.getDescription());
+        item.setStatus(TodoStatus.NOT_DONE);
+        item.setCreationDatetime(series.getCreationDatetime());
+        item.setDueDatetime(occurrence.due());
+        return item;
+    }
+
+    // same order as the database: nulls first when ascending, last when descending
+    private static Comparator<TodoResponse> order(TodoFilter filter) {
+        Function<TodoResponse, OffsetDateTime> key = switch (filter.sortBy()) {
+            case DUE_DATETIME -> TodoResponse::dueDatetime;
+            case CREATION_DATETIME -> TodoResponse::creationDatetime;
+            case DONE_DATETIME -> TodoResponse::doneDatetime;
+        };
+        Comparator<TodoResponse> ascending = Comparator.comparing(key,
+                Comparator.nullsFirst(Comparator.comparing(OffsetDateTime::toInstant)));
+        return filter.direction().isAscending() ? ascending : ascending.reversed();
+    }
+
+    private static boolean within(OffsetDateTime value, OffsetDateTime after, OffsetDateTime before) {
+        return (after == null || !value.isBefore(after)) && (before == null || value.isBefore(before));
+    }
+
+    private static RecurrenceRule parse(String rule) {
+        try {
+            return RecurrenceRule.parse(rule);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRecurrenceRuleException(e.getMessage());
+        }
+    }
+
+    private TodoSeriesResponse map(TodoSeries s) {
+        return new TodoSeriesResponse(s.getId(), s.getDescription(), s.getRule(), s.getFirstDue(), s.getNextDue());
+    }
+
+    private record Located(TodoSeries series, Occurrence occurrence) {
+    }
+}
@@ -1,191 +1,346 @@
 package com.tradebyte.todo_service.service;
 
+import com.tradebyte.todo_service.cache.TenantKey;
 import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoFilter;
 import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSearchResponse;
+import com.tradebyte.todo_service.dto.TodoStatsResponse;
 import com.tradebyte.todo_service.dto.TodoUpdateRequest;
+import com.tradebyte.todo_service.entity.ArchivedTodoItem;
 import com.tradebyte.todo_service.entity.TodoItem;
 import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.exception.ArchivedTodoException;
 import com.tradebyte.todo_service.exception.ImmutablePastDueException;
 import com.tradebyte.todo_service.exception.NotFoundException;
 import com.tradebyte.todo_service.repository.TodoRepository;
+import com.tradebyte.todo_service.search.SearchHits;
+import com.tradebyte.todo_service.search.TodoSearchIndex;
+import com.tradebyte.todo_service.writebehind.TodoWriteBehindBuffer;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing Todo items.
  * Provides operations for creating, updating, marking done/not done,
  * retrieving, listing, and marking past due Todos.
+ * Every request-path operation is scoped to one owner (tenant), including its cache keys.
  */
 @Service
 public class TodoService {
 
     private static final Logger logger = LoggerFactory.getLogger(TodoService.class);
 
-    private final TodoRepository repo;
+    // the caches are partitioned by tenant (TenantPartitionedCache); evicting "#owner" clears one partition
+    private static final String TENANT_KEY = "T(com.tradebyte.todo_service.cache.TenantKey).of(#owner, ";
+    private static final String BY_ID_KEY = TENANT_KEY + "#id)";
+    private static final String LIST_KEY = TENANT_KEY + "#all)";
+    private static final String FILTER_KEY = TENANT_KEY + "#filter.cacheKey())";
 
-    public TodoService(TodoRepository repo) {
+    private final TodoRepository repo;
+    private final TodoSearchIndex searchIndex;
+    private final TodoStatistics statistics;
+    private final TodoArchiveService archive;
+    private final TodoWriteBehindBuffer writeBehind;
+    private final DueWatermark dueWatermark;
+    private final PastDueSweeper sweeper;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactions;
+    private volatile VirtualTodos virtualTodos = VirtualTodos.NONE;
+
+    public TodoService(TodoRepository repo, TodoSearchIndex searchIndex, TodoStatistics statistics,
+                       TodoArchiveService archive, TodoWriteBehindBuffer writeBehind, DueWatermark dueWatermark,
+                       PastDueSweeper sweeper, CacheManager cacheManager,
+                       PlatformTransactionManager transactionManager) {
         this.repo = repo;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.archive = archive;
+        this.writeBehind = writeBehind;
+        this.dueWatermark = dueWatermark;
+        this.sweeper = sweeper;
+        this.cacheManager = cacheManager;
+        this.transactions = new TransactionTemplate(transactionManager);
+        writeBehind.onRejected(this::undoRejected);
+    }
+
+    /**
+     * Todos that are computed rather than stored, such as occurrences of a recurring series past
+     * its materialization horizon. Their ids are valid for {@link #getById} and are stored on
+     * their first change.
+     */
+    public interface VirtualTodos {
+
+        VirtualTodos NONE = new VirtualTodos() {
+            @Override
+            public Optional<TodoResponse> findVirtual(String owner, UUID id) {
+                return Optional.empty();
+            }
+
+            @Override
+            public boolean storeVirtual(String owner, UUID id) {
+                return false;
+            }
+        };
+
+        Optional<TodoResponse> findVirtual(String owner, UUID id);
+
+        /**
+         * Stores the virtual todo in the caller's transaction.
+         *
+         * @return false if the id is not a virtual todo of the owner
+         */
+        boolean storeVirtual(String owner, UUID id);
+    }
+
+    public void useVirtualTodos(VirtualTodos virtualTodos) {
+        this.virtualTodos = virtualTodos;
     }
 
 
     /**
      * Creates a new Todo item.
      *
-     * @param req the Todo creation request
+     * @param owner the tenant creating the todo
+     * @param req   the Todo creation request
      * @return the created TodoResponse
      */
     @Transactional
-    public TodoResponse create(TodoCreateRequest req) {
+    public TodoResponse create(String owner, TodoCreateRequest req) {
         logger.info("Creating new todo with description: {}", req.description());
 
-        TodoItem item = new TodoItem();
-        item.setDescription(req.description());
-        item.setCreationDatetime(OffsetDateTime.now());
-        item.setDueDatetime(req.dueDatetime());
-        item.setStatus(TodoStatus.NOT_DONE);
+        TodoItem item = repo.save(newItem(owner, req, OffsetDateTime.now()));
 
-        item = repo.save(item);
+        TodoResponse created = map(item);
+        AfterCommit.run(() -> {
+            searchIndex.index(owner, created.id(), created.description(), created.status());
+            statistics.recordCreated(owner, created);
+            dueWatermark.offer(created.dueDatetime());
+        });
 
         logger.info("Created todo with id: {}", item.getId());
-        return map(item);
+        return created;
+    }
+
+
+    /**
+     * Creates a batch of Todo items in one transaction; used by the bulk import.
+     *
+     * @param owner    the tenant creating the todos
+     * @param requests the validated creation requests
+     * @return the number of todos created
+     */
+    @CacheEvict(value = {"todoList", "todoListPayload"}, key = "#owner")
+    @Transactional
+    public int createAll(String owner, List<TodoCreateRequest> requests) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<TodoItem> items = repo.saveAll(requests.stream()
+                .map(req -> newItem(owner, req, now))
+                .collect(Collectors.toList()));
+        List<TodoResponse> created = items.stream().map(this::map).collect(Collectors.toList());
+        AfterCommit.run(() -> created.forEach(todo -> {
+            searchIndex.index(owner, todo.id(), todo.description(), todo.status());
+            statistics.recordCreated(owner, todo);
+            dueWatermark.offer(todo.dueDatetime());
+        }));
+        return items.size();
+    }
+
+
+    /**
+     * Stores occurrences of a recurring series; occurrences already stored are skipped, so a
+     * repeated materialization run is harmless.
+     *
+     * @param owner       the tenant the series belongs to
+     * @param occurrences NOT_DONE todos with ids derived from their series
+     * @return the number of todos inserted
+     */
+    @CacheEvict(value = {"todoList", "todoListPayload"}, key = "#owner")
+    @Transactional
+    public int insertOccurrences(String owner, List<TodoItem> occurrences) {
+        int inserted = 0;
+        for (TodoItem item : occurrences) {
+            if (repo.insertIfAbsent(item)) {
+                TodoResponse created = map(item);
+                AfterCommit.run(() -> {
+                    searchIndex.index(owner, created.id(), created.description(), TodoStatus.NOT_DONE);
+                    statistics.recordCreated(owner, created);
+                    dueWatermark.offer(created.dueDatetime());
+                });
+                inserted++;
+            }
+        }
+        return inserted;
     }
 
 
     /**
      * Updates the description of an existing Todo.
      *
-     * @param id  the Todo ID
-     * @param req the update request
+     * @param owner the tenant the todo belongs to
+     * @param id    the Todo ID
+     * @param req   the update request
      * @return the updated TodoResponse
      */
-    @CachePut(value = "todoById", key = "#id")
-    @CacheEvict(value = "todoList", allEntries = true)
+    @CachePut(value = "todoById", key = BY_ID_KEY)
+    @CacheEvict(value = {"todoList", "todoListPayload"}, key = "#owner")
     @CircuitBreaker(name = "todoServiceCB", fallbackMethod = "fallbackUpdate")
-    @RateLimiter(name = "todoRateLimiter", fallbackMethod = "fallbackRateLimited")
     @Transactional
-    public TodoResponse updateDescription(UUID id, TodoUpdateRequest req) {
+    public TodoResponse updateDescription(String owner, UUID id, TodoUpdateRequest req) {
         logger.info("Updating description for todo with id: {}", id);
 
-        TodoItem item = repo.findById(id).orElseThrow(() -> {
-            logger.warn("Todo not found with id: {}", id);
-            return new NotFoundException(id);
-        });
-        ensureMutable(item);
-
-        item.setDescription(req.description());
-        repo.save(item);
+        TodoItem item = changeOrStoreVirtual(owner, id,
+                () -> repo.updateDescriptionUnlessPastDue(id, owner, req.description()));
+        writeBehind.descriptionChanged(id, item.getDescription());
+        TodoResponse updated = map(item);
+        AfterCommit.run(() -> searchIndex.index(owner, id, updated.description(), updated.status()));
 
         logger.info("Updated description for todo with id: {}", id);
-        return map(item);
+        return updated;
     }
 
 
     /**
      * Marks a Todo as done.
      *
-     * @param id the Todo ID
+     * @param owner the tenant the todo belongs to
+     * @param id    the Todo ID
      * @return the updated TodoResponse
      */
-    @CachePut(value = "todoById", key = "#id")
-    @CacheEvict(value = "todoList", allEntries = true)
-    @Transactional
-    public TodoResponse markDone(UUID id) {
+    @CachePut(value = "todoById", key = BY_ID_KEY)
+    @CacheEvict(value = {"todoList", "todoListPayload"}, key = "#owner")
+    public TodoResponse markDone(String owner, UUID id) {
         logger.info("Marking todo as done with id: {}", id);
 
-        TodoItem item = repo.findById(id).orElseThrow(() -> {
-            logger.warn("Todo not found with id: {}", id);
-            return new NotFoundException(id);
-        });
-        ensureMutable(item);
+        if (writeBehind.isEnabled()) {
+            Optional<TodoResponse> after = applyBufferedUnlessVirtual(owner, id,
+                    before -> withStatus(before, TodoStatus.DONE, OffsetDateTime.now()));
+            if (after.isPresent()) {
+                logger.info("Marked todo as done with id: {} (write-behind)", id);
+                return after.get();
+            }
+        }
 
-        item.setStatus(TodoStatus.DONE);
-        item.setDoneDatetime(OffsetDateTime.now());
-        repo.save(item);
+        // only this path opens a transaction: a backpressure flush in the buffered path above holds the
+        // only connection it needs
+        TodoResponse after = transactions.execute(status -> {
+            OffsetDateTime doneAt = OffsetDateTime.now();
+            TodoResponse before = map(changeOrStoreVirtual(owner, id,
+                    () -> repo.markDoneUnlessPastDue(id, owner, doneAt)));
+            TodoResponse done = withStatus(before, TodoStatus.DONE, doneAt);
+            recordTransition(owner, before, done);
+            return done;
+        });
 
         logger.info("Marked todo as done with id: {}", id);
-        return map(item);
+        return after;
     }
 
 
     /**
      * Marks a Todo as not done.
      *
-     * @param id the Todo ID
+     * @param owner the tenant the todo belongs to
+     * @param id    the Todo ID
      * @return the updated TodoResponse
      */
-    @CachePut(value = "todoById", key = "#id")
-    @CacheEvict(value = "todoList", allEntries = true)
-    @Transactional
-    public TodoResponse markNotDone(UUID id) {
+    @CachePut(value = "todoById", key = BY_ID_KEY)
+    @CacheEvict(value = {"todoList", "todoListPayload"}, key = "#owner")
+    public TodoResponse markNotDone(String owner, UUID id) {
         logger.info("Marking todo as not done with id: {}", id);
 
-        TodoItem item = repo.findById(id).orElseThrow(() -> {
-            logger.warn("Todo not found with id: {}", id);
-            return new NotFoundException(id);
-        });
-        ensureMutable(item);
+        if (writeBehind.isEnabled()) {
+            Optional<TodoResponse> after = applyBufferedUnlessVirtual(owner, id,
+                    before -> withStatus(before, TodoStatus.NOT_DONE, null));
+            if (after.isPresent()) {
+                // durable once logged, like the statistics update in applyBuffered
+                dueWatermark.offer(after.get().dueDatetime());
+                logger.info("Marked todo as not done with id: {} (write-behind)", id);
+                return after.get();
+            }
+        }
 
-        item.setStatus(TodoStatus.NOT_DONE);
-        item.setDoneDatetime(null);
-        repo.save(item);
+        TodoResponse after = transactions.execute(status -> {
+            TodoResponse before = map(changeOrStoreVirtual(owner, id, () -> repo.markNotDoneUnlessPastDue(id, owner)));
+            TodoResponse notDone = withStatus(before, TodoStatus.NOT_DONE, null);
+            recordTransition(owner, before, notDone);
+            AfterCommit.run(() -> dueWatermark.offer(notDone.dueDatetime()));
+            return notDone;
+        });
 
         logger.info("Marked todo as not done with id: {}", id);
-        return map(item);
+        return after;
     }
 
 
     /**
      * Retrieves a Todo by ID.
      *
-     * @param id the Todo ID
+     * @param owner the tenant the todo belongs to
+     * @param id    the Todo ID
      * @return the TodoResponse
      */
-    @Cacheable(value = "todoById", key = "#id")
+    @Cacheable(value = "todoById", key = BY_ID_KEY, sync = true)
     @CircuitBreaker(name = "todoServiceCB", fallbackMethod = "fallbackGetById")
-    @RateLimiter(name = "todoRateLimiter", fallbackMethod = "fallbackRateLimited")
     @Transactional(readOnly = true)
-    public TodoResponse getById(UUID id) {
+    public TodoResponse getById(String owner, UUID id) {
         logger.info("Fetching todo with id: {}", id);
 
-        TodoItem item = repo.findById(id).orElseThrow(() -> {
-            logger.warn("Todo not found with id: {}", id);
-            return new NotFoundException(id);
-        });
-
-        return map(item);
+        return repo.findByIdAndOwner(id, owner)
+                .map(this::map)
+                .or(() -> archive.findArchived(owner, id).map(this::map))
+                .or(() -> virtualTodos.findVirtual(owner, id))
+                .orElseThrow(() -> {
+                    logger.warn("Todo not found with id: {}", id);
+                    return new NotFoundException(id);
+                });
     }
 
 
     /**
      * Lists all Todos or only Todos that are not done.
      *
-     * @param all if true, fetch all todos; otherwise only not done todos
+     * @param owner the tenant whose todos are listed
+     * @param all   if true, fetch all todos; otherwise only not done todos
      * @return list of TodoResponse
      */
-    @Cacheable(value = "todoList", key = "#all")
+    @Cacheable(value = "todoList", key = LIST_KEY, sync = true)
     @CircuitBreaker(name = "todoServiceCB", fallbackMethod = "fallbackList")
-    @RateLimiter(name = "todoRateLimiter", fallbackMethod = "fallbackRateLimitedList")
-    @Transactional(readOnly = true)
-    public List<TodoResponse> getNotDoneOrAll(boolean all) {
+    public List<TodoResponse> getNotDoneOrAll(String owner, boolean all) {
         logger.info("Listing todos with all={}", all);
+        // the status filter runs in the database, so pending transitions must be there first; no
+        // transaction is open yet, so the flush does not hold a second connection next to the read's
+        writeBehind.flush();
 
         List<TodoResponse> todos;
         if (all) {
-            todos = repo.findAll().stream().map(this::map).collect(Collectors.toList());
+            todos = repo.findByOwner(owner).stream().map(this::map).collect(Collectors.toList());
         } else {
-            todos = repo.findByStatus(TodoStatus.NOT_DONE)
+            todos = repo.findByOwnerAndStatus(owner, TodoStatus.NOT_DONE)
                     .stream().map(this::map).collect(Collectors.toList());
         }
 
@@ -194,68 +349,279 @@ public class TodoService {
     }
 
 
+    /**
+     * Lists Todos matching a server-side filter, sorted in the database.
+     *
+     * @param owner  the tenant whose todos are listed
+     * @param filter the filter and sort order
+     * @return list of TodoResponse
+     */
+    @Cacheable(value = "todoList", key = FILTER_KEY, sync = true)
+    @CircuitBreaker(name = "todoServiceCB", fallbackMethod = "fallbackFind")
+    public List<TodoResponse> find(String owner, TodoFilter filter) {
+        logger.info("Listing todos with filter={}", filter.cacheKey());
+        writeBehind.flush();
+
+        List<TodoResponse> todos = repo.findFiltered(owner, filter)
+                .stream().map(this::map).collect(Collectors.toList());
+
+        logger.info("Retrieved {} todos", todos.size());
+        return todos;
+    }
+
+
+    /**
+     * Returns aggregated statistics from in-memory counters; never scans the table.
+     *
+     * @param owner the tenant whose todos are counted
+     * @return counts per status, due-soon buckets and a completion-time histogram
+     */
+    public TodoStatsResponse stats(String owner) {
+        return statistics.snapshot(owner);
+    }
+
+
+    /**
+     * Full-text search over todo descriptions using the in-process index.
+     * The last query term is matched as a prefix.
+     *
+     * @param owner  the tenant whose todos are searched
+     * @param query  the search text
+     * @param status optional status filter
+     * @param page   zero-based page number
+     * @param size   page size
+     * @return the requested page of matching todos
+     */
+    @Transactional(readOnly = true)
+    public TodoSearchResponse search(String owner, String query, TodoStatus status, int page, int size) {
+        logger.info("Searching todos with query={}, status={}, page={}, size={}", query, status, page, size);
+
+        SearchHits hits = searchIndex.search(owner, query, status, page, size);
+        Map<UUID, TodoResponse> found = repo.findAllById(hits.ids()).stream()
+                .map(this::map)
+                .collect(Collectors.toMap(TodoResponse::id, Function.identity(), (a, b) -> a, HashMap::new));
+        if (found.size() < hits.ids().size()) {
+            // archived between the index lookup and this read; the index drops them after the commit
+            List<UUID> missing = hits.ids().stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+            archive.findArchived(owner, missing).forEach(a -> found.put(a.getId(), map(a)));
+        }
+        List<TodoResponse> items = hits.ids().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        logger.info("Search matched {} todos", hits.total());
+        return new TodoSearchResponse(items, page, size, hits.total());
+    }
+
+
     /**
      * SCHEDULER USES THIS
-     * Marks Todos as past due if the due date has passed.
+     * Marks Todos as past due if the due date has passed, in chunks with one transaction each
+     * (see {@link PastDueSweeper}), then offers the earliest due datetime still NOT_DONE to the
+     * {@link DueWatermark} so the scheduler knows when to run next. Each chunk evicts only the
+     * cached todos it marked and their owners' lists, once it has committed.
      *
      * @return the number of Todos marked as past due
      */
-    @CacheEvict(value = {"todoById", "todoList"}, allEntries = true)
-    @Transactional
     public int markPastDueIfRequired() {
         OffsetDateTime now = OffsetDateTime.now();
+        writeBehind.flush();
+
+        int marked = sweeper.sweep(now, ids -> markPastDue(ids, now));
+
+        // includes todos skipped as pending, so they are retried soon
+        repo.findEarliestDueDatetime(TodoStatus.NOT_DONE).ifPresent(dueWatermark::offer);
+
+        logger.info("Marked {} todos as past due", marked);
+        return marked;
+    }
 
-        List<TodoItem> toMark = repo.findByStatusAndDueDatetimeBefore(TodoStatus.NOT_DONE, now);
 
-        toMark.forEach(item -> item.setStatus(TodoStatus.PAST_DUE));
+    // one chunk of the sweep; runs in the chunk's transaction, possibly on a sweeper thread
+    private int markPastDue(List<UUID> ids, OffsetDateTime now) {
+        // todos toggled since the flush are left for the next run
+        List<UUID> settled = ids.stream()
+                .filter(id -> !writeBehind.isPending(id))
+                .collect(Collectors.toList());
+        if (settled.isEmpty()) {
+            return 0;
+        }
 
-        repo.saveAll(toMark);
+        // a single conditional UPDATE: rows changed since the ids were read are skipped
+        List<TodoItem> marked = repo.markPastDue(settled, now);
+        Set<String> owners = new HashSet<>();
+        for (TodoItem item : marked) {
+            TodoResponse before = map(item);
+            recordTransition(item.getOwner(), before, withStatus(before, TodoStatus.PAST_DUE, before.doneDatetime()));
+            owners.add(item.getOwner());
+        }
+        if (!marked.isEmpty()) {
+            AfterCommit.run(() -> {
+                marked.forEach(item -> evict("todoById", TenantKey.of(item.getOwner(), item.getId())));
+                owners.forEach(this::evictLists);
+            });
+        }
+        return marked.size();
+    }
 
-        logger.info("Marked {} todos as past due", toMark.size());
-        return toMark.size();
+    // applied once the transaction commits, so a rollback leaves the counters and the index untouched
+    private void recordTransition(String owner, TodoResponse before, TodoResponse after) {
+        AfterCommit.run(() -> {
+            searchIndex.updateStatus(after.id(), after.status());
+            statistics.recordTransition(owner, before, after);
+        });
     }
 
+    private RuntimeException notFoundOrArchived(String owner, UUID id) {
+        if (archive.findArchived(owner, id).isPresent()) {
+            logger.warn("Attempted to modify archived todo with id: {}", id);
+            return new ArchivedTodoException(id);
+        }
+        logger.warn("Todo not found with id: {}", id);
+        return new NotFoundException(id);
+    }
 
-    private void ensureMutable(TodoItem item) {
-        if (item.getStatus() == TodoStatus.PAST_DUE) {
-            logger.warn("Attempted to modify immutable past due todo with id: {}", item.getId());
-            throw new ImmutablePastDueException(item.getId());
+    // a virtual todo has no row for the conditional UPDATE to match: it is stored, then the UPDATE is retried once
+    private TodoItem changeOrStoreVirtual(String owner, UUID id, Supplier<Optional<TodoItem>> change) {
+        return change.get()
+                .or(() -> repo.findById(id).isEmpty() && archive.findArchived(owner, id).isEmpty()
+                        && virtualTodos.storeVirtual(owner, id) ? change.get() : Optional.empty())
+                .orElseThrow(() -> rejectedMutation(owner, id));
+    }
+
+    // the conditional UPDATE matched no row: the todo is missing, someone else's, archived or PAST_DUE
+    private RuntimeException rejectedMutation(String owner, UUID id) {
+        if (repo.findByIdAndOwner(id, owner).isPresent()) {
+            logger.warn("Attempted to modify immutable past due todo with id: {}", id);
+            return new ImmutablePastDueException(id);
+        }
+        return notFoundOrArchived(owner, id);
+    }
+
+    private void ensureMutable(UUID id, TodoStatus status) {
+        if (status == TodoStatus.PAST_DUE) {
+            logger.warn("Attempted to modify immutable past due todo with id: {}", id);
+            throw new ImmutablePastDueException(id);
         }
     }
 
+    private TodoResponse applyBuffered(String owner, UUID id, UnaryOperator<TodoResponse> transition) {
+        TodoWriteBehindBuffer.StatusChange change = writeBehind.apply(owner, id,
+                key -> map(repo.findByIdAndOwner(key, owner).orElseThrow(() -> notFoundOrArchived(owner, key))),
+                before -> {
+                    ensureMutable(id, before.status());
+                    return transition.apply(before);
+                });
+        // the transition is durable once it is in the status log, whatever happens to this transaction
+        searchIndex.updateStatus(id, change.after().status());
+        statistics.recordTransition(owner, change.before(), change.after());
+        return change.after();
+    }
+
+    /*
+     * Empty for a virtual todo: the write-behind flush runs in its own transaction and would not
+     * see a row inserted by this one, so its first change takes the synchronous path, which stores it.
+     */
+    private Optional<TodoResponse> applyBufferedUnlessVirtual(String owner, UUID id,
+                                                              UnaryOperator<TodoResponse> transition) {
+        try {
+            return Optional.of(applyBuffered(owner, id, transition));
+        } catch (NotFoundException e) {
+            if (virtualTodos.findVirtual(owner, id).isEmpty()) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
+    // a buffered transition the flush could not write: the row turned PAST_DUE (or was archived) meanwhile
+    private void undoRejected(TodoWriteBehindBuffer.RejectedTransition rejected) {
+        UUID id = rejected.restored().id();
+        statistics.recordTransition(rejected.owner(), rejected.acknowledged(), rejected.restored());
+        searchIndex.updateStatus(id, repo.findById(id).map(TodoItem::getStatus).orElse(rejected.restored().status()));
+        evictTodo(rejected.owner(), id);
+    }
+
+    private void evictTodo(String owner, UUID id) {
+        evict("todoById", TenantKey.of(owner, id));
+        evictLists(owner);
+    }
+
+    // a plain owner evicts that tenant's whole partition (see TenantPartitionedCache)
+    private void evictLists(String owner) {
+        evict("todoList", owner);
+        evict("todoListPayload", owner);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private static TodoItem newItem(String owner, TodoCreateRequest req, OffsetDateTime now) {
+        TodoItem item = new TodoItem();
+        item.setOwner(owner);
+        item.setDescription(req.description());
+        item.setCreationDatetime(now);
+        item.setDueDatetime(req.dueDatetime());
+        item.setStatus(TodoStatus.NOT_DONE);
+        return item;
+    }
+
+    private static TodoResponse withStatus(TodoResponse r, TodoStatus status, OffsetDateTime doneDatetime) {
+        return new TodoResponse(r.id(), r.description(), status, r.creationDatetime(), r.dueDatetime(), doneDatetime);
+    }
+
     private TodoResponse map(TodoItem i) {
+        // a status transition that has not been flushed yet wins over the row
+        return writeBehind.pending(i.getId())
+                .map(p -> new TodoResponse(
+                        i.getId(),
+                        i.getDescription(),
+                        p.status(),
+                        i.getCreationDatetime(),
+                        i.getDueDatetime(),
+                        p.doneDatetime()))
+                .orElseGet(() -> new TodoResponse(
+                        i.getId(),
+                        i.getDescription(),
+                        i.getStatus(),
+                        i.getCreationDatetime(),
+                        i.getDueDatetime(),
+                        i.getDoneDatetime()));
+    }
+
+    private TodoResponse map(ArchivedTodoItem a) {
         return new TodoResponse(
-                i.getId(),
-                i.getDescription(),
-                i.getStatus(),
-                i.getCreationDatetime(),
-                i.getDueDatetime(),
-                i.getDoneDatetime()
+                a.getId(),
+                a.getDescription(),
+                a.getStatus(),
+                a.getCreationDatetime(),
+                a.getDueDatetime(),
+                a.getDoneDatetime()
         );
     }
 
-    public TodoResponse fallbackGetById(UUID id, Throwable ex) {
+    public TodoResponse fallbackGetById(String owner, UUID id, Throwable ex) {
         logger.error("Fallback getById triggered for id {}: {}", id, ex.getMessage());
         return new TodoResponse(id, "Service unavailable", TodoStatus.PAST_DUE, null, null, null);
     }
 
-    public List<TodoResponse> fallbackList(boolean fetchAll, Throwable ex) {
+    public List<TodoResponse> fallbackList(String owner, boolean fetchAll, Throwable ex) {
         logger.error("Fallback list triggered: {}", ex.getMessage());
         return List.of();
     }
 
-    public TodoResponse fallbackUpdate(UUID id, TodoUpdateRequest req, Throwable ex) {
-        logger.error("Fallback update triggered for id {}: {}", id, ex.getMessage());
-        return new TodoResponse(id, "Update failed", null, null, null, null);
-    }
-
-    public TodoResponse fallbackRateLimited(UUID id, Throwable ex) {
-        logger.warn("Rate limit exceeded for getById id {}: {}", id, ex.getMessage());
-        throw new RuntimeException("Rate limit exceeded. Try again later.");
+    public List<TodoResponse> fallbackFind(String owner, TodoFilter filter, Throwable ex) {
+        logger.error("Fallback filtered list triggered: {}", ex.getMessage());
+        return List.of();
     }
 
-    public List<TodoResponse> fallbackRateLimitedList(boolean fetchAll, Throwable ex) {
-        logger.warn("Rate limit exceeded for list: {}", ex.getMessage());
-        throw new RuntimeException("Rate limit exceeded. Try again later.");
+    public TodoResponse fallbackUpdate(String owner, UUID id, TodoUpdateRequest req, Throwable ex) {
+        logger.error("Fallback update triggered for id {}: {}", id, ex.getMessage());
+        return new TodoResponse(id, "Update failed", null, null, null, null);
     }
-}
\ No newline at end of file
+}
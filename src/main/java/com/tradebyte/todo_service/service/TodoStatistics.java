@@ -0,0 +1,287 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoStatsResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.CompletionBuckets;
+import com.tradebyte.todo_service.repository.StatusCount;
+import com.tradebyte.todo_service.repository.TodoArchiveRepository;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters behind {@code GET /api/v1/todos/stats}, kept per owner.
+ * Every committed {@link TodoService} transition and the past-due sweep update the counters,
+ * so a stats call never touches {@code todo_items}. A periodic reconcile pass recomputes the
+ * status counts, the due buckets and the completion-time histogram from the database and
+ * corrects any drift; on startup the same pass builds the counters from scratch. The database
+ * returns only aggregates: counts per due minute within {@link #DUE_WINDOW} from now, one
+ * count per owner for the todos due before or after that window, and counts per completion
+ * bucket. Due minutes beyond the window are settled by a later pass, once the window reaches
+ * them; the window is longer than the seven days a snapshot reports on.
+ */
+@Component
+public class TodoStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoStatistics.class);
+
+    private static final Duration DUE_WINDOW = Duration.ofDays(8);
+
+    private final TodoRepository repo;
+    private final TodoArchiveRepository archiveRepo;
+
+    private final ConcurrentHashMap<String, Counters> owners = new ConcurrentHashMap<>();
+
+    public TodoStatistics(TodoRepository repo, TodoArchiveRepository archiveRepo) {
+        this.repo = repo;
+        this.archiveRepo = archiveRepo;
+    }
+
+
+    /**
+     * Rebuilds every counter from the database once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        reconcile();
+        logger.info("Rebuilt todo statistics for {} owner(s)", owners.size());
+    }
+
+
+    /**
+     * Corrects drift in all counters: status counts with a {@code GROUP BY} over the hot and
+     * the archive table, due buckets from NOT_DONE counts grouped by due minute, and the
+     * completion-time histogram from DONE counts grouped by bucket in both tables.
+     */
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${todo.stats.reconcile-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Map<String, Counters> actual = new HashMap<>();
+        for (StatusCount row : repo.countGroupByOwnerAndStatus()) {
+            actual.computeIfAbsent(row.getOwner(), o -> new Counters()).counts.get(row.getStatus()).add(row.getCount());
+        }
+        for (StatusCount row : archiveRepo.countGroupByOwnerAndStatus()) {
+            actual.computeIfAbsent(row.getOwner(), o -> new Counters()).counts.get(row.getStatus()).add(row.getCount());
+        }
+
+        long fromMinute = epochMinute(OffsetDateTime.now());
+        long toMinute = fromMinute + DUE_WINDOW.toMinutes();
+        OffsetDateTime from = minuteStart(fromMinute);
+        OffsetDateTime to = minuteStart(toMinute);
+        for (Object[] row : repo.countDueByMinute(TodoStatus.NOT_DONE, from, to)) {
+            actual.computeIfAbsent((String) row[0], o -> new Counters())
+                    .addDueMinute(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        }
+        // everything outside the window is represented by one bucket on either side
+        for (Object[] row : repo.countDueBefore(TodoStatus.NOT_DONE, from)) {
+            actual.computeIfAbsent((String) row[0], o -> new Counters())
+                    .addDueMinute(fromMinute - 1, ((Number) row[1]).longValue());
+        }
+        for (Object[] row : repo.countDueFrom(TodoStatus.NOT_DONE, to)) {
+            actual.computeIfAbsent((String) row[0], o -> new Counters())
+                    .addDueMinute(toMinute, ((Number) row[1]).longValue());
+        }
+
+        List<Object[]> completions = new ArrayList<>(repo.countByCompletionBucket(TodoStatus.DONE));
+        completions.addAll(archiveRepo.countByCompletionBucket(TodoStatus.DONE));
+        for (Object[] row : completions) {
+            actual.computeIfAbsent((String) row[0], o -> new Counters())
+                    .completion[((Number) row[1]).intValue()].add(((Number) row[2]).longValue());
+        }
+
+        Counters none = new Counters();
+        actual.keySet().forEach(this::counters);
+        owners.forEach((owner, counters) -> {
+            long drift = counters.correctTo(actual.getOrDefault(owner, none), fromMinute, toMinute);
+            if (drift != 0) {
+                logger.debug("Reconciled statistics of {} by {} in total", owner, drift);
+            }
+        });
+    }
+
+
+    public void recordCreated(String owner, TodoResponse created) {
+        counters(owner).add(created, 1);
+    }
+
+    public void recordTransition(String owner, TodoResponse before, TodoResponse after) {
+        Counters counters = counters(owner);
+        counters.add(before, -1);
+        counters.add(after, 1);
+    }
+
+
+    /**
+     * Reads the owner's current counters. Cost depends only on the number of distinct due
+     * minutes in the next seven days, never on the table size.
+     */
+    public TodoStatsResponse snapshot(String owner) {
+        OffsetDateTime now = OffsetDateTime.now();
+        long nowMinute = epochMinute(now);
+        Counters counters = owners.getOrDefault(owner, new Counters());
+
+        Map<String, Long> dueSoon = new LinkedHashMap<>();
+        dueSoon.put("overdue", sum(counters.dueByMinute.headMap(nowMinute, false)));
+        dueSoon.put("within1h", sum(counters.dueByMinute.subMap(nowMinute, true, nowMinute + 60, false)));
+        dueSoon.put("within24h", sum(counters.dueByMinute.subMap(nowMinute, true, nowMinute + 24 * 60, false)));
+        dueSoon.put("within7d", sum(counters.dueByMinute.subMap(nowMinute, true, nowMinute + 7 * 24 * 60, false)));
+
+        Map<String, Long> completionTime = new LinkedHashMap<>();
+        for (int i = 0; i < counters.completion.length; i++) {
+            completionTime.put(CompletionBuckets.LABELS[i], counters.completion[i].sum());
+        }
+
+        Map<TodoStatus, Long> counts = new EnumMap<>(TodoStatus.class);
+        counters.counts.forEach((status, counter) -> counts.put(status, counter.sum()));
+        return new TodoStatsResponse(counts, dueSoon, completionTime, now);
+    }
+
+
+    private Counters counters(String owner) {
+        return owners.computeIfAbsent(owner, o -> new Counters());
+    }
+
+    private static long sum(ConcurrentNavigableMap<Long, Long> buckets) {
+        long total = 0;
+        for (Long count : buckets.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static long epochMinute(OffsetDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(), 60);
+    }
+
+    private static OffsetDateTime minuteStart(long epochMinute) {
+        return Instant.ofEpochSecond(epochMinute * 60).atOffset(ZoneOffset.UTC);
+    }
+
+
+    private static final class Counters {
+        private final Map<TodoStatus, LongAdder> counts = new EnumMap<>(TodoStatus.class);
+        private final LongAdder[] completion = new LongAdder[CompletionBuckets.LABELS.length];
+        /** NOT_DONE todos per due minute (epoch minutes). */
+        private final ConcurrentSkipListMap<Long, Long> dueByMinute = new ConcurrentSkipListMap<>();
+
+        private Counters() {
+            for (TodoStatus status : TodoStatus.values()) {
+                counts.put(status, new LongAdder());
+            }
+            for (int i = 0; i < completion.length; i++) {
+                completion[i] = new LongAdder();
+            }
+        }
+
+        /*
+         * Moves every counter to the actual value; returns the sum of absolute corrections.
+         * Due minutes are corrected one by one within [fromMinute, toMinute); before and after
+         * that window only the totals are, as in actual, which has one bucket on either side.
+         */
+        private long correctTo(Counters actual, long fromMinute, long toMinute) {
+            long drift = 0;
+            for (TodoStatus status : TodoStatus.values()) {
+                drift += correct(counts.get(status), actual.counts.get(status).sum());
+            }
+            for (int i = 0; i < completion.length; i++) {
+                drift += correct(completion[i], actual.completion[i].sum());
+            }
+            Set<Long> minutes = new HashSet<>(dueByMinute.subMap(fromMinute, toMinute).keySet());
+            minutes.addAll(actual.dueByMinute.subMap(fromMinute, toMinute).keySet());
+            for (Long minute : minutes) {
+                long delta = actual.dueByMinute.getOrDefault(minute, 0L) - dueByMinute.getOrDefault(minute, 0L);
+                if (delta != 0) {
+                    addDueMinute(minute, delta);
+                    drift += Math.abs(delta);
+                }
+            }
+            drift += correctTotal(dueByMinute.headMap(fromMinute), sum(actual.dueByMinute.headMap(fromMinute)),
+                    fromMinute - 1);
+            // a surplus beyond the window is taken from the latest minutes, which matter last
+            drift += correctTotal(dueByMinute.tailMap(toMinute).descendingMap(),
+                    sum(actual.dueByMinute.tailMap(toMinute)), toMinute);
+            return drift;
+        }
+
+        // adds a shortfall at missingMinute, or removes a surplus from the range's first minutes
+        private long correctTotal(ConcurrentNavigableMap<Long, Long> range, long actual, long missingMinute) {
+            long delta = actual - sum(range);
+            if (delta > 0) {
+                addDueMinute(missingMinute, delta);
+            }
+            long surplus = -delta;
+            for (Map.Entry<Long, Long> bucket : range.entrySet()) {
+                if (surplus <= 0) {
+                    break;
+                }
+                long removed = Math.min(surplus, bucket.getValue());
+                addDueMinute(bucket.getKey(), -removed);
+                surplus -= removed;
+            }
+            return Math.abs(delta);
+        }
+
+        private static long correct(LongAdder counter, long actual) {
+            long delta = actual - counter.sum();
+            counter.add(delta);
+            return Math.abs(delta);
+        }
+
+        private void add(TodoResponse todo, int delta) {
+            if (todo == null || todo.status() == null) {
+                return;
+            }
+            counts.get(todo.status()).add(delta);
+            if (todo.status() == TodoStatus.NOT_DONE) {
+                addDue(todo.dueDatetime(), delta);
+            } else if (todo.status() == TodoStatus.DONE) {
+                addCompletion(todo.creationDatetime(), todo.doneDatetime(), delta);
+            }
+        }
+
+        private void addDue(OffsetDateTime due, long delta) {
+            if (due != null) {
+                addDueMinute(epochMinute(due), delta);
+            }
+        }
+
+        private void addDueMinute(long dueMinute, long delta) {
+            dueByMinute.compute(dueMinute, (minute, count) -> {
+                long updated = (count == null ? 0 : count) + delta;
+                return updated <= 0 ? null : updated;
+            });
+        }
+
+        private void addCompletion(OffsetDateTime created, OffsetDateTime done, long delta) {
+            if (created == null || done == null) {
+                return;
+            }
+            completion[CompletionBuckets.of(Duration.between(created, done))].add(delta);
+        }
+    }
+}
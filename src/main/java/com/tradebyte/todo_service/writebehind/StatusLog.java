@@ -0,0 +1,218 @@
+package com.tradebyte.todo_service.writebehind;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of status transitions in two memory-mapped, fixed-size segments.
+ * <p>
+ * Appends go to the active segment. {@link #rotate()} seals it and makes the other one
+ * active; once the sealed transitions are in the database, {@link #retire(int)} marks the
+ * segment empty. Each segment starts with its epoch, and every record repeats the epoch
+ * and carries a CRC, so leftovers from an earlier use of a segment and torn writes are
+ * never replayed. A retired segment keeps its epoch, negated, and the next epoch continues
+ * from the highest one on disk, so epochs never repeat, not even across restarts.
+ * <p>
+ * Not thread-safe; {@code TodoWriteBehindBuffer} serializes access.
+ */
+final class StatusLog implements Closeable {
+
+    static final String[] SEGMENT_FILES = {"status-0.log", "status-1.log"};
+
+    private static final int HEADER_BYTES = Long.BYTES;
+    // epoch, id (msb, lsb), status, done datetime (epoch micros), crc
+    private static final int RECORD_BYTES = Long.BYTES * 3 + 1 + Long.BYTES + Integer.BYTES;
+    private static final int CHECKSUMMED_BYTES = RECORD_BYTES - Integer.BYTES;
+    private static final long NO_DONE_DATETIME = Long.MIN_VALUE;
+    private static final long UNUSED = 0;
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+
+    private final FileChannel[] channels = new FileChannel[2];
+    private final MappedByteBuffer[] segments = new MappedByteBuffer[2];
+    private final int capacity;
+    private final boolean fsync;
+
+    private int active;
+    private int size;
+    private long epoch;
+
+    private StatusLog(Path dir, int capacity, boolean fsync) throws IOException {
+        this.capacity = capacity;
+        this.fsync = fsync;
+        Files.createDirectories(dir);
+        long bytes = HEADER_BYTES + (long) capacity * RECORD_BYTES;
+        for (int i = 0; i < 2; i++) {
+            channels[i] = FileChannel.open(dir.resolve(SEGMENT_FILES[i]),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segments[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            epoch = Math.max(epoch, Math.abs(segments[i].getLong(0)));
+        }
+    }
+
+    static StatusLog open(Path dir, int capacity, boolean fsync) {
+        try {
+            return new StatusLog(dir, capacity, fsync);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-behind log in " + dir, e);
+        }
+    }
+
+    static boolean exists(Path dir) {
+        return Files.exists(dir.resolve(SEGMENT_FILES[0])) || Files.exists(dir.resolve(SEGMENT_FILES[1]));
+    }
+
+
+    /**
+     * Reads the transitions of all unretired segments, oldest segment first.
+     */
+    List<Entry> recover() {
+        List<Integer> live = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            if (isLive(i)) {
+                live.add(i);
+            }
+        }
+        live.sort(Comparator.comparingLong(i -> segments[i].getLong(0)));
+
+        List<Entry> entries = new ArrayList<>();
+        for (int i : live) {
+            MappedByteBuffer segment = segments[i];
+            long segmentEpoch = segment.getLong(0);
+            for (int slot = 0; slot < capacity; slot++) {
+                Entry entry = read(segment, segmentEpoch, HEADER_BYTES + slot * RECORD_BYTES);
+                if (entry == null) {
+                    break;
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Retires both segments and starts appending to a fresh one.
+     */
+    void reset() {
+        retire(0);
+        retire(1);
+        start(0);
+    }
+
+    /**
+     * @return false if the active segment is full
+     */
+    boolean append(UUID id, TodoStatus status, OffsetDateTime doneDatetime) {
+        if (size == capacity) {
+            return false;
+        }
+        MappedByteBuffer segment = segments[active];
+        int offset = HEADER_BYTES + size * RECORD_BYTES;
+        segment.putLong(offset, epoch);
+        segment.putLong(offset + 8, id.getMostSignificantBits());
+        segment.putLong(offset + 16, id.getLeastSignificantBits());
+        segment.put(offset + 24, (byte) status.ordinal());
+        segment.putLong(offset + 25, doneDatetime == null
+                ? NO_DONE_DATETIME
+                : ChronoUnit.MICROS.between(Instant.EPOCH, doneDatetime.toInstant()));
+        segment.putInt(offset + CHECKSUMMED_BYTES, checksum(segment, offset));
+        if (fsync) {
+            segment.force(offset, RECORD_BYTES);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Seals the active segment and switches to the other one.
+     *
+     * @return the sealed segment, to be {@linkplain #retire(int) retired} once flushed
+     */
+    int rotate() {
+        int sealed = active;
+        int next = 1 - sealed;
+        if (isLive(next)) {
+            throw new IllegalStateException("Previous write-behind segment has not been flushed yet");
+        }
+        start(next);
+        return sealed;
+    }
+
+    void retire(int segment) {
+        segments[segment].putLong(0, -Math.abs(segments[segment].getLong(0)));
+        segments[segment].force(0, HEADER_BYTES);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() {
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+
+    // positive: live epoch; negative: retired epoch; zero: never used
+    private boolean isLive(int segment) {
+        return segments[segment].getLong(0) > UNUSED;
+    }
+
+    private void start(int segment) {
+        epoch++;
+        segments[segment].putLong(0, epoch);
+        segments[segment].force(0, HEADER_BYTES);
+        active = segment;
+        size = 0;
+    }
+
+    private static Entry read(MappedByteBuffer segment, long segmentEpoch, int offset) {
+        if (segment.getLong(offset) != segmentEpoch
+                || segment.getInt(offset + CHECKSUMMED_BYTES) != checksum(segment, offset)) {
+            return null;
+        }
+        UUID id = new UUID(segment.getLong(offset + 8), segment.getLong(offset + 16));
+        TodoStatus status = STATUSES[segment.get(offset + 24)];
+        long doneMicros = segment.getLong(offset + 25);
+        OffsetDateTime done = doneMicros == NO_DONE_DATETIME
+                ? null
+                : Instant.EPOCH.plus(doneMicros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+        return new Entry(id, status, done);
+    }
+
+    private static int checksum(MappedByteBuffer segment, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(offset, CHECKSUMMED_BYTES));
+        return (int) crc.getValue();
+    }
+
+
+    record Entry(UUID id, TodoStatus status, OffsetDateTime doneDatetime) {
+    }
+}
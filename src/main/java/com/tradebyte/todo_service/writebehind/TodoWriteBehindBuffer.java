@@ -0,0 +1,386 @@
+package com.tradebyte.todo_service.writebehind;
+
+import com.tradebyte.todo_service.dto.TodoResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Optional write-behind for status transitions ({@code todo.write-behind.enabled}).
+ * <p>
+ * A transition is appended to the memory-mapped {@link StatusLog} and recorded in an
+ * in-memory overlay before it is acknowledged; the overlay is the authoritative status
+ * until the transition has been written to {@code todo_items}. Pending transitions are
+ * flushed as one batched UPDATE per interval, or earlier once {@code flush-threshold}
+ * todos are pending. On startup, transitions left in the log by a crash are written to
+ * the database before the application serves requests.
+ * <p>
+ * The UPDATE skips rows that became PAST_DUE (or were archived) while the transition was
+ * pending. Such a rejected transition is dropped from the overlay and reported to the
+ * {@link #onRejected rejection listener}, which undoes what was derived from it.
+ */
+@Component
+public class TodoWriteBehindBuffer implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoWriteBehindBuffer.class);
+
+    private static final String UPDATE_STATUS =
+            "UPDATE todo_items SET status = ?, done_datetime = ?, version = version + 1 WHERE id = ? AND status <> 'PAST_DUE'";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final Path logDir;
+    private final int logCapacity;
+    private final int flushThreshold;
+    private final boolean fsync;
+
+    private final ConcurrentHashMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+    /** Guards the log and every change to {@link #pending} except removal after a flush. */
+    private final Object appendLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "todo-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long flushes;
+    private volatile Consumer<RejectedTransition> rejectionListener = rejected -> { };
+    private StatusLog log;
+
+    public TodoWriteBehindBuffer(JdbcTemplate jdbc,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${todo.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${todo.write-behind.log-dir:/data/write-behind}") Path logDir,
+                                 @Value("${todo.write-behind.log-capacity:262144}") int logCapacity,
+                                 @Value("${todo.write-behind.flush-threshold:1000}") int flushThreshold,
+                                 @Value("${todo.write-behind.fsync:false}") boolean fsync) {
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // request paths flush outside their transactions, but a flush must commit on its own before
+        // the log is retired and the overlay dropped, whoever calls it
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.logDir = logDir;
+        this.logCapacity = logCapacity;
+        this.flushThreshold = flushThreshold;
+        this.fsync = fsync;
+    }
+
+
+    /**
+     * Replays transitions left in the log, also when write-behind has been switched off since.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled && !StatusLog.exists(logDir)) {
+            return;
+        }
+        StatusLog opened = StatusLog.open(logDir, logCapacity, fsync);
+        Map<UUID, StatusLog.Entry> latest = new LinkedHashMap<>();
+        for (StatusLog.Entry entry : opened.recover()) {
+            latest.put(entry.id(), entry);
+        }
+        if (!latest.isEmpty()) {
+            // the statistics and the search index are built from the database afterwards
+            write(latest.values());
+            logger.info("Replayed {} pending status transition(s) from {}", latest.size(), logDir);
+        }
+        opened.reset();
+
+        if (enabled) {
+            log = opened;
+            logger.info("Write-behind enabled for status transitions, log in {}", logDir);
+        } else {
+            opened.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void onRejected(Consumer<RejectedTransition> listener) {
+        this.rejectionListener = listener;
+    }
+
+
+    /**
+     * Applies a status transition without writing to the database.
+     *
+     * @param owner      the owner the todo must belong to
+     * @param id         the todo id
+     * @param loader     loads the owner's current state from the database if nothing is pending for
+     *                   that owner; throws if the todo does not exist or belongs to someone else.
+     *                   Never called while the append lock is held
+     * @param transition computes the new state; may throw to reject the transition
+     * @return the states before and after the transition
+     */
+    public StatusChange apply(String owner, UUID id, Function<UUID, TodoResponse> loader,
+                              UnaryOperator<TodoResponse> transition) {
+        if (log.size() > log.capacity() - log.capacity() / 4) {
+            // backpressure: the log fills faster than the background flush drains it. A caller inside a
+            // transaction only queues the flush, so it never holds two pool connections; the last
+            // quarter of the log absorbs its transitions until the flush has run
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                requestFlush();
+            } else {
+                flush();
+            }
+        }
+
+        StatusChange change = null;
+        while (change == null) {
+            long flushesBefore = flushes;
+            Pending known = pending.get(id);
+            TodoResponse loaded = known != null && known.owner.equals(owner) ? null : loader.apply(id);
+            change = append(owner, id, known, loaded, flushesBefore, transition);
+        }
+
+        if (pending.size() >= flushThreshold || log.size() >= flushThreshold) {
+            requestFlush();
+        }
+        return change;
+    }
+
+    // null if a flush ran since the row was read outside the lock; the caller reads it again
+    private StatusChange append(String owner, UUID id, Pending known, TodoResponse loaded, long flushesBefore,
+                                UnaryOperator<TodoResponse> transition) {
+        synchronized (appendLock) {
+            Pending current = pending.get(id);
+            TodoResponse before;
+            TodoResponse base;
+            if (current != null && current.owner.equals(owner)) {
+                before = current.state;
+                base = current.base;
+            } else if (current == null && known == null && flushes == flushesBefore) {
+                before = loaded;
+                base = loaded;
+            } else {
+                return null;
+            }
+
+            TodoResponse after = transition.apply(before);
+            if (!log.append(id, after.status(), after.doneDatetime())) {
+                throw new IllegalStateException("Write-behind log is full");
+            }
+            pending.put(id, new Pending(owner, base, after));
+            return new StatusChange(before, after);
+        }
+    }
+
+    /**
+     * @return the pending state of a todo, if a transition has not been flushed yet
+     */
+    public Optional<TodoResponse> pending(UUID id) {
+        Pending p = pending.get(id);
+        return p == null ? Optional.empty() : Optional.of(p.state);
+    }
+
+    public boolean isPending(UUID id) {
+        return pending.containsKey(id);
+    }
+
+    /**
+     * Keeps a pending state's description current after it was changed in the database.
+     */
+    public void descriptionChanged(UUID id, String description) {
+        synchronized (appendLock) {
+            Pending p = pending.get(id);
+            if (p != null) {
+                p.state = withDescription(p.state, description);
+                p.base = withDescription(p.base, description);
+            }
+        }
+    }
+
+
+    /**
+     * Writes all pending transitions to the database in one transaction. Callers must not hold a
+     * transaction of their own, or they hold two pool connections until the write commits.
+     *
+     * @return the number of todos written
+     */
+    public int flush() {
+        if (log == null) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            Map<UUID, Pending> batch;
+            int sealed;
+            synchronized (appendLock) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = new HashMap<>(pending);
+                sealed = log.rotate();
+            }
+
+            List<UUID> rejected;
+            try {
+                List<StatusLog.Entry> entries = new ArrayList<>(batch.size());
+                batch.forEach((id, p) -> entries.add(new StatusLog.Entry(id, p.state.status(), p.state.doneDatetime())));
+                rejected = write(entries);
+            } catch (RuntimeException e) {
+                carryOver(batch, sealed);
+                throw e;
+            }
+
+            log.retire(sealed);
+            flushes++;
+            // a todo transitioned again during the write keeps its newer pending state
+            batch.forEach((id, p) -> pending.remove(id, p));
+            rejected.forEach(id -> reject(id, batch.get(id)));
+            return batch.size() - rejected.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.write-behind.flush-interval:PT1S}")
+    public void flushPeriodically() {
+        try {
+            int flushed = flush();
+            if (flushed > 0) {
+                logger.debug("Flushed {} status transition(s)", flushed);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Write-behind flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        if (log != null) {
+            flush();
+            log.close();
+        }
+    }
+
+
+    // returns the ids whose row was past due or gone, in one committed transaction of its own
+    private List<UUID> write(Collection<StatusLog.Entry> entries) {
+        List<StatusLog.Entry> ordered = new ArrayList<>(entries);
+        int[][] counts = transaction.execute(status -> jdbc.batchUpdate(UPDATE_STATUS, ordered, 500, (ps, e) -> {
+            ps.setString(1, e.status().name());
+            ps.setObject(2, e.doneDatetime());
+            ps.setObject(3, e.id());
+        }));
+        List<UUID> rejected = new ArrayList<>();
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count == 0) {
+                    rejected.add(ordered.get(i).id());
+                }
+                i++;
+            }
+        }
+        if (!rejected.isEmpty()) {
+            logger.warn("Rejected {} status transition(s) of todos that became past due or no longer exist: {}",
+                    rejected.size(), rejected);
+        }
+        return rejected;
+    }
+
+    // the row never reached the acknowledged state, so neither does anything derived from it
+    private void reject(UUID id, Pending flushed) {
+        Pending newer;
+        synchronized (appendLock) {
+            // a transition appended during the write started from the rejected state as well
+            newer = pending.remove(id);
+        }
+        TodoResponse acknowledged = newer != null ? newer.state : flushed.state;
+        try {
+            rejectionListener.accept(new RejectedTransition(flushed.owner, acknowledged, flushed.base));
+        } catch (RuntimeException e) {
+            logger.warn("Could not undo rejected status transition of todo {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static TodoResponse withDescription(TodoResponse r, String description) {
+        return new TodoResponse(r.id(), description, r.status(), r.creationDatetime(), r.dueDatetime(),
+                r.doneDatetime());
+    }
+
+    // re-logs the failed batch in the active segment so the sealed one can be reused
+    private void carryOver(Map<UUID, Pending> batch, int sealed) {
+        synchronized (appendLock) {
+            batch.forEach((id, p) -> {
+                if (pending.get(id) == p && !log.append(id, p.state.status(), p.state.doneDatetime())) {
+                    throw new IllegalStateException("Write-behind log is full");
+                }
+            });
+            log.retire(sealed);
+        }
+    }
+
+    private void requestFlush() {
+        if (flushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flushPeriodically();
+            });
+        }
+    }
+
+
+    /**
+     * The states of a todo before and after a transition.
+     */
+    public record StatusChange(TodoResponse before, TodoResponse after) {
+    }
+
+    /**
+     * A buffered transition the database did not accept.
+     *
+     * @param owner        the todo's owner
+     * @param acknowledged the latest state acknowledged to clients
+     * @param restored     the state the row had before the first buffered transition
+     */
+    public record RejectedTransition(String owner, TodoResponse acknowledged, TodoResponse restored) {
+    }
+
+    private static final class Pending {
+        private final String owner;
+        private volatile TodoResponse base;
+        private volatile TodoResponse state;
+
+        private Pending(String owner, TodoResponse base, TodoResponse state) {
+            this.owner = owner;
+            this.base = base;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.tradebyte.todo_service.cache;
+
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OffHeapTodoCacheTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+
+    @Test
+    void put_shouldRoundTripAllFields() {
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_000, 1 << 20);
+        TodoResponse done = response(UUID.randomUUID(), "Grüße ✓", TodoStatus.DONE, NOW);
+        TodoResponse fallback = new TodoResponse(UUID.randomUUID(), null, null, null, null, null);
+
+        cache.put(done.id(), done);
+        cache.put(fallback.id(), fallback);
+
+        assertThat(cache.get(done.id(), TodoResponse.class)).isEqualTo(done);
+        assertThat(cache.get(fallback.id(), TodoResponse.class)).isEqualTo(fallback);
+        assertThat(cache.get(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void put_shouldKeepOffsetsAndTruncateToMicros() {
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_000, 1 << 20);
+        OffsetDateTime berlin = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 123_456_789, ZoneOffset.ofHours(2));
+        OffsetDateTime kathmandu = OffsetDateTime.of(2025, 6, 2, 8, 0, 0, 0, ZoneOffset.ofHoursMinutes(5, 45));
+        OffsetDateTime honolulu = OffsetDateTime.of(2025, 6, 3, 8, 0, 0, 0, ZoneOffset.ofHours(-10));
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, new TodoResponse(id, "task", TodoStatus.DONE, kathmandu, honolulu, berlin));
+
+        TodoResponse cached = cache.get(id, TodoResponse.class);
+        assertThat(cached.doneDatetime()).isEqualTo(OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 123_456_000, ZoneOffset.ofHours(2)));
+        assertThat(cached.creationDatetime()).isEqualTo(kathmandu);
+        assertThat(cached.dueDatetime()).isEqualTo(honolulu);
+    }
+
+    @Test
+    void put_shouldSkipOffsetsThatAreNotQuarterHours() {
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_000, 1 << 20);
+        OffsetDateTime amsterdam1900 = OffsetDateTime.of(1900, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHoursMinutesSeconds(0, 19, 32));
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, response(id, "task", TodoStatus.DONE, amsterdam1900));
+
+        assertThat(cache.get(id)).isNull();
+    }
+
+    @Test
+    void put_shouldEvictUnreadEntriesBeforeRecentlyReadOnes() {
+        // 64 segments of 16 entries; every id below lands in the first segment
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_024, 1 << 20);
+        List<UUID> ids = new ArrayList<>();
+        while (ids.size() < 17) {
+            UUID id = UUID.randomUUID();
+            if (OffHeapTodoCache.segmentIndex(id) == 0) {
+                ids.add(id);
+            }
+        }
+        for (UUID id : ids.subList(0, 16)) {
+            cache.put(id, response(id, "task", TodoStatus.NOT_DONE, null));
+        }
+        UUID read = ids.get(0);
+        cache.get(read);
+
+        cache.put(ids.get(16), response(ids.get(16), "task", TodoStatus.NOT_DONE, null));
+
+        assertThat(cache.get(read)).isNotNull();
+        assertThat(cache.get(ids.get(16))).isNotNull();
+        assertThat(ids.subList(1, 16).stream().filter(id -> cache.get(id) == null)).hasSize(1);
+    }
+
+    @Test
+    void overwriteAndEvict_shouldReplaceAndRemoveEntries() {
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_000, 1 << 20);
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, response(id, "first", TodoStatus.NOT_DONE, null));
+        cache.put(id, response(id, "second", TodoStatus.DONE, NOW));
+        assertThat(cache.get(id, TodoResponse.class).description()).isEqualTo("second");
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.evict(id);
+        assertThat(cache.get(id)).isNull();
+
+        cache.put(id, response(id, "third", TodoStatus.NOT_DONE, null));
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldStayWithinEntryAndDescriptionBudgets() {
+        // 64 segments of 16 entries and 1 KiB description space each
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_024, 64 * 2 * 1_024);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            cache.put(id, response(id, "description number " + i + " ".repeat(i % 100), TodoStatus.NOT_DONE, null));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(1_024);
+        UUID last = ids.get(ids.size() - 1);
+        assertThat(cache.get(last, TodoResponse.class).description()).startsWith("description number 19999");
+        for (UUID id : ids) {
+            TodoResponse cached = cache.get(id, TodoResponse.class);
+            if (cached != null) {
+                assertThat(cached.id()).isEqualTo(id);
+                assertThat(cached.description()).startsWith("description number " + ids.indexOf(id));
+            }
+        }
+    }
+
+    @Test
+    void forTenant_shouldShareTheStoreButKeepTenantsApart() {
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_000, 1 << 20);
+        Cache alice = cache.forTenant("alice");
+        Cache bob = cache.forTenant("bob");
+        UUID aliceId = UUID.randomUUID();
+        UUID bobId = UUID.randomUUID();
+
+        alice.put(aliceId, response(aliceId, "alice's", TodoStatus.NOT_DONE, null));
+        bob.put(bobId, response(bobId, "bob's", TodoStatus.NOT_DONE, null));
+
+        assertThat(alice.get(aliceId, TodoResponse.class).description()).isEqualTo("alice's");
+        assertThat(bob.get(aliceId)).isNull();
+        bob.evict(aliceId);
+        bob.clear();
+        assertThat(alice.get(aliceId)).isNotNull();
+        assertThat(bob.get(bobId)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldRejectNonUuidKeys() {
+        OffHeapTodoCache cache = new OffHeapTodoCache("todoById", 1_000, 1 << 20);
+
+        assertThatThrownBy(() -> cache.get("not-a-uuid")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TodoResponse response(UUID id, String description, TodoStatus status, OffsetDateTime done) {
+        return new TodoResponse(id, description, status, NOW.minusDays(1), NOW.plusDays(1), done);
+    }
+}
@@ -0,0 +1,158 @@
+package com.tradebyte.todo_service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+    @Test
+    void get_shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoList"));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("all", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.get("all").get()).isEqualTo("value");
+    }
+
+    @Test
+    void get_shouldNotRememberFailedLoads() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoById"));
+
+        assertThatThrownBy(() -> cache.get("id", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("id", () -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void get_shouldNotStoreLoadThatRacedWithEviction() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoList"));
+
+        String value = cache.get("all", () -> {
+            cache.clear();
+            return "outdated";
+        });
+
+        assertThat(value).isEqualTo("outdated");
+        assertThat(cache.get("all")).isNull();
+    }
+
+    @Test
+    void get_shouldServeStaleValueWhileRevalidating() throws Exception {
+        List<Runnable> refreshes = new ArrayList<>();
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoList"), true, refreshes::add,
+                Duration.ofMinutes(1), 10);
+        cache.put("all", "v1");
+        cache.clear();
+
+        assertThat(cache.get("all", () -> "v2")).isEqualTo("v1");
+        assertThat(cache.get("all", () -> "v3")).isEqualTo("v1");
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.get(0).run();
+        assertThat(cache.get("all", () -> "v4")).isEqualTo("v2");
+    }
+
+    @Test
+    void get_shouldNotStoreAStaleInnerValueInADerivedCache() {
+        List<Runnable> refreshes = new ArrayList<>();
+        SingleFlightCache lists = new SingleFlightCache(new ConcurrentMapCache("todoList"), true, refreshes::add,
+                Duration.ofMinutes(1), 10);
+        SingleFlightCache payloads = new SingleFlightCache(new ConcurrentMapCache("todoListPayload"), true,
+                refreshes::add, Duration.ofMinutes(1), 10);
+        lists.put("all", "v1");
+        payloads.put("all", "json:v1");
+        lists.evict("all");
+        payloads.evict("all");
+
+        String payload = payloads.get("all",
+                () -> SingleFlightCache.bypassingStale(() -> "json:" + lists.get("all", () -> "v2")));
+        assertThat(payload).isEqualTo("json:v1");
+        refreshes.get(0).run();
+
+        assertThat(payloads.get("all").get()).isEqualTo("json:v2");
+        assertThat(lists.get("all").get()).isEqualTo("v2");
+    }
+
+    @Test
+    void get_shouldStoreLoadThatRacedWithAWriteToAnotherKey() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoById"));
+
+        String value = cache.get("a", () -> {
+            cache.put("b", "other");
+            cache.evict("c");
+            return "loaded";
+        });
+
+        assertThat(value).isEqualTo("loaded");
+        assertThat(cache.get("a").get()).isEqualTo("loaded");
+    }
+
+    @Test
+    void get_shouldServeAtMostOneWriteBehind() {
+        List<Runnable> refreshes = new ArrayList<>();
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoList"), true, refreshes::add,
+                Duration.ofMinutes(1), 10);
+        cache.put("all", "v1");
+        cache.evict("all");
+        assertThat(cache.get("all", () -> "v2")).isEqualTo("v1");
+
+        // a second write before the refresh finished: v1 is now two writes behind
+        cache.evict("all");
+
+        assertThat(cache.get("all", () -> "v3")).isEqualTo("v3");
+        refreshes.get(0).run();
+        assertThat(cache.get("all").get()).isEqualTo("v3");
+    }
+
+    @Test
+    void get_shouldDropExpiredAndExcessStaleCopies() throws Exception {
+        List<Runnable> refreshes = new ArrayList<>();
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("todoList"), true, refreshes::add,
+                Duration.ZERO, 2);
+        for (int i = 0; i < 5; i++) {
+            cache.put("key-" + i, "v" + i);
+        }
+        cache.clear();
+
+        assertThat(cache.staleSize()).isEqualTo(2);
+        TimeUnit.MILLISECONDS.sleep(1);
+        assertThat(cache.get("key-0", () -> "fresh")).isEqualTo("fresh");
+        assertThat(refreshes).isEmpty();
+    }
+}
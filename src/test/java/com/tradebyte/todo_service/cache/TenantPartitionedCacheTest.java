@@ -0,0 +1,53 @@
+package com.tradebyte.todo_service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TenantPartitionedCacheTest {
+
+    private final TenantPartitionedCache cache =
+            new TenantPartitionedCache("todoList", tenant -> new ConcurrentMapCache("todoList"), 3);
+
+    @Test
+    void get_shouldKeepTenantsApart() {
+        cache.put(TenantKey.of("alice", "all"), "alice's list");
+
+        assertThat(cache.get(TenantKey.of("alice", "all")).get()).isEqualTo("alice's list");
+        assertThat(cache.get(TenantKey.of("bob", "all"))).isNull();
+        assertThat(cache.get(TenantKey.of("bob", "all"), () -> "bob's list")).isEqualTo("bob's list");
+        assertThat(cache.get(TenantKey.of("alice", "all")).get()).isEqualTo("alice's list");
+    }
+
+    @Test
+    void put_shouldDropTheTenantsOldestEntriesBeyondItsQuota() {
+        for (int i = 0; i < 5; i++) {
+            cache.put(TenantKey.of("alice", i), i);
+        }
+        cache.put(TenantKey.of("bob", 0), 0);
+
+        assertThat(cache.size("alice")).isEqualTo(3);
+        assertThat(cache.get(TenantKey.of("alice", 0))).isNull();
+        assertThat(cache.get(TenantKey.of("alice", 1))).isNull();
+        assertThat(cache.get(TenantKey.of("alice", 4)).get()).isEqualTo(4);
+        assertThat(cache.get(TenantKey.of("bob", 0)).get()).isEqualTo(0);
+    }
+
+    @Test
+    void evict_withTenantName_shouldClearOnlyThatTenant() {
+        cache.put(TenantKey.of("alice", "all"), "a");
+        cache.put(TenantKey.of("bob", "all"), "b");
+
+        cache.evict("alice");
+
+        assertThat(cache.get(TenantKey.of("alice", "all"))).isNull();
+        assertThat(cache.get(TenantKey.of("bob", "all")).get()).isEqualTo("b");
+        assertThat(cache.size("alice")).isZero();
+    }
+
+    @Test
+    void put_shouldRejectKeysWithoutTenant() {
+        assertThatThrownBy(() -> cache.put("all", "value")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
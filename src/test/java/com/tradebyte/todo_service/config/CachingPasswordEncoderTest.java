@@ -0,0 +1,87 @@
+package com.tradebyte.todo_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+
+    @Test
+    void matches_shouldVerifyACorrectPasswordOnlyOnce() {
+        when(delegate.matches("secret", "{hash}1")).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, Duration.ofMinutes(1), 100);
+
+        assertThat(encoder.matches("secret", "{hash}1")).isTrue();
+        assertThat(encoder.matches("secret", "{hash}1")).isTrue();
+
+        verify(delegate, times(1)).matches("secret", "{hash}1");
+    }
+
+    @Test
+    void matches_shouldNeverCacheAWrongPassword() {
+        when(delegate.matches("wrong", "{hash}1")).thenReturn(false);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, Duration.ofMinutes(1), 100);
+
+        assertThat(encoder.matches("wrong", "{hash}1")).isFalse();
+        assertThat(encoder.matches("wrong", "{hash}1")).isFalse();
+
+        verify(delegate, times(2)).matches("wrong", "{hash}1");
+        assertThat(encoder.size()).isZero();
+    }
+
+    @Test
+    void matches_shouldVerifyAgainWhenTheStoredHashChanges() {
+        when(delegate.matches(eq("secret"), anyString())).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, Duration.ofMinutes(1), 100);
+
+        encoder.matches("secret", "{hash}1");
+        encoder.matches("secret", "{hash}2");
+
+        verify(delegate).matches("secret", "{hash}1");
+        verify(delegate).matches("secret", "{hash}2");
+    }
+
+    @Test
+    void matches_shouldStayWithinMaxEntries() {
+        when(delegate.matches(anyString(), anyString())).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, Duration.ofMinutes(1), 2);
+
+        for (int i = 0; i < 10; i++) {
+            encoder.matches("secret" + i, "{hash}" + i);
+        }
+
+        assertThat(encoder.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matches_shouldDropExpiredEntriesWhenSeenAgain() throws Exception {
+        when(delegate.matches("secret", "{hash}1")).thenReturn(true, false);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, Duration.ofNanos(1), 100);
+
+        assertThat(encoder.matches("secret", "{hash}1")).isTrue();
+        Thread.sleep(1);
+
+        assertThat(encoder.matches("secret", "{hash}1")).isFalse();
+        assertThat(encoder.size()).isZero();
+    }
+
+    @Test
+    void matches_shouldDropTheLeastRecentlyUsedEntryFirst() {
+        when(delegate.matches(anyString(), anyString())).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, Duration.ofMinutes(1), 2);
+
+        encoder.matches("a", "{hash}a");
+        encoder.matches("b", "{hash}b");
+        encoder.matches("a", "{hash}a");
+        encoder.matches("c", "{hash}c");
+        encoder.matches("a", "{hash}a");
+
+        verify(delegate, times(1)).matches("a", "{hash}a");
+    }
+}
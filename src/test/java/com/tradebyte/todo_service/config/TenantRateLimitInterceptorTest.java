@@ -0,0 +1,76 @@
+package com.tradebyte.todo_service.config;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TenantRateLimitInterceptorTest {
+
+    private final TenantRateLimitInterceptor interceptor = interceptor(List.of("StubController.limited"));
+
+    @Test
+    void preHandle_shouldLimitEachTenantIndependently() throws Exception {
+        assertThat(call(interceptor, "alice", "limited")).isTrue();
+        assertThat(call(interceptor, "alice", "limited")).isTrue();
+        assertThatThrownBy(() -> call(interceptor, "alice", "limited")).isInstanceOf(RequestNotPermitted.class);
+
+        assertThat(call(interceptor, "bob", "limited")).isTrue();
+    }
+
+    @Test
+    void preHandle_shouldLetUnauthenticatedRequestsThrough() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(interceptor, null, "limited")).isTrue();
+        }
+    }
+
+    @Test
+    void preHandle_shouldOnlyLimitTheConfiguredEndpoints() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(interceptor, "alice", "unlimited")).isTrue();
+        }
+
+        TenantRateLimitInterceptor all = interceptor(List.of(TenantRateLimitInterceptor.ALL));
+        assertThat(call(all, "alice", "unlimited")).isTrue();
+        assertThat(call(all, "alice", "limited")).isTrue();
+        assertThatThrownBy(() -> call(all, "alice", "unlimited")).isInstanceOf(RequestNotPermitted.class);
+    }
+
+    private static TenantRateLimitInterceptor interceptor(List<String> endpoints) {
+        return new TenantRateLimitInterceptor(
+                RateLimiterRegistry.of(Map.of(TenantRateLimitInterceptor.CONFIG, RateLimiterConfig.custom()
+                        .limitForPeriod(2)
+                        .limitRefreshPeriod(Duration.ofHours(1))
+                        .timeoutDuration(Duration.ZERO)
+                        .build())),
+                endpoints);
+    }
+
+    private static boolean call(TenantRateLimitInterceptor interceptor, String user, String method) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/todos");
+        if (user != null) {
+            request.setUserPrincipal(() -> user);
+        }
+        HandlerMethod handler = new HandlerMethod(new StubController(), StubController.class.getMethod(method));
+        return interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+    }
+
+    static class StubController {
+
+        public void limited() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.tradebyte.todo_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.protobuf.CodedInputStream;
+import com.tradebyte.todo_service.dto.TodoImportResponse;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSeriesRequest;
+import com.tradebyte.todo_service.dto.TodoSeriesResponse;
+import com.tradebyte.todo_service.dto.TodoStatsResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.proto.Todo;
+import com.tradebyte.todo_service.proto.TodoImportResult;
+import com.tradebyte.todo_service.proto.TodoList;
+import com.tradebyte.todo_service.proto.TodoSeries;
+import com.tradebyte.todo_service.proto.TodoSeriesList;
+import com.tradebyte.todo_service.proto.TodoStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks the hand-written converter against itself and against the parser protoc generates from
+ * {@code proto/todo.proto}, so the schema and the encoder cannot drift apart.
+ */
+class TodoProtobufHttpMessageConverterTest {
+
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000, ZoneOffset.UTC);
+
+    private final TodoProtobufHttpMessageConverter converter = new TodoProtobufHttpMessageConverter();
+
+    @Test
+    void write_shouldRoundTripListWithMicrosecondTimestamps() throws Exception {
+        OffsetDateTime created = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000, ZoneOffset.UTC);
+        TodoResponse done = new TodoResponse(UUID.randomUUID(), "Buy milk", TodoStatus.DONE,
+                created, created.plusDays(1), created.plusHours(2));
+        TodoResponse open = new TodoResponse(UUID.randomUUID(), "Call Bob", TodoStatus.NOT_DONE,
+                created, created.plusDays(3), null);
+
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(List.of(done, open), TodoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, out);
+
+        List<TodoResponse> decoded = TodoProtobufHttpMessageConverter.readTodoList(
+                CodedInputStream.newInstance(out.getBodyAsBytes()));
+        assertThat(decoded).containsExactly(done, open);
+    }
+
+    @Test
+    void write_shouldMatchTheGeneratedTodoListParser() throws Exception {
+        UUID id = UUID.randomUUID();
+        TodoResponse todo = new TodoResponse(id, "Buy milk", TodoStatus.PAST_DUE, CREATED, CREATED.plusDays(1), null);
+
+        TodoList decoded = TodoList.parseFrom(write(List.of(todo)));
+
+        assertThat(decoded.getItemsCount()).isEqualTo(1);
+        Todo item = decoded.getItems(0);
+        assertThat(new UUID(item.getIdMsb(), item.getIdLsb())).isEqualTo(id);
+        assertThat(item.getDescription()).isEqualTo("Buy milk");
+        assertThat(item.getStatus()).isEqualTo(com.tradebyte.todo_service.proto.TodoStatus.PAST_DUE);
+        assertThat(item.getCreationMicros()).isEqualTo(micros(CREATED));
+        assertThat(item.getDueMicros()).isEqualTo(micros(CREATED.plusDays(1)));
+        assertThat(item.hasDoneMicros()).isFalse();
+    }
+
+    @Test
+    void write_shouldMatchTheGeneratedStatsParser() throws Exception {
+        Map<TodoStatus, Long> counts = new LinkedHashMap<>();
+        counts.put(TodoStatus.NOT_DONE, 3L);
+        counts.put(TodoStatus.DONE, 1L);
+        TodoStatsResponse stats = new TodoStatsResponse(counts, Map.of("next24h", 2L), Map.of("lt1h", 1L), CREATED);
+
+        TodoStats decoded = TodoStats.parseFrom(write(stats));
+
+        assertThat(decoded.getCountsMap()).containsOnly(entry("NOT_DONE", 3L), entry("DONE", 1L));
+        assertThat(decoded.getDueSoonMap()).containsOnly(entry("next24h", 2L));
+        assertThat(decoded.getCompletionTimeMap()).containsOnly(entry("lt1h", 1L));
+        assertThat(decoded.getGeneratedMicros()).isEqualTo(micros(CREATED));
+    }
+
+    @Test
+    void write_shouldMatchTheGeneratedImportResultParser() throws Exception {
+        TodoImportResponse result = new TodoImportResponse(5, 1,
+                List.of(new TodoImportResponse.LineError(4, "description: must not be blank")), null);
+
+        TodoImportResult decoded = TodoImportResult.parseFrom(write(result));
+
+        assertThat(decoded.getImported()).isEqualTo(5);
+        assertThat(decoded.getFailed()).isEqualTo(1);
+        assertThat(decoded.getErrorsList()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(4);
+            assertThat(error.getMessage()).isEqualTo("description: must not be blank");
+        });
+        assertThat(decoded.hasError()).isFalse();
+    }
+
+    @Test
+    void write_shouldMatchTheGeneratedSeriesParsers() throws Exception {
+        UUID id = UUID.randomUUID();
+        TodoSeriesResponse series = new TodoSeriesResponse(id, "Standup", "FREQ=DAILY;COUNT=5",
+                CREATED, CREATED.plusDays(1));
+        TodoSeriesResponse exhausted = new TodoSeriesResponse(UUID.randomUUID(), "Once", "FREQ=DAILY;COUNT=1",
+                CREATED, null);
+
+        TodoSeries single = TodoSeries.parseFrom(write(series));
+        TodoSeriesList list = TodoSeriesList.parseFrom(write(List.of(series, exhausted)));
+
+        assertThat(new UUID(single.getIdMsb(), single.getIdLsb())).isEqualTo(id);
+        assertThat(single.getRule()).isEqualTo("FREQ=DAILY;COUNT=5");
+        assertThat(single.getFirstDueMicros()).isEqualTo(micros(CREATED));
+        assertThat(single.getNextDueMicros()).isEqualTo(micros(CREATED.plusDays(1)));
+        assertThat(list.getItemsList()).containsExactly(single, TodoSeries.parseFrom(write(exhausted)));
+        assertThat(list.getItems(1).hasNextDueMicros()).isFalse();
+    }
+
+    @Test
+    void read_shouldDecodeMessagesFromTheGeneratedEncoder() throws Exception {
+        byte[] request = com.tradebyte.todo_service.proto.TodoSeriesRequest.newBuilder()
+                .setDescription("Standup")
+                .setFirstDueMicros(micros(CREATED))
+                .setRule("FREQ=WEEKLY;BYDAY=MO")
+                .build()
+                .toByteArray();
+
+        Object decoded = converter.read(TodoSeriesRequest.class, new MockHttpInputMessage(request));
+
+        assertThat(decoded).isEqualTo(new TodoSeriesRequest("Standup", CREATED, "FREQ=WEEKLY;BYDAY=MO"));
+    }
+
+    @Test
+    void write_shouldBeSmallerThanJsonAndCbor() throws Exception {
+        List<TodoResponse> todos = new ArrayList<>();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < 1_000; i++) {
+            todos.add(new TodoResponse(UUID.randomUUID(), "Task number " + i, TodoStatus.NOT_DONE,
+                    now, now.plusDays(1), null));
+        }
+
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(todos, TodoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, out);
+        byte[] json = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsBytes(todos);
+        byte[] cbor = CBORMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build().writeValueAsBytes(todos);
+
+        assertThat(out.getBodyAsBytes().length).isLessThan(cbor.length).isLessThan(json.length);
+    }
+
+    private byte[] write(Object body) throws IOException {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(body, TodoProtobufHttpMessageConverter.APPLICATION_PROTOBUF, out);
+        return out.getBodyAsBytes();
+    }
+
+    private static long micros(OffsetDateTime time) {
+        return time.toEpochSecond() * 1_000_000L + time.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tradebyte.todo_service.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WebConfigTest {
+
+    @Test
+    void binaryMapper_shouldKeepTheTimestampOffset() throws Exception {
+        OffsetDateTime due = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000, ZoneOffset.ofHours(2));
+        TodoResponse todo = new TodoResponse(UUID.randomUUID(), "Buy milk", TodoStatus.NOT_DONE, due, due, null);
+
+        for (Jackson2ObjectMapperBuilder builder
+                : new Jackson2ObjectMapperBuilder[]{Jackson2ObjectMapperBuilder.cbor(), Jackson2ObjectMapperBuilder.smile()}) {
+            ObjectMapper mapper = WebConfig.binaryMapper(builder);
+
+            JsonNode decoded = mapper.readTree(mapper.writeValueAsBytes(todo));
+
+            assertThat(decoded.get("dueDatetime").asText()).isEqualTo("2025-01-02T03:04:05.123456+02:00");
+        }
+    }
+}
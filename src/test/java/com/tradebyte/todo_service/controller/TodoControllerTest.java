@@ -3,25 +3,40 @@ package com.tradebyte.todo_service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoFilter;
 import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSortField;
 import com.tradebyte.todo_service.dto.TodoUpdateRequest;
 import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.IdempotencyRecordRepository;
+import com.tradebyte.todo_service.repository.TodoSeriesRepository;
+import com.tradebyte.todo_service.service.IdempotencyKeyStore;
+import com.tradebyte.todo_service.service.TodoImportService;
+import com.tradebyte.todo_service.service.TodoListPayloadService;
+import com.tradebyte.todo_service.service.TodoSeriesService;
 import com.tradebyte.todo_service.service.TodoService;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.ByteArrayInputStream;
+import java.security.Principal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,23 +48,35 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 class TodoControllerTest {
 
+    private static final Principal ALICE = () -> "alice";
+
     private MockMvc mvc;
     private ObjectMapper mapper = new ObjectMapper();
 
     @Mock
     private TodoService todoService;
 
-    @InjectMocks
     private TodoController todoController;
 
     /**
      * Initializes Mockito mocks, registers JavaTimeModule for OffsetDateTime serialization,
+     * wires the controller with real payload and series services over the mocked TodoService
+     * (no series, so lists come back unchanged),
      * and sets up a standalone MockMvc instance for controller testing.
      */
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         mapper.registerModule(new JavaTimeModule());
+        IdempotencyKeyStore idempotency = new IdempotencyKeyStore(
+                Mockito.mock(IdempotencyRecordRepository.class), mapper, Mockito.mock(PlatformTransactionManager.class),
+                Duration.ofHours(1), 1_000, false);
+        TodoImportService importer = new TodoImportService(todoService, mapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), 1_000, 100, 65_536);
+        TodoSeriesService series = new TodoSeriesService(Mockito.mock(TodoSeriesRepository.class), todoService,
+                Duration.ofDays(7), 1_000, true);
+        todoController = new TodoController(todoService, new TodoListPayloadService(todoService, mapper), idempotency,
+                importer, series);
         mvc = MockMvcBuilders.standaloneSetup(todoController).build();
     }
 
@@ -68,9 +95,9 @@ class TodoControllerTest {
                 id, req.description(), TodoStatus.NOT_DONE, createdTime, req.dueDatetime(), null
         );
 
-        Mockito.when(todoService.create(any(TodoCreateRequest.class))).thenReturn(mockResp);
+        Mockito.when(todoService.create(eq("alice"), any(TodoCreateRequest.class))).thenReturn(mockResp);
 
-        mvc.perform(post("/api/v1/todos")
+        mvc.perform(post("/api/v1/todos").principal(ALICE)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(req)))
                 .andExpect(status().isCreated())
@@ -79,6 +106,76 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.status").value("NOT_DONE"));
     }
 
+    /**
+     * Tests POST /api/v1/todos with a repeated Idempotency-Key to ensure the retry
+     * returns the first response without creating a second todo.
+     */
+    @Test
+    void create_withRepeatedIdempotencyKey_shouldCreateOnce() throws Exception {
+        TodoCreateRequest req = new TodoCreateRequest("New Task", OffsetDateTime.now().plusDays(1).withNano(0));
+        TodoResponse mockResp = new TodoResponse(
+                UUID.randomUUID(), req.description(), TodoStatus.NOT_DONE,
+                OffsetDateTime.now().withNano(0), req.dueDatetime(), null
+        );
+        Mockito.when(todoService.create(eq("alice"), any(TodoCreateRequest.class))).thenReturn(mockResp);
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/api/v1/todos").principal(ALICE)
+                            .header("Idempotency-Key", "retry-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(mockResp.id().toString()));
+        }
+
+        Mockito.verify(todoService, Mockito.times(1)).create(eq("alice"), any(TodoCreateRequest.class));
+    }
+
+    /**
+     * Tests POST /api/v1/todos with the same Idempotency-Key from two users to ensure
+     * keys are scoped per tenant and one user's key never replays another user's todo.
+     */
+    @Test
+    void create_withSameIdempotencyKeyFromTwoUsers_shouldCreateTwice() throws Exception {
+        TodoCreateRequest req = new TodoCreateRequest("New Task", OffsetDateTime.now().plusDays(1).withNano(0));
+        TodoResponse mockResp = new TodoResponse(
+                UUID.randomUUID(), req.description(), TodoStatus.NOT_DONE,
+                OffsetDateTime.now().withNano(0), req.dueDatetime(), null
+        );
+        Mockito.when(todoService.create(any(), any(TodoCreateRequest.class))).thenReturn(mockResp);
+
+        for (Principal user : List.<Principal>of(ALICE, () -> "bob")) {
+            mvc.perform(post("/api/v1/todos").principal(user)
+                            .header("Idempotency-Key", "shared-key")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isCreated());
+        }
+
+        Mockito.verify(todoService).create(eq("alice"), any(TodoCreateRequest.class));
+        Mockito.verify(todoService).create(eq("bob"), any(TodoCreateRequest.class));
+    }
+
+    /**
+     * Tests POST /api/v1/todos/import with an NDJSON body to verify that valid lines are
+     * imported for the caller and an invalid line is reported with its line number.
+     */
+    @Test
+    void importTodos_withNdjson_shouldImportValidLinesAndReportErrors() throws Exception {
+        Mockito.when(todoService.createAll(eq("alice"), any())).thenAnswer(inv -> ((List<?>) inv.getArgument(1)).size());
+        String body = "{\"description\":\"First\",\"dueDatetime\":\"2030-01-01T00:00:00Z\"}\n"
+                + "{\"description\":\"\",\"dueDatetime\":\"2030-01-01T00:00:00Z\"}\n"
+                + "{\"description\":\"Third\",\"dueDatetime\":\"2030-01-02T00:00:00Z\"}\n";
+
+        mvc.perform(post("/api/v1/todos/import").principal(ALICE)
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
     /**
      * Tests POST /api/v1/todos/{id}/done to ensure a todo can be marked as DONE
      * and the controller returns HTTP 200 with updated status.
@@ -96,14 +193,14 @@ class TodoControllerTest {
                 creationTime.plusDays(1),
                 OffsetDateTime.now().withNano(0)
         );
-        Mockito.when(todoService.markDone(eq(id))).thenReturn(doneResp);
+        Mockito.when(todoService.markDone(eq("alice"), eq(id))).thenReturn(doneResp);
 
-        mvc.perform(post("/api/v1/todos/" + id + "/done"))
+        mvc.perform(post("/api/v1/todos/" + id + "/done").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("DONE"))
                 .andExpect(jsonPath("$.doneDatetime").exists());
 
-        Mockito.verify(todoService).markDone(id);
+        Mockito.verify(todoService).markDone("alice", id);
     }
 
     /**
@@ -123,14 +220,14 @@ class TodoControllerTest {
                 creationTime.plusDays(1),
                 null
         );
-        Mockito.when(todoService.markNotDone(eq(id))).thenReturn(notDoneResp);
+        Mockito.when(todoService.markNotDone(eq("alice"), eq(id))).thenReturn(notDoneResp);
 
-        mvc.perform(post("/api/v1/todos/" + id + "/not-done"))
+        mvc.perform(post("/api/v1/todos/" + id + "/not-done").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("NOT_DONE"))
                 .andExpect(jsonPath("$.doneDatetime").doesNotExist());
 
-        Mockito.verify(todoService).markNotDone(id);
+        Mockito.verify(todoService).markNotDone("alice", id);
     }
 
     /**
@@ -153,9 +250,9 @@ class TodoControllerTest {
                 null
         );
 
-        Mockito.when(todoService.updateDescription(eq(id), any(TodoUpdateRequest.class))).thenReturn(updatedResp);
+        Mockito.when(todoService.updateDescription(eq("alice"), eq(id), any(TodoUpdateRequest.class))).thenReturn(updatedResp);
 
-        mvc.perform(patch("/api/v1/todos/" + id + "/description")
+        mvc.perform(patch("/api/v1/todos/" + id + "/description").principal(ALICE)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(req)))
                 .andExpect(status().isOk())
@@ -178,9 +275,9 @@ class TodoControllerTest {
                 null
         );
 
-        Mockito.when(todoService.getById(eq(id))).thenReturn(mockResp);
+        Mockito.when(todoService.getById(eq("alice"), eq(id))).thenReturn(mockResp);
 
-        mvc.perform(get("/api/v1/todos/" + id))
+        mvc.perform(get("/api/v1/todos/" + id).principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(id.toString()))
                 .andExpect(jsonPath("$.description").value("Fetch Test Task"));
@@ -198,9 +295,9 @@ class TodoControllerTest {
         );
         List<TodoResponse> mockList = Collections.singletonList(todo1);
 
-        Mockito.when(todoService.getNotDoneOrAll(eq(false))).thenReturn(mockList);
+        Mockito.when(todoService.getNotDoneOrAll(eq("alice"), eq(false))).thenReturn(mockList);
 
-        mvc.perform(get("/api/v1/todos"))
+        mvc.perform(get("/api/v1/todos").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].description").value("Task 1"));
@@ -222,10 +319,93 @@ class TodoControllerTest {
         );
         List<TodoResponse> mockList = List.of(todo1, todo2);
 
-        Mockito.when(todoService.getNotDoneOrAll(eq(true))).thenReturn(mockList);
+        Mockito.when(todoService.getNotDoneOrAll(eq("alice"), eq(true))).thenReturn(mockList);
 
-        mvc.perform(get("/api/v1/todos?all=true"))
+        mvc.perform(get("/api/v1/todos?all=true").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests GET /api/v1/todos with filter parameters to verify that the request is
+     * routed to the filtered query with a normalized filter.
+     */
+    @Test
+    void list_withFilters_shouldReturn200AndFilteredTodos() throws Exception {
+        TodoResponse todo = new TodoResponse(
+                UUID.randomUUID(), "Task 1", TodoStatus.DONE,
+                OffsetDateTime.now(), OffsetDateTime.now().plusDays(1), OffsetDateTime.now()
+        );
+
+        Mockito.when(todoService.find(eq("alice"), any(TodoFilter.class))).thenReturn(List.of(todo));
+
+        mvc.perform(get("/api/v1/todos").principal(ALICE)
+                        .param("status", "DONE,PAST_DUE")
+                        .param("dueBefore", "2030-01-01T00:00:00Z")
+                        .param("sort", "CREATION_DATETIME")
+                        .param("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].status").value("DONE"));
+
+        ArgumentCaptor<TodoFilter> captor = ArgumentCaptor.forClass(TodoFilter.class);
+        Mockito.verify(todoService).find(eq("alice"), captor.capture());
+        TodoFilter filter = captor.getValue();
+        assertThat(filter.statuses())
+                .containsExactlyInAnyOrder(TodoStatus.DONE, TodoStatus.PAST_DUE);
+        assertThat(filter.sortBy()).isEqualTo(TodoSortField.CREATION_DATETIME);
+        Mockito.verify(todoService, Mockito.never()).getNotDoneOrAll(any(), Mockito.anyBoolean());
+    }
+
+    /**
+     * Tests GET /api/v1/todos with Accept-Encoding: gzip to verify that the pre-serialized
+     * payload is returned gzip-compressed with the matching Content-Encoding.
+     */
+    @Test
+    void list_withGzipAcceptEncoding_shouldReturnCompressedPayload() throws Exception {
+        TodoResponse todo1 = new TodoResponse(
+                UUID.randomUUID(), "Task 1", TodoStatus.NOT_DONE,
+                OffsetDateTime.now(), OffsetDateTime.now().plusDays(1), null
+        );
+        Mockito.when(todoService.getNotDoneOrAll(eq("alice"), eq(false))).thenReturn(List.of(todo1));
+
+        byte[] body = mvc.perform(get("/api/v1/todos").principal(ALICE).header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            List<?> decoded = mapper.readValue(in.readAllBytes(), List.class);
+            assertThat(decoded).hasSize(1);
+        }
+    }
+
+    /**
+     * Tests GET /api/v1/todos with a low-quality JSON entry in Accept to verify that the
+     * higher-quality CBOR wins over the cached JSON payload.
+     */
+    @Test
+    void list_withJsonOutweighedByCbor_shouldNotServeJsonPayload() throws Exception {
+        TodoResponse todo = new TodoResponse(
+                UUID.randomUUID(), "Task 1", TodoStatus.NOT_DONE,
+                OffsetDateTime.now(), OffsetDateTime.now().plusDays(1), null
+        );
+        Mockito.when(todoService.getNotDoneOrAll(eq("alice"), eq(false))).thenReturn(List.of(todo));
+
+        mvc.perform(get("/api/v1/todos").principal(ALICE).header("Accept", "application/json;q=0.1, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"));
+    }
+
+    /**
+     * Tests GET /api/v1/todos with gzip;q=0 to verify that gzip is refused even next to a wildcard.
+     */
+    @Test
+    void list_withGzipQualityZero_shouldReturnUncompressedPayload() throws Exception {
+        Mockito.when(todoService.getNotDoneOrAll(eq("alice"), eq(false))).thenReturn(List.of());
+
+        mvc.perform(get("/api/v1/todos").principal(ALICE).header("Accept-Encoding", "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.tradebyte.todo_service.recurrence;
+
+import com.tradebyte.todo_service.recurrence.RecurrenceRule.Occurrence;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    // a Monday
+    private static final OffsetDateTime START = OffsetDateTime.parse("2030-01-07T09:00:00+01:00");
+
+    @Test
+    void daily_shouldRespectIntervalAndCount() {
+        List<OffsetDateTime> dues = dues(RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2;COUNT=3"), START, 10);
+
+        assertThat(dues).containsExactly(START, START.plusDays(2), START.plusDays(4));
+    }
+
+    @Test
+    void weeklyByDay_shouldVisitTheDaysOfEveryIntervalWeek() {
+        OffsetDateTime wednesday = START.plusDays(2);
+
+        List<OffsetDateTime> dues = dues(RecurrenceRule.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH"), wednesday, 4);
+
+        assertThat(dues).containsExactly(START.plusDays(3), START.plusWeeks(2), START.plusWeeks(2).plusDays(3),
+                START.plusWeeks(4));
+    }
+
+    @Test
+    void monthly_shouldClampToShorterMonthsWithoutDrifting() {
+        OffsetDateTime jan31 = OffsetDateTime.parse("2030-01-31T09:00:00Z");
+
+        List<OffsetDateTime> dues = dues(RecurrenceRule.parse("FREQ=MONTHLY"), jan31, 3);
+
+        assertThat(dues).containsExactly(jan31, OffsetDateTime.parse("2030-02-28T09:00:00Z"),
+                OffsetDateTime.parse("2030-03-31T09:00:00Z"));
+    }
+
+    @Test
+    void until_shouldBeInclusive() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;UNTIL=20300114T080000Z");
+
+        assertThat(dues(rule, START, 10)).containsExactly(START, START.plusWeeks(1));
+    }
+
+    @Test
+    void next_shouldResumeFromAStoredOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3");
+
+        Occurrence next = rule.next(START, new Occurrence(100, START.plusDays(300)));
+
+        assertThat(next).isEqualTo(new Occurrence(101, START.plusDays(303)));
+    }
+
+    @Test
+    void parse_shouldRejectInvalidRules() {
+        assertThatThrownBy(() -> RecurrenceRule.parse("INTERVAL=2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=HOURLY")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;BYDAY=MO")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2;UNTIL=20300101T000000Z"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;COUNT=x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<OffsetDateTime> dues(RecurrenceRule rule, OffsetDateTime start, int max) {
+        List<OffsetDateTime> dues = new ArrayList<>();
+        Occurrence occurrence = rule.first(start);
+        while (occurrence != null && dues.size() < max) {
+            dues.add(occurrence.due());
+            occurrence = rule.next(start, occurrence);
+        }
+        return dues;
+    }
+}
@@ -0,0 +1,263 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.dto.TodoSortField;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InMemoryTodoRepositoryTest {
+
+    private static final String OWNER = "alice";
+    private static final OffsetDateTime NOW = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+
+    @TempDir
+    Path dir;
+
+    private InMemoryTodoRepository open() {
+        return new InMemoryTodoRepository(dir, false, 16, false);
+    }
+
+    @Test
+    void save_shouldAssignIdAndRoundTripAllFields() {
+        InMemoryTodoRepository repo = open();
+        TodoItem item = item("task", TodoStatus.NOT_DONE, NOW.plusDays(1));
+
+        UUID id = repo.save(item).getId();
+
+        TodoItem found = repo.findById(id).orElseThrow();
+        assertThat(found.getOwner()).isEqualTo(OWNER);
+        assertThat(found.getDescription()).isEqualTo("task");
+        assertThat(found.getStatus()).isEqualTo(TodoStatus.NOT_DONE);
+        assertThat(found.getDueDatetime()).isEqualTo(NOW.plusDays(1));
+        assertThat(found.getDoneDatetime()).isNull();
+        assertThat(found.getVersion()).isZero();
+    }
+
+    @Test
+    void saveAll_shouldJournalTheWholeBatch() {
+        InMemoryTodoRepository repo = open();
+
+        List<TodoItem> saved = repo.saveAll(List.of(
+                item("first", TodoStatus.NOT_DONE, NOW.plusDays(1)),
+                item("second", TodoStatus.NOT_DONE, NOW.plusDays(2))));
+
+        assertThat(saved).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+        assertThat(open().findByOwner(OWNER)).extracting(TodoItem::getDescription)
+                .containsExactlyInAnyOrder("first", "second");
+    }
+
+    @Test
+    void insertIfAbsent_shouldKeepThePresetIdAndInsertOnce() {
+        InMemoryTodoRepository repo = open();
+        TodoItem occurrence = item("weekly", TodoStatus.NOT_DONE, NOW.plusDays(1));
+        UUID id = UUID.randomUUID();
+        occurrence.setId(id);
+
+        assertThat(repo.insertIfAbsent(occurrence)).isTrue();
+        assertThat(repo.insertIfAbsent(occurrence)).isFalse();
+
+        assertThat(open().findByIdAndOwner(id, OWNER)).get()
+                .extracting(TodoItem::getDescription).isEqualTo("weekly");
+    }
+
+    @Test
+    void conditionalUpdates_shouldRespectPastDueAndVersion() {
+        InMemoryTodoRepository repo = open();
+        UUID id = repo.save(item("task", TodoStatus.NOT_DONE, NOW.minusHours(1))).getId();
+
+        assertThat(repo.markDoneUnlessPastDue(id, "bob", NOW)).isEmpty();
+        assertThat(repo.markDoneUnlessPastDue(id, OWNER, NOW)).get()
+                .extracting(TodoItem::getStatus).isEqualTo(TodoStatus.NOT_DONE);
+        assertThat(repo.markPastDueIfUnchanged(id, 0, TodoStatus.NOT_DONE, TodoStatus.PAST_DUE)).isZero();
+        assertThat(repo.markNotDoneUnlessPastDue(id, OWNER)).isPresent();
+        assertThat(repo.markPastDueIfUnchanged(id, 2, TodoStatus.NOT_DONE, TodoStatus.PAST_DUE)).isEqualTo(1);
+
+        assertThat(repo.markDoneUnlessPastDue(id, OWNER, NOW)).isEmpty();
+        assertThat(repo.updateDescriptionUnlessPastDue(id, OWNER, "changed")).isEmpty();
+        assertThat(repo.findById(id).orElseThrow().getStatus()).isEqualTo(TodoStatus.PAST_DUE);
+    }
+
+    @Test
+    void overdueIds_shouldPageInIdOrderAndMarkOnlyRowsStillOverdue() {
+        InMemoryTodoRepository repo = open();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(repo.save(item("overdue " + i, TodoStatus.NOT_DONE, NOW.minusHours(i + 1))).getId());
+        }
+        repo.save(item("later", TodoStatus.NOT_DONE, NOW.plusDays(1)));
+        ids.sort(Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned));
+
+        List<UUID> first = repo.findOverdueIds(NOW, null, 3);
+        List<UUID> second = repo.findOverdueIds(NOW, first.get(2), 3);
+        assertThat(first).containsExactlyElementsOf(ids.subList(0, 3));
+        assertThat(second).containsExactlyElementsOf(ids.subList(3, 5));
+
+        repo.markDoneUnlessPastDue(ids.get(0), OWNER, NOW);
+        List<TodoItem> marked = repo.markPastDue(first, NOW);
+
+        assertThat(marked).extracting(TodoItem::getId).containsExactlyInAnyOrder(ids.get(1), ids.get(2));
+        assertThat(marked).extracting(TodoItem::getStatus).containsOnly(TodoStatus.NOT_DONE);
+        assertThat(open().findById(ids.get(1)).orElseThrow().getStatus()).isEqualTo(TodoStatus.PAST_DUE);
+        assertThat(repo.findOverdueIds(NOW, null, 3)).containsExactlyElementsOf(ids.subList(3, 5));
+    }
+
+    @Test
+    void statusIndex_shouldServeDueQueriesAndCounts() {
+        InMemoryTodoRepository repo = open();
+        repo.save(item("overdue", TodoStatus.NOT_DONE, NOW.minusDays(1)));
+        repo.save(item("later", TodoStatus.NOT_DONE, NOW.plusDays(1)));
+        UUID doneId = repo.save(item("done", TodoStatus.NOT_DONE, NOW.minusDays(2))).getId();
+        repo.markDoneUnlessPastDue(doneId, OWNER, NOW);
+        TodoItem bobs = item("bob's", TodoStatus.NOT_DONE, NOW.minusHours(1));
+        bobs.setOwner("bob");
+        repo.save(bobs);
+
+        assertThat(repo.findByStatusAndDueDatetimeBefore(TodoStatus.NOT_DONE, NOW))
+                .extracting(TodoItem::getDescription).containsExactly("overdue", "bob's");
+        assertThat(repo.findByOwnerAndStatus(OWNER, TodoStatus.NOT_DONE))
+                .extracting(TodoItem::getDescription).containsExactly("overdue", "later");
+        assertThat(repo.findByOwner("bob")).extracting(TodoItem::getDescription).containsExactly("bob's");
+        assertThat(repo.countGroupByOwnerAndStatus())
+                .extracting(StatusCount::getOwner, StatusCount::getStatus, StatusCount::getCount)
+                .containsExactlyInAnyOrder(tuple(OWNER, TodoStatus.NOT_DONE, 2L), tuple(OWNER, TodoStatus.DONE, 1L),
+                        tuple("bob", TodoStatus.NOT_DONE, 1L));
+    }
+
+    @Test
+    void findFiltered_shouldMatchJpaSemantics() {
+        InMemoryTodoRepository repo = open();
+        repo.save(item("late", TodoStatus.NOT_DONE, NOW.plusDays(2)));
+        repo.save(item("soon", TodoStatus.NOT_DONE, NOW.plusHours(1)));
+        repo.save(item("done", TodoStatus.DONE, NOW.plusHours(1)));
+
+        TodoFilter filter = new TodoFilter(Set.of(TodoStatus.NOT_DONE), null, NOW.plusDays(3),
+                null, null, null, null, TodoSortField.DUE_DATETIME, Sort.Direction.DESC);
+        TodoFilter doneRange = new TodoFilter(Set.of(), null, null, null, null,
+                NOW.minusDays(1), null, TodoSortField.DONE_DATETIME, Sort.Direction.ASC);
+
+        assertThat(repo.findFiltered(OWNER, filter)).extracting(TodoItem::getDescription).containsExactly("late", "soon");
+        // rows without a done datetime never match a done range
+        assertThat(repo.findFiltered(OWNER, doneRange)).isEmpty();
+    }
+
+    @Test
+    void findArchivable_andDelete_shouldRemoveOldTerminalItems() {
+        InMemoryTodoRepository repo = open();
+        UUID oldDone = repo.save(item("old done", TodoStatus.NOT_DONE, NOW.minusDays(60))).getId();
+        repo.markDoneUnlessPastDue(oldDone, OWNER, NOW.minusDays(45));
+        repo.save(item("recent", TodoStatus.NOT_DONE, NOW.minusDays(2)));
+
+        List<TodoItem> archivable = repo.findArchivable(TodoStatus.DONE, TodoStatus.PAST_DUE,
+                NOW.minusDays(30), PageRequest.of(0, 10));
+        assertThat(archivable).extracting(TodoItem::getId).containsExactly(oldDone);
+
+        TodoItem stale = repo.findById(oldDone).orElseThrow();
+        stale.setVersion(stale.getVersion() - 1);
+        assertThat(repo.deleteIfUnchanged(List.of(stale))).isEmpty();
+
+        assertThat(repo.deleteIfUnchanged(archivable)).containsExactly(oldDone);
+        assertThat(repo.findById(oldDone)).isEmpty();
+        assertThat(repo.findAll()).hasSize(1);
+    }
+
+    @Test
+    void restart_shouldRecoverFromSnapshotAndJournal() throws Exception {
+        InMemoryTodoRepository repo = open();
+        UUID snapshotted = repo.save(item("in snapshot", TodoStatus.NOT_DONE, NOW.plusDays(1))).getId();
+        repo.snapshot();
+        UUID journaled = repo.save(item("in journal", TodoStatus.NOT_DONE, NOW.plusDays(2))).getId();
+        repo.markDoneUnlessPastDue(snapshotted, OWNER, NOW);
+        // simulate a crash: no final snapshot, plus a torn record at the end of the journal
+        Files.write(dir.resolve("todos.journal"), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        InMemoryTodoRepository recovered = open();
+
+        assertThat(recovered.size()).isEqualTo(2);
+        assertThat(recovered.findById(snapshotted).orElseThrow().getStatus()).isEqualTo(TodoStatus.DONE);
+        assertThat(recovered.findById(snapshotted).orElseThrow().getDoneDatetime()).isEqualTo(NOW);
+        assertThat(recovered.findById(journaled).orElseThrow().getDescription()).isEqualTo("in journal");
+        assertThat(recovered.findByIdAndOwner(journaled, OWNER)).isPresent();
+
+        UUID afterRecovery = recovered.save(item("after", TodoStatus.NOT_DONE, NOW)).getId();
+        assertThat(open().findById(afterRecovery)).isPresent();
+    }
+
+    @Test
+    void rollback_shouldUndoChangesMadeInTheTransaction() {
+        InMemoryTodoRepository repo = open();
+        UUID kept = repo.save(item("kept", TodoStatus.NOT_DONE, NOW.plusDays(1))).getId();
+
+        TransactionSynchronizationManager.initSynchronization();
+        UUID created;
+        try {
+            created = repo.save(item("created", TodoStatus.NOT_DONE, NOW.plusDays(1))).getId();
+            repo.markDoneUnlessPastDue(kept, OWNER, NOW);
+            repo.updateDescriptionUnlessPastDue(kept, OWNER, "changed");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(repo.findById(created)).isEmpty();
+        TodoItem restored = repo.findById(kept).orElseThrow();
+        assertThat(restored.getStatus()).isEqualTo(TodoStatus.NOT_DONE);
+        assertThat(restored.getDescription()).isEqualTo("kept");
+        assertThat(restored.getVersion()).isZero();
+        // the undo is journaled as well
+        assertThat(open().findById(created)).isEmpty();
+        assertThat(open().findById(kept).orElseThrow().getDescription()).isEqualTo("kept");
+    }
+
+    @Test
+    void snapshot_shouldKeepJournalRecordsWrittenAfterIt() {
+        InMemoryTodoRepository repo = open();
+        UUID first = repo.save(item("first", TodoStatus.NOT_DONE, NOW.plusDays(1))).getId();
+        repo.snapshot();
+        UUID second = repo.save(item("second", TodoStatus.NOT_DONE, NOW.plusDays(1))).getId();
+        repo.snapshot();
+        repo.markDoneUnlessPastDue(first, OWNER, NOW);
+
+        InMemoryTodoRepository recovered = open();
+
+        assertThat(recovered.findById(first).orElseThrow().getStatus()).isEqualTo(TodoStatus.DONE);
+        assertThat(recovered.findById(second)).isPresent();
+    }
+
+    @Test
+    void constructor_shouldRejectWriteBehind() {
+        assertThatThrownBy(() -> new InMemoryTodoRepository(dir, false, 16, true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private TodoItem item(String description, TodoStatus status, OffsetDateTime due) {
+        TodoItem item = new TodoItem();
+        item.setOwner(OWNER);
+        item.setDescription(description);
+        item.setStatus(status);
+        item.setCreationDatetime(NOW.minusDays(90));
+        item.setDueDatetime(due);
+        return item;
+    }
+}
@@ -0,0 +1,145 @@
+package com.tradebyte.todo_service.repository;
+
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the conditional mutations from many threads, each call in its own committed transaction.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoRepositoryConcurrencyTest {
+
+    private static final String OWNER = "alice";
+    private static final int THREADS = 16;
+    private static final int TOGGLES_PER_THREAD = 100;
+
+    @Autowired
+    private JpaTodoRepository repo;
+
+    @AfterEach
+    void cleanup() {
+        repo.deleteAll();
+    }
+
+    @Test
+    void concurrentToggles_shouldNeverLoseAnUpdate() throws Exception {
+        UUID id = repo.save(item(OffsetDateTime.now().plusDays(1))).getId();
+
+        List<Integer> applied = runConcurrently(thread -> {
+            int count = 0;
+            for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                boolean done = (thread + i) % 2 == 0;
+                if (done ? repo.markDoneUnlessPastDue(id, OWNER, OffsetDateTime.now()).isPresent()
+                        : repo.markNotDoneUnlessPastDue(id, OWNER).isPresent()) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        long total = applied.stream().mapToLong(Integer::longValue).sum();
+        assertThat(total).isEqualTo((long) THREADS * TOGGLES_PER_THREAD);
+        assertThat(repo.findById(id).orElseThrow().getVersion()).isEqualTo(total);
+    }
+
+    @Test
+    void pastDue_shouldNotOverwriteTransitionThatLandedAfterTheRead() {
+        UUID id = repo.save(item(OffsetDateTime.now().minusHours(1))).getId();
+        TodoItem readBySweep = repo.findById(id).orElseThrow();
+
+        assertThat(repo.markDoneUnlessPastDue(id, OWNER, OffsetDateTime.now())).isPresent();
+        int marked = repo.markPastDueIfUnchanged(id, readBySweep.getVersion(), TodoStatus.NOT_DONE, TodoStatus.PAST_DUE);
+
+        assertThat(marked).isZero();
+        assertThat(repo.findById(id).orElseThrow().getStatus()).isEqualTo(TodoStatus.DONE);
+    }
+
+    @Test
+    void concurrentTogglesAndSweep_shouldRejectEveryToggleAfterPastDue() throws Exception {
+        UUID id = repo.save(item(OffsetDateTime.now().minusHours(1))).getId();
+
+        List<Integer> results = runConcurrently(thread -> {
+            if (thread == 0) {
+                // the sweep retries with a fresh version until it wins or the todo is no longer NOT_DONE
+                while (true) {
+                    TodoItem current = repo.findById(id).orElseThrow();
+                    if (current.getStatus() != TodoStatus.NOT_DONE) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (repo.markPastDueIfUnchanged(id, current.getVersion(), TodoStatus.NOT_DONE, TodoStatus.PAST_DUE) == 1) {
+                        return 0;
+                    }
+                }
+            }
+            while (true) {
+                if (repo.markNotDoneUnlessPastDue(id, OWNER).isEmpty()) {
+                    return 1;
+                }
+                repo.markDoneUnlessPastDue(id, OWNER, OffsetDateTime.now());
+            }
+        });
+
+        TodoItem result = repo.findById(id).orElseThrow();
+        assertThat(result.getStatus()).isEqualTo(TodoStatus.PAST_DUE);
+        assertThat(results.subList(1, results.size())).containsOnly(1);
+        assertThat(repo.markDoneUnlessPastDue(id, OWNER, OffsetDateTime.now())).isEmpty();
+    }
+
+
+    private interface Worker {
+        int run(int thread) throws Exception;
+    }
+
+    private List<Integer> runConcurrently(Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return worker.run(thread);
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TodoItem item(OffsetDateTime due) {
+        TodoItem item = new TodoItem();
+        item.setOwner(OWNER);
+        item.setDescription("contended");
+        item.setStatus(TodoStatus.NOT_DONE);
+        item.setCreationDatetime(OffsetDateTime.now().minusDays(1));
+        item.setDueDatetime(due);
+        return item;
+    }
+}
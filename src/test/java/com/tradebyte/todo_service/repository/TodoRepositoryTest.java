@@ -1,24 +1,33 @@
 package com.tradebyte.todo_service.repository;
 
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.dto.TodoSortField;
 import com.tradebyte.todo_service.entity.TodoItem;
 import com.tradebyte.todo_service.entity.TodoStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
 class TodoRepositoryTest {
 
+    private static final String OWNER = "alice";
+
     @Autowired
-    private TodoRepository repo;
+    private JpaTodoRepository repo;
 
     @Test
     void saveAndFind_shouldWork() {
         TodoItem item = new TodoItem();
+        item.setOwner(OWNER);
         item.setDescription("Repo Test");
         item.setStatus(TodoStatus.NOT_DONE);
         item.setCreationDatetime(OffsetDateTime.now());
@@ -27,5 +36,110 @@ class TodoRepositoryTest {
         TodoItem saved = repo.save(item);
 
         assertThat(repo.findById(saved.getId())).isPresent();
+        assertThat(repo.findByIdAndOwner(saved.getId(), OWNER)).isPresent();
+        assertThat(repo.findByIdAndOwner(saved.getId(), "bob")).isEmpty();
+    }
+
+    @Test
+    void findFiltered_shouldApplyStatusAndDueRangeAndSort() {
+        OffsetDateTime now = OffsetDateTime.now();
+        repo.save(item("late", TodoStatus.NOT_DONE, now.plusDays(2)));
+        repo.save(item("soon", TodoStatus.NOT_DONE, now.plusHours(1)));
+        repo.save(item("done", TodoStatus.DONE, now.plusHours(1)));
+        TodoItem bobs = item("bob's", TodoStatus.NOT_DONE, now.plusDays(1));
+        bobs.setOwner("bob");
+        repo.save(bobs);
+
+        TodoFilter filter = new TodoFilter(Set.of(TodoStatus.NOT_DONE), null, now.plusDays(3),
+                null, null, null, null, TodoSortField.DUE_DATETIME, Sort.Direction.DESC);
+
+        assertThat(repo.findFiltered(OWNER, filter))
+                .extracting(TodoItem::getDescription)
+                .containsExactly("late", "soon");
+    }
+
+    @Test
+    void markDoneUnlessPastDue_shouldOnlyUpdateTheOwnersTodo() {
+        TodoItem saved = repo.save(item("mine", TodoStatus.NOT_DONE, OffsetDateTime.now().plusDays(1)));
+
+        assertThat(repo.markDoneUnlessPastDue(saved.getId(), "bob", OffsetDateTime.now())).isEmpty();
+        assertThat(repo.markDoneUnlessPastDue(saved.getId(), OWNER, OffsetDateTime.now())).isPresent();
+    }
+
+    @Test
+    void markDoneUnlessPastDue_shouldReturnThePreviousStateAndLeaveNoStaleEntity() {
+        TodoItem saved = repo.save(item("mine", TodoStatus.NOT_DONE, OffsetDateTime.now().plusDays(1)));
+
+        TodoItem before = repo.markDoneUnlessPastDue(saved.getId(), OWNER, OffsetDateTime.now()).orElseThrow();
+
+        assertThat(before.getStatus()).isEqualTo(TodoStatus.NOT_DONE);
+        TodoItem after = repo.findById(saved.getId()).orElseThrow();
+        assertThat(after.getStatus()).isEqualTo(TodoStatus.DONE);
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+    }
+
+    @Test
+    void markPastDue_shouldSkipTodosNoLongerNotDone() {
+        OffsetDateTime now = OffsetDateTime.now();
+        TodoItem overdue = repo.save(item("overdue", TodoStatus.NOT_DONE, now.minusHours(1)));
+        TodoItem done = repo.save(item("done", TodoStatus.DONE, now.minusHours(1)));
+
+        List<TodoItem> marked = repo.markPastDue(List.of(overdue.getId(), done.getId()), now);
+
+        assertThat(marked).extracting(TodoItem::getId).containsExactly(overdue.getId());
+        assertThat(marked.get(0).getStatus()).isEqualTo(TodoStatus.NOT_DONE);
+        assertThat(repo.findById(overdue.getId()).orElseThrow().getStatus()).isEqualTo(TodoStatus.PAST_DUE);
+        assertThat(repo.updateDescriptionUnlessPastDue(overdue.getId(), OWNER, "changed")).isEmpty();
+    }
+
+    @Test
+    void updateDescriptionUnlessPastDue_shouldReturnTheUpdatedTodo() {
+        TodoItem saved = repo.save(item("mine", TodoStatus.NOT_DONE, OffsetDateTime.now().plusDays(1)));
+
+        TodoItem updated = repo.updateDescriptionUnlessPastDue(saved.getId(), OWNER, "changed").orElseThrow();
+
+        TodoItem stored = repo.findById(saved.getId()).orElseThrow();
+        assertThat(updated.getDescription()).isEqualTo("changed");
+        assertThat(stored.getDescription()).isEqualTo("changed");
+        assertThat(updated.getVersion()).isEqualTo(stored.getVersion());
+    }
+
+    @Test
+    void findArchivable_shouldReturnOnlyOldTerminalItems() {
+        OffsetDateTime now = OffsetDateTime.now();
+        TodoItem oldDone = item("old done", TodoStatus.DONE, now.minusDays(60));
+        oldDone.setDoneDatetime(now.minusDays(45));
+        TodoItem recentDone = item("recent done", TodoStatus.DONE, now.minusDays(2));
+        recentDone.setDoneDatetime(now.minusDays(1));
+        repo.save(oldDone);
+        repo.save(recentDone);
+        repo.save(item("old past due", TodoStatus.PAST_DUE, now.minusDays(40)));
+        repo.save(item("old not done", TodoStatus.NOT_DONE, now.minusDays(40)));
+
+        assertThat(repo.findArchivable(TodoStatus.DONE, TodoStatus.PAST_DUE, now.minusDays(30), PageRequest.of(0, 10)))
+                .extracting(TodoItem::getDescription)
+                .containsExactlyInAnyOrder("old done", "old past due");
+    }
+
+    @Test
+    void deleteIfUnchanged_shouldKeepTodosChangedSinceTheyWereRead() {
+        OffsetDateTime now = OffsetDateTime.now();
+        TodoItem unchanged = repo.saveAndFlush(item("unchanged", TodoStatus.DONE, now.minusDays(40)));
+        TodoItem changed = repo.saveAndFlush(item("changed", TodoStatus.DONE, now.minusDays(40)));
+        repo.updateDescriptionUnlessPastDue(changed.getId(), OWNER, "edited");
+
+        assertThat(repo.deleteIfUnchanged(List.of(unchanged, changed))).containsExactly(unchanged.getId());
+        assertThat(repo.findById(unchanged.getId())).isEmpty();
+        assertThat(repo.findById(changed.getId())).isPresent();
+    }
+
+    private TodoItem item(String description, TodoStatus status, OffsetDateTime due) {
+        TodoItem item = new TodoItem();
+        item.setOwner(OWNER);
+        item.setDescription(description);
+        item.setStatus(status);
+        item.setCreationDatetime(OffsetDateTime.now());
+        item.setDueDatetime(due);
+        return item;
     }
 }
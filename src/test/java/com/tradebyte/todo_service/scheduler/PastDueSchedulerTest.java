@@ -1,19 +1,88 @@
 package com.tradebyte.todo_service.scheduler;
 
+import com.tradebyte.todo_service.service.DueWatermark;
 import com.tradebyte.todo_service.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PastDueSchedulerTest {
 
+    private static final Duration MAX_INTERVAL = Duration.ofMinutes(5);
+
+    private final TodoService service = mock(TodoService.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final DueWatermark watermark = new DueWatermark();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private PastDueScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        scheduler = new PastDueScheduler(service, watermark, taskScheduler, registry, true,
+                Duration.ofSeconds(1), MAX_INTERVAL);
+    }
+
     @Test
     void schedulerShouldInvokeService() {
-        TodoService service = mock(TodoService.class);
-        PastDueScheduler scheduler = new PastDueScheduler(service);
-
         scheduler.markPastDue();
 
         verify(service, times(1)).markPastDueIfRequired();
     }
+
+    @Test
+    void markPastDue_shouldScheduleTheNextRunWhenTheEarliestTodoIsDue() {
+        OffsetDateTime due = OffsetDateTime.now().plusMinutes(2).truncatedTo(ChronoUnit.MILLIS);
+        when(service.markPastDueIfRequired()).thenAnswer(inv -> {
+            watermark.offer(due);
+            return 0;
+        });
+
+        scheduler.markPastDue();
+
+        assertThat(scheduler.nextRun()).isEqualTo(due.toInstant());
+        verify(taskScheduler).schedule(any(Runnable.class), eq(due.toInstant()));
+    }
+
+    @Test
+    void markPastDue_shouldSleepAtMostTheMaxIntervalWhenNothingIsDue() {
+        Instant before = Instant.now();
+
+        scheduler.markPastDue();
+
+        assertThat(scheduler.nextRun()).isBetween(before.plus(MAX_INTERVAL), Instant.now().plus(MAX_INTERVAL));
+        assertThat(registry.get("todo.past_due.sweep.next_run").gauge().value()).isGreaterThan(0);
+    }
+
+    @Test
+    void anEarlierTodo_shouldMoveTheNextRunForward() {
+        scheduler.start();
+        scheduler.markPastDue();
+        OffsetDateTime due = OffsetDateTime.now().plusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+
+        watermark.offer(due);
+
+        assertThat(scheduler.nextRun()).isEqualTo(due.toInstant());
+    }
+
+    @Test
+    void markPastDue_shouldReportHowLateTheEarliestTodoWas() {
+        watermark.offer(OffsetDateTime.now().minusMinutes(2));
+
+        scheduler.markPastDue();
+
+        assertThat(registry.get("todo.past_due.sweep.lag").gauge().value()).isBetween(119.0, 125.0);
+        assertThat(registry.get("todo.past_due.sweep.runs").counter().count()).isEqualTo(1);
+    }
 }
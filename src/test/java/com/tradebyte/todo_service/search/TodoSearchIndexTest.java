@@ -0,0 +1,90 @@
+package com.tradebyte.todo_service.search;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TodoSearchIndexTest {
+
+    private static final String OWNER = "alice";
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new TodoSearchIndex(mock(TodoRepository.class));
+    }
+
+    @Test
+    void search_shouldMatchAllTermsWithLastTermAsPrefix() {
+        UUID milk = UUID.randomUUID();
+        UUID bread = UUID.randomUUID();
+        index.index(OWNER, milk, "Buy milk at the store", TodoStatus.NOT_DONE);
+        index.index(OWNER, bread, "Buy bread", TodoStatus.NOT_DONE);
+
+        SearchHits hits = index.search(OWNER, "buy mil", null, 0, 10);
+
+        assertThat(hits.ids()).containsExactly(milk);
+        assertThat(hits.total()).isEqualTo(1);
+    }
+
+    @Test
+    void search_shouldFilterByStatusAndPaginate() {
+        for (int i = 0; i < 5; i++) {
+            index.index(OWNER, UUID.randomUUID(), "report " + i, TodoStatus.NOT_DONE);
+        }
+        UUID done = UUID.randomUUID();
+        index.index(OWNER, done, "report done", TodoStatus.NOT_DONE);
+        index.updateStatus(done, TodoStatus.DONE);
+
+        SearchHits notDone = index.search(OWNER, "report", TodoStatus.NOT_DONE, 1, 2);
+        SearchHits onlyDone = index.search(OWNER, "report", TodoStatus.DONE, 0, 10);
+
+        assertThat(notDone.total()).isEqualTo(5);
+        assertThat(notDone.ids()).hasSize(2);
+        assertThat(onlyDone.ids()).containsExactly(done);
+    }
+
+    @Test
+    void index_shouldReplaceTokensOnDescriptionUpdate() {
+        UUID id = UUID.randomUUID();
+        index.index(OWNER, id, "Call Alice", TodoStatus.NOT_DONE);
+        index.index(OWNER, id, "Call Bob", TodoStatus.NOT_DONE);
+
+        assertThat(index.search(OWNER, "alice", null, 0, 10).ids()).isEmpty();
+        assertThat(index.search(OWNER, "bob", null, 0, 10).ids()).containsExactly(id);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void search_shouldOnlyMatchTheOwnersTodos() {
+        UUID mine = UUID.randomUUID();
+        index.index(OWNER, mine, "Quarterly report", TodoStatus.NOT_DONE);
+        index.index("bob", UUID.randomUUID(), "Quarterly report", TodoStatus.NOT_DONE);
+
+        assertThat(index.search(OWNER, "quarterly rep", null, 0, 10).ids()).containsExactly(mine);
+        assertThat(index.search("carol", "quarterly", null, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void removeAll_shouldDropPostingsAndReuseTheirSpace() {
+        UUID archived = UUID.randomUUID();
+        index.index(OWNER, archived, "Quarterly report", TodoStatus.DONE);
+        long indexed = index.estimatedMemoryBytes();
+
+        index.removeAll(List.of(archived, UUID.randomUUID()));
+        UUID next = UUID.randomUUID();
+        index.index(OWNER, next, "Quarterly report", TodoStatus.NOT_DONE);
+
+        assertThat(index.search(OWNER, "quarterly", null, 0, 10).ids()).containsExactly(next);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.estimatedMemoryBytes()).isEqualTo(indexed);
+    }
+}
@@ -0,0 +1,117 @@
+package com.tradebyte.todo_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.exception.IdempotencyKeyReusedException;
+import com.tradebyte.todo_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyStoreTest {
+
+    private IdempotencyKeyStore store(int maxEntries) {
+        return new IdempotencyKeyStore(mock(IdempotencyRecordRepository.class), new ObjectMapper(),
+                mock(PlatformTransactionManager.class), Duration.ofMinutes(5), maxEntries, false);
+    }
+
+    @Test
+    void execute_shouldCoalesceConcurrentDuplicates() throws Exception {
+        IdempotencyKeyStore store = store(100);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TodoResponse response = new TodoResponse(UUID.randomUUID(), "task", TodoStatus.NOT_DONE, null, null, null);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TodoResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> store.execute("create", "key-1", null, () -> {
+                    executions.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return response;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<TodoResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(response);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_shouldForgetFailedAttempts() {
+        IdempotencyKeyStore store = store(100);
+        TodoResponse response = new TodoResponse(UUID.randomUUID(), "task", TodoStatus.DONE, null, null, null);
+
+        assertThatThrownBy(() -> store.execute("done:x", "key-1", null, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.execute("done:x", "key-1", null, () -> response)).isSameAs(response);
+    }
+
+    @Test
+    void execute_shouldStayWithinMaxEntries() {
+        IdempotencyKeyStore store = store(10);
+        for (int i = 0; i < 50; i++) {
+            store.execute("create", "key-" + i, null,
+                    () -> new TodoResponse(UUID.randomUUID(), "task", TodoStatus.NOT_DONE, null, null, null));
+        }
+        assertThat(store.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void execute_shouldRejectAKeyReusedWithAnotherBody() {
+        IdempotencyKeyStore store = store(100);
+        TodoResponse response = new TodoResponse(UUID.randomUUID(), "task", TodoStatus.NOT_DONE, null, null, null);
+        store.execute("create", "key-1", Map.of("description", "task"), () -> response);
+
+        assertThat(store.execute("create", "key-1", Map.of("description", "task"), () -> null)).isSameAs(response);
+        assertThatThrownBy(() -> store.execute("create", "key-1", Map.of("description", "other"), () -> response))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void execute_shouldRollBackTheActionWhenTheRecordCannotBeStored() {
+        IdempotencyRecordRepository recordRepo = mock(IdempotencyRecordRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        IdempotencyKeyStore store = new IdempotencyKeyStore(recordRepo, new ObjectMapper(), transactionManager,
+                Duration.ofMinutes(5), 100, true);
+        when(recordRepo.save(any())).thenThrow(new IllegalStateException("disk full"));
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> store.execute("create", "key-1", null, () -> {
+            executions.incrementAndGet();
+            return new TodoResponse(UUID.randomUUID(), "task", TodoStatus.NOT_DONE, null, null, null);
+        })).hasMessage("disk full");
+
+        assertThat(executions).hasValue(1);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PastDueSweeperTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.now();
+
+    private final TodoRepository repo = mock(TodoRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private PastDueSweeper sweeper;
+
+    @AfterEach
+    void tearDown() {
+        sweeper.destroy();
+    }
+
+    @Test
+    void sweep_shouldMarkASmallBacklogInOneChunkOnTheCallingThread() {
+        sweeper = new PastDueSweeper(repo, transactionManager, 10, 4, 10, 2);
+        List<UUID> ids = ids(3);
+        when(repo.findOverdueIds(NOW, null, 10)).thenReturn(ids);
+        Thread caller = Thread.currentThread();
+
+        int marked = sweeper.sweep(NOW, chunk -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            return chunk.size();
+        });
+
+        assertThat(marked).isEqualTo(3);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void sweep_shouldSplitABacklogIntoChunksWithBoundedConcurrency() {
+        sweeper = new PastDueSweeper(repo, transactionManager, 100, 8, 5, 2);
+        List<UUID> ids = ids(1_050);
+        pageThrough(ids, 100);
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        int marked = sweeper.sweep(NOW, chunk -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.addAll(chunk);
+            running.decrementAndGet();
+            return chunk.size();
+        });
+
+        assertThat(marked).isEqualTo(1_050);
+        assertThat(seen).hasSize(1_050);
+        // 8 workers requested, but only 5 - 2 connections are left for the sweep
+        assertThat(sweeper.workers()).isEqualTo(3);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+        verify(transactionManager, times(11)).getTransaction(any());
+    }
+
+    @Test
+    void sweep_shouldRethrowAFailedChunkAfterTheOthersFinished() {
+        sweeper = new PastDueSweeper(repo, transactionManager, 10, 2, 10, 2);
+        pageThrough(ids(30), 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> sweeper.sweep(NOW, chunk -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            return chunk.size();
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    private void pageThrough(List<UUID> ids, int pageSize) {
+        for (int from = 0; from <= ids.size(); from += pageSize) {
+            UUID after = from == 0 ? null : ids.get(from - 1);
+            when(repo.findOverdueIds(NOW, after, pageSize))
+                    .thenReturn(new ArrayList<>(ids.subList(from, Math.min(from + pageSize, ids.size()))));
+        }
+    }
+
+    private static List<UUID> ids(int count) {
+        List<UUID> ids = IntStream.range(0, count)
+                .mapToObj(i -> new UUID(0, i + 1))
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(ids);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.entity.ArchivedTodoItem;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.TodoArchiveRepository;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import com.tradebyte.todo_service.search.TodoSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TodoArchiveServiceTest {
+
+    private TodoRepository repo;
+    private TodoArchiveRepository archiveRepo;
+    private TodoSearchIndex searchIndex;
+    private TodoArchiveService service;
+
+    @BeforeEach
+    void setup() {
+        repo = mock(TodoRepository.class);
+        archiveRepo = mock(TodoArchiveRepository.class);
+        searchIndex = mock(TodoSearchIndex.class);
+        service = new TodoArchiveService(repo, archiveRepo, searchIndex);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveChunk_shouldCopyToArchiveAndDeleteFromHotTable() {
+        TodoItem done = new TodoItem();
+        done.setId(UUID.randomUUID());
+        done.setOwner("alice");
+        done.setDescription("old");
+        done.setStatus(TodoStatus.DONE);
+        done.setDoneDatetime(OffsetDateTime.now().minusDays(40));
+        TodoItem reopened = new TodoItem();
+        reopened.setId(UUID.randomUUID());
+        reopened.setOwner("alice");
+        reopened.setStatus(TodoStatus.DONE);
+        when(repo.findArchivable(eq(TodoStatus.DONE), eq(TodoStatus.PAST_DUE), any(), any()))
+                .thenReturn(List.of(done, reopened));
+        // reopened was marked not done after the read, so its delete matched no row
+        when(repo.deleteIfUnchanged(List.of(done, reopened))).thenReturn(List.of(done.getId()));
+
+        int moved = service.archiveChunk(OffsetDateTime.now().minusDays(30), 100);
+
+        ArgumentCaptor<List<ArchivedTodoItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(archiveRepo).saveAll(captor.capture());
+        assertThat(moved).isEqualTo(1);
+        assertThat(captor.getValue()).singleElement()
+                .satisfies(a -> assertThat(a.getId()).isEqualTo(done.getId()))
+                .satisfies(a -> assertThat(a.getOwner()).isEqualTo("alice"))
+                .satisfies(a -> assertThat(a.getArchivedDatetime()).isNotNull());
+        verify(searchIndex).removeAll(Set.of(done.getId()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.tradebyte.todo_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoImportResponse;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TodoImportServiceTest {
+
+    private static final String OWNER = "alice";
+
+    private TodoService service;
+    private TodoImportService importer;
+    private final List<List<TodoCreateRequest>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        service = mock(TodoService.class);
+        when(service.createAll(eq(OWNER), any())).thenAnswer(inv -> {
+            List<TodoCreateRequest> chunk = inv.getArgument(1);
+            chunks.add(List.copyOf(chunk));
+            return chunk.size();
+        });
+        importer = new TodoImportService(service, new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 10, 100);
+    }
+
+    @Test
+    void importTodos_shouldWriteInChunks() throws Exception {
+        String body = """
+                {"description":"a","dueDatetime":"2030-01-01T00:00:00Z"}
+                {"description":"b","dueDatetime":"2030-01-01T00:00:00Z"}
+
+                {"description":"c","dueDatetime":"2030-01-01T00:00:00Z"}
+                """;
+
+        TodoImportResponse result = run(body, TodoImportService.Format.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(chunks).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    void importTodos_shouldReportInvalidLinesWithLineNumbers() throws Exception {
+        String body = """
+                {"description":"ok","dueDatetime":"2030-01-01T00:00:00Z"}
+                not json
+                {"description":"no due date"}
+                """;
+
+        TodoImportResponse result = run(body, TodoImportService.Format.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).extracting(TodoImportResponse.LineError::line).containsExactly(2L, 3L);
+        assertThat(result.errors().get(1).message()).startsWith("dueDatetime");
+    }
+
+    @Test
+    void importTodos_shouldParseCsvWithHeaderAndQuotes() throws Exception {
+        String body = """
+                description,dueDatetime
+                "Buy milk, eggs",2030-01-01T10:00:00+02:00
+                "Say ""hi""",2030-01-02T00:00:00Z
+                ,2030-01-03T00:00:00Z
+                """;
+
+        TodoImportResponse result = run(body, TodoImportService.Format.CSV);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(TodoImportResponse.LineError::line).containsExactly(4L);
+        assertThat(chunks.get(0)).extracting(TodoCreateRequest::description)
+                .containsExactly("Buy milk, eggs", "Say \"hi\"");
+        assertThat(chunks.get(0).get(0).dueDatetime()).isEqualTo(OffsetDateTime.parse("2030-01-01T10:00:00+02:00"));
+    }
+
+    @Test
+    void importTodos_shouldRejectOverlongLinesAndKeepReading() throws Exception {
+        String body = "{\"description\":\"" + "x".repeat(200) + "\",\"dueDatetime\":\"2030-01-01T00:00:00Z\"}\r\n"
+                + "{\"description\":\"ok\",\"dueDatetime\":\"2030-01-01T00:00:00Z\"}\r\n";
+
+        TodoImportResponse result = run(body, TodoImportService.Format.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting(TodoImportResponse.LineError::line).containsExactly(1L);
+        assertThat(result.errors().get(0).message()).isEqualTo("Line exceeds 100 characters");
+    }
+
+    @Test
+    void importTodos_shouldReturnCountsSoFarWhenAChunkFails() throws Exception {
+        doReturn(2).doThrow(new IllegalStateException("database unavailable"))
+                .when(service).createAll(eq(OWNER), any());
+        String body = """
+                {"description":"a","dueDatetime":"2030-01-01T00:00:00Z"}
+                {"description":"b","dueDatetime":"2030-01-01T00:00:00Z"}
+                {"description":"c","dueDatetime":"2030-01-01T00:00:00Z"}
+                {"description":"d","dueDatetime":"2030-01-01T00:00:00Z"}
+                {"description":"e","dueDatetime":"2030-01-01T00:00:00Z"}
+                """;
+
+        TodoImportResponse result = run(body, TodoImportService.Format.NDJSON);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.aborted()).isTrue();
+        assertThat(result.error()).contains("line 4").contains("database unavailable");
+        verify(service, times(2)).createAll(eq(OWNER), any());
+    }
+
+    @Test
+    void format_shouldMapContentTypes() {
+        assertThat(TodoImportService.format("text/csv; charset=UTF-8")).isEqualTo(TodoImportService.Format.CSV);
+        assertThat(TodoImportService.format("application/x-ndjson")).isEqualTo(TodoImportService.Format.NDJSON);
+        assertThatThrownBy(() -> TodoImportService.format("application/json"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TodoImportResponse run(String body, TodoImportService.Format format) throws Exception {
+        return importer.importTodos(OWNER, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
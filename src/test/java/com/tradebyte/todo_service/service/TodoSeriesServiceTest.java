@@ -0,0 +1,190 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.dto.TodoFilter;
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoSeriesRequest;
+import com.tradebyte.todo_service.dto.TodoSortField;
+import com.tradebyte.todo_service.entity.TodoItem;
+import com.tradebyte.todo_service.entity.TodoSeries;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.exception.ImmutablePastDueException;
+import com.tradebyte.todo_service.exception.InvalidRecurrenceRuleException;
+import com.tradebyte.todo_service.exception.SeriesDisabledException;
+import com.tradebyte.todo_service.repository.TodoSeriesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TodoSeriesServiceTest {
+
+    private static final String OWNER = "alice";
+
+    private TodoSeriesRepository repo;
+    private TodoService todos;
+    private TodoSeriesService service;
+
+    @BeforeEach
+    void setup() {
+        repo = mock(TodoSeriesRepository.class);
+        todos = mock(TodoService.class);
+        service = new TodoSeriesService(repo, todos, Duration.ofDays(7), 1_000, true);
+        when(repo.save(any(TodoSeries.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void create_shouldStoreOnlyOccurrencesWithinTheHorizon() {
+        OffsetDateTime firstDue = OffsetDateTime.now().plusHours(1);
+
+        var created = service.create(OWNER, new TodoSeriesRequest("standup", firstDue, "FREQ=DAILY"));
+
+        ArgumentCaptor<List<TodoItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(todos).insertOccurrences(eq(OWNER), captor.capture());
+        assertThat(captor.getValue()).hasSize(7)
+                .allSatisfy(item -> assertThat(item.getStatus()).isEqualTo(TodoStatus.NOT_DONE));
+        assertThat(captor.getValue().get(0).getDueDatetime()).isEqualTo(firstDue);
+        assertThat(captor.getValue().get(6).getId()).isEqualTo(TodoSeriesService.occurrenceId(created.id(), 6));
+        assertThat(created.nextDue()).isEqualTo(firstDue.plusDays(7));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void create_shouldSkipOccurrencesInThePast() {
+        OffsetDateTime firstDue = OffsetDateTime.now().minusDays(3).plusHours(1);
+
+        service.create(OWNER, new TodoSeriesRequest("standup", firstDue, "FREQ=DAILY;COUNT=5"));
+
+        ArgumentCaptor<List<TodoItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(todos).insertOccurrences(eq(OWNER), captor.capture());
+        assertThat(captor.getValue()).extracting(TodoItem::getDueDatetime)
+                .containsExactly(firstDue.plusDays(3), firstDue.plusDays(4));
+    }
+
+    @Test
+    void create_shouldRejectAnInvalidRule() {
+        assertThatThrownBy(() -> service.create(OWNER,
+                new TodoSeriesRequest("standup", OffsetDateTime.now(), "FREQ=HOURLY")))
+                .isInstanceOf(InvalidRecurrenceRuleException.class);
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void materializeChunk_shouldAdvanceTheCursorPastTheHorizon() {
+        OffsetDateTime nextDue = OffsetDateTime.now().plusDays(6).plusHours(12);
+        TodoSeries series = series(nextDue, 6);
+        when(repo.findByNextDueBeforeOrderByNextDue(any(), any(Pageable.class))).thenReturn(List.of(series));
+
+        assertThat(service.materializeChunk(10)).isEqualTo(1);
+
+        verify(todos).insertOccurrences(eq(OWNER), argThat(items -> items.size() == 1
+                && items.get(0).getId().equals(TodoSeriesService.occurrenceId(series.getId(), 6))));
+        assertThat(series.getNextDue()).isEqualTo(nextDue.plusDays(1));
+        assertThat(series.getNextIndex()).isEqualTo(7);
+    }
+
+    @Test
+    void withVirtualOccurrences_shouldMergeUnstoredOccurrencesInSortOrder() {
+        OffsetDateTime nextDue = OffsetDateTime.now().plusDays(7);
+        TodoSeries series = series(nextDue, 7);
+        when(repo.findByOwnerAndNextDueBefore(eq(OWNER), any())).thenReturn(List.of(series));
+        TodoResponse stored = new TodoResponse(UUID.randomUUID(), "stored", TodoStatus.NOT_DONE,
+                OffsetDateTime.now(), nextDue.plusHours(36), null);
+        TodoFilter filter = new TodoFilter(Set.of(TodoStatus.NOT_DONE), null, nextDue.plusDays(3),
+                null, null, null, null, TodoSortField.DUE_DATETIME, Sort.Direction.ASC);
+
+        List<TodoResponse> merged = service.withVirtualOccurrences(OWNER, filter, List.of(stored));
+
+        assertThat(merged).extracting(TodoResponse::dueDatetime)
+                .containsExactly(nextDue, nextDue.plusDays(1), stored.dueDatetime(), nextDue.plusDays(2));
+        assertThat(merged.get(0).id()).isEqualTo(TodoSeriesService.occurrenceId(series.getId(), 7));
+    }
+
+    @Test
+    void withVirtualOccurrences_shouldLeaveListsWithoutDueBoundAlone() {
+        List<TodoResponse> stored = List.of();
+        TodoFilter filter = new TodoFilter(Set.of(), null, null, null, null, null, null, null, null);
+
+        assertThat(service.withVirtualOccurrences(OWNER, filter, stored)).isSameAs(stored);
+        verify(repo, never()).findByOwnerAndNextDueBefore(any(), any());
+    }
+
+    @Test
+    void findVirtual_shouldResolveAnUnstoredOccurrenceById() {
+        OffsetDateTime nextDue = OffsetDateTime.now().plusDays(7);
+        TodoSeries series = series(nextDue, 7);
+        when(repo.findByIdAndOwner(series.getId(), OWNER)).thenReturn(Optional.of(series));
+        UUID id = TodoSeriesService.occurrenceId(series.getId(), 9);
+
+        assertThat(service.findVirtual(OWNER, id)).hasValueSatisfying(todo -> {
+            assertThat(todo.status()).isEqualTo(TodoStatus.NOT_DONE);
+            assertThat(todo.dueDatetime()).isEqualTo(nextDue.plusDays(2));
+        });
+        assertThat(service.findVirtual(OWNER, TodoSeriesService.occurrenceId(series.getId(), 6))).isEmpty();
+        assertThat(service.findVirtual(OWNER, TodoSeriesService.occurrenceId(series.getId(), 7 + 1_000))).isEmpty();
+        verify(repo, never()).findByOwner(any());
+    }
+
+    @Test
+    void storeVirtual_shouldStoreTheOccurrencesUpToItAndMoveTheCursor() {
+        OffsetDateTime nextDue = OffsetDateTime.now().plusDays(7);
+        TodoSeries series = series(nextDue, 7);
+        when(repo.findByIdAndOwner(series.getId(), OWNER)).thenReturn(Optional.of(series));
+
+        assertThat(service.storeVirtual(OWNER, TodoSeriesService.occurrenceId(series.getId(), 9))).isTrue();
+
+        verify(todos).insertOccurrences(eq(OWNER), argThat(items -> items.size() == 3
+                && items.get(2).getId().equals(TodoSeriesService.occurrenceId(series.getId(), 9))));
+        assertThat(series.getNextIndex()).isEqualTo(10);
+        assertThat(series.getNextDue()).isEqualTo(nextDue.plusDays(3));
+        assertThat(service.storeVirtual(OWNER, UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void storeVirtual_shouldRejectAnOverdueOccurrence() {
+        TodoSeries series = series(OffsetDateTime.now().minusHours(1), 7);
+        when(repo.findByIdAndOwner(series.getId(), OWNER)).thenReturn(Optional.of(series));
+
+        assertThatThrownBy(() -> service.storeVirtual(OWNER, TodoSeriesService.occurrenceId(series.getId(), 7)))
+                .isInstanceOf(ImmutablePastDueException.class);
+        verify(todos, never()).insertOccurrences(any(), any());
+    }
+
+    @Test
+    void disabled_shouldRejectSeriesEndpointsAndResolveNoVirtualTodos() {
+        TodoService otherTodos = mock(TodoService.class);
+        TodoSeriesService disabled = new TodoSeriesService(repo, otherTodos, Duration.ofDays(7), 1_000, false);
+
+        assertThatThrownBy(() -> disabled.list(OWNER)).isInstanceOf(SeriesDisabledException.class);
+        assertThatThrownBy(() -> disabled.delete(OWNER, UUID.randomUUID())).isInstanceOf(SeriesDisabledException.class);
+        assertThat(disabled.findVirtual(OWNER, UUID.randomUUID())).isEmpty();
+        verify(otherTodos, never()).useVirtualTodos(any());
+        verifyNoInteractions(repo);
+    }
+
+    private static TodoSeries series(OffsetDateTime nextDue, long nextIndex) {
+        TodoSeries series = new TodoSeries();
+        series.setId(TodoSeriesService.newSeriesId());
+        series.setOwner(OWNER);
+        series.setDescription("standup");
+        series.setRule("FREQ=DAILY");
+        series.setFirstDue(nextDue.minusDays(nextIndex));
+        series.setCreationDatetime(OffsetDateTime.now().minus(1, ChronoUnit.HOURS));
+        series.setNextDue(nextDue);
+        series.setNextIndex(nextIndex);
+        return series;
+    }
+}
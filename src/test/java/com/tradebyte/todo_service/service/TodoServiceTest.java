@@ -1,31 +1,51 @@
 package com.tradebyte.todo_service.service;
 
+import com.tradebyte.todo_service.cache.TenantKey;
 import com.tradebyte.todo_service.dto.TodoCreateRequest;
+import com.tradebyte.todo_service.dto.TodoResponse;
 import com.tradebyte.todo_service.dto.TodoUpdateRequest;
 import com.tradebyte.todo_service.entity.TodoItem;
 import com.tradebyte.todo_service.entity.TodoStatus;
 import com.tradebyte.todo_service.exception.ImmutablePastDueException;
 import com.tradebyte.todo_service.exception.NotFoundException;
 import com.tradebyte.todo_service.repository.TodoRepository;
+import com.tradebyte.todo_service.search.TodoSearchIndex;
+import com.tradebyte.todo_service.writebehind.TodoWriteBehindBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class TodoServiceTest {
 
+    private static final String OWNER = "alice";
+
     private TodoRepository repo;
+    private TodoSearchIndex searchIndex;
+    private TodoStatistics statistics;
+    private TodoWriteBehindBuffer writeBehind;
+    private ConcurrentMapCacheManager caches;
     private TodoService service;
 
     @BeforeEach
     void setup() {
         repo = mock(TodoRepository.class);
-        service = new TodoService(repo);
+        searchIndex = mock(TodoSearchIndex.class);
+        statistics = mock(TodoStatistics.class);
+        writeBehind = mock(TodoWriteBehindBuffer.class);
+        caches = new ConcurrentMapCacheManager();
+        service = new TodoService(repo, searchIndex, statistics,
+                mock(TodoArchiveService.class), writeBehind, new DueWatermark(),
+                new PastDueSweeper(repo, mock(PlatformTransactionManager.class), 1_000, 2, 10, 2),
+                caches, mock(PlatformTransactionManager.class));
     }
 
     @Test
@@ -44,10 +64,12 @@ class TodoServiceTest {
 
         when(repo.save(any(TodoItem.class))).thenReturn(saved);
 
-        var result = service.create(req);
+        var result = service.create(OWNER, req);
 
         assertThat(result.status()).isEqualTo(TodoStatus.NOT_DONE);
-        verify(repo).save(any());
+        ArgumentCaptor<TodoItem> captor = ArgumentCaptor.forClass(TodoItem.class);
+        verify(repo).save(captor.capture());
+        assertThat(captor.getValue().getOwner()).isEqualTo(OWNER);
     }
 
     @Test
@@ -57,11 +79,11 @@ class TodoServiceTest {
         item.setId(id);
         item.setStatus(TodoStatus.PAST_DUE);
 
-        when(repo.findById(id)).thenReturn(Optional.of(item));
+        when(repo.findByIdAndOwner(id, OWNER)).thenReturn(Optional.of(item));
 
         TodoUpdateRequest req = new TodoUpdateRequest("updated");
 
-        assertThatThrownBy(() -> service.updateDescription(id, req))
+        assertThatThrownBy(() -> service.updateDescription(OWNER, id, req))
                 .isInstanceOf(ImmutablePastDueException.class);
     }
 
@@ -72,10 +94,9 @@ class TodoServiceTest {
         item.setId(id);
         item.setStatus(TodoStatus.NOT_DONE);
 
-        when(repo.findById(id)).thenReturn(Optional.of(item));
-        when(repo.save(item)).thenReturn(item);
+        when(repo.markDoneUnlessPastDue(eq(id), eq(OWNER), any())).thenReturn(Optional.of(item));
 
-        var resp = service.markDone(id);
+        var resp = service.markDone(OWNER, id);
 
         assertThat(resp.status()).isEqualTo(TodoStatus.DONE);
         assertThat(resp.doneDatetime()).isNotNull();
@@ -84,9 +105,56 @@ class TodoServiceTest {
     @Test
     void getById_notFoundShouldThrow() {
         UUID id = UUID.randomUUID();
-        when(repo.findById(id)).thenReturn(Optional.empty());
+        when(repo.findByIdAndOwner(id, OWNER)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getById(OWNER, id))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void getById_shouldReturnAVirtualTodo() {
+        UUID id = UUID.randomUUID();
+        TodoResponse virtual = new TodoResponse(id, "standup", TodoStatus.NOT_DONE,
+                OffsetDateTime.now(), OffsetDateTime.now().plusDays(10), null);
+        TodoService.VirtualTodos virtualTodos = mock(TodoService.VirtualTodos.class);
+        when(virtualTodos.findVirtual(OWNER, id)).thenReturn(Optional.of(virtual));
+        service.useVirtualTodos(virtualTodos);
+
+        assertThat(service.getById(OWNER, id)).isEqualTo(virtual);
+    }
+
+    @Test
+    void markDone_shouldStoreAVirtualTodoThenRetry() {
+        UUID id = UUID.randomUUID();
+        TodoItem stored = new TodoItem();
+        stored.setId(id);
+        stored.setOwner(OWNER);
+        stored.setStatus(TodoStatus.NOT_DONE);
+        TodoService.VirtualTodos virtualTodos = mock(TodoService.VirtualTodos.class);
+        when(virtualTodos.storeVirtual(OWNER, id)).thenReturn(true);
+        service.useVirtualTodos(virtualTodos);
+        when(repo.markDoneUnlessPastDue(eq(id), eq(OWNER), any()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+
+        assertThat(service.markDone(OWNER, id).status()).isEqualTo(TodoStatus.DONE);
+        verify(virtualTodos).storeVirtual(OWNER, id);
+        verify(repo, times(2)).markDoneUnlessPastDue(eq(id), eq(OWNER), any());
+    }
+
+    @Test
+    void markDone_shouldReportNotFoundForAnotherOwnersTodo() {
+        UUID id = UUID.randomUUID();
+        TodoItem bobs = new TodoItem();
+        bobs.setId(id);
+        bobs.setOwner("bob");
+        bobs.setStatus(TodoStatus.NOT_DONE);
 
-        assertThatThrownBy(() -> service.getById(id))
+        when(repo.findById(id)).thenReturn(Optional.of(bobs));
+        when(repo.markDoneUnlessPastDue(eq(id), eq(OWNER), any())).thenReturn(Optional.empty());
+        when(repo.findByIdAndOwner(id, OWNER)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.markDone(OWNER, id))
                 .isInstanceOf(NotFoundException.class);
     }
 
@@ -97,12 +165,92 @@ class TodoServiceTest {
         notDone.setStatus(TodoStatus.NOT_DONE);
         notDone.setDueDatetime(OffsetDateTime.now().minusHours(1));
 
-        when(repo.findByStatusAndDueDatetimeBefore(eq(TodoStatus.NOT_DONE), any()))
-                .thenReturn(List.of(notDone));
+        when(repo.findOverdueIds(any(), isNull(), anyInt())).thenReturn(List.of(notDone.getId()));
+        when(repo.markPastDue(eq(List.of(notDone.getId())), any())).thenReturn(List.of(notDone));
 
         int count = service.markPastDueIfRequired();
 
         assertThat(count).isEqualTo(1);
-        assertThat(notDone.getStatus()).isEqualTo(TodoStatus.PAST_DUE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void markPastDueIfRequired_shouldEvictOnlyMarkedTodosAndTheirOwnersLists() {
+        TodoItem notDone = new TodoItem();
+        notDone.setId(UUID.randomUUID());
+        notDone.setOwner(OWNER);
+        notDone.setStatus(TodoStatus.NOT_DONE);
+        notDone.setDueDatetime(OffsetDateTime.now().minusHours(1));
+        UUID untouched = UUID.randomUUID();
+        caches.getCache("todoById").put(TenantKey.of(OWNER, notDone.getId()), "cached");
+        caches.getCache("todoById").put(TenantKey.of(OWNER, untouched), "cached");
+        caches.getCache("todoList").put(OWNER, "cached");
+        caches.getCache("todoList").put("bob", "cached");
+
+        when(repo.findOverdueIds(any(), isNull(), anyInt())).thenReturn(List.of(notDone.getId()));
+        when(repo.markPastDue(eq(List.of(notDone.getId())), any())).thenReturn(List.of(notDone));
+
+        service.markPastDueIfRequired();
+
+        assertThat(caches.getCache("todoById").get(TenantKey.of(OWNER, notDone.getId()))).isNull();
+        assertThat(caches.getCache("todoById").get(TenantKey.of(OWNER, untouched))).isNotNull();
+        assertThat(caches.getCache("todoList").get(OWNER)).isNull();
+        assertThat(caches.getCache("todoList").get("bob")).isNotNull();
+    }
+
+    @Test
+    void markPastDueIfRequired_shouldKeepCachesWhenNothingWasMarked() {
+        caches.getCache("todoList").put(OWNER, "cached");
+        when(repo.findOverdueIds(any(), isNull(), anyInt())).thenReturn(List.of());
+
+        service.markPastDueIfRequired();
+
+        assertThat(caches.getCache("todoList").get(OWNER)).isNotNull();
+    }
+
+    @Test
+    void markPastDueIfRequired_shouldSkipItemsChangedSinceRead() {
+        TodoItem changed = new TodoItem();
+        changed.setId(UUID.randomUUID());
+        changed.setStatus(TodoStatus.NOT_DONE);
+        changed.setDueDatetime(OffsetDateTime.now().minusHours(1));
+
+        when(repo.findOverdueIds(any(), isNull(), anyInt())).thenReturn(List.of(changed.getId()));
+        when(repo.markPastDue(any(), any())).thenReturn(List.of());
+
+        assertThat(service.markPastDueIfRequired()).isZero();
+    }
+
+    @Test
+    void markDone_shouldReportPastDueWhenConditionalUpdateMatchesNothing() {
+        UUID id = UUID.randomUUID();
+        TodoItem pastDue = new TodoItem();
+        pastDue.setId(id);
+        pastDue.setStatus(TodoStatus.PAST_DUE);
+
+        when(repo.markDoneUnlessPastDue(eq(id), eq(OWNER), any())).thenReturn(Optional.empty());
+        when(repo.findByIdAndOwner(id, OWNER)).thenReturn(Optional.of(pastDue));
+
+        assertThatThrownBy(() -> service.markDone(OWNER, id))
+                .isInstanceOf(ImmutablePastDueException.class);
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectedBufferedTransition_shouldBeUndoneInStatisticsAndSearch() {
+        ArgumentCaptor<Consumer<TodoWriteBehindBuffer.RejectedTransition>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(writeBehind).onRejected(listener.capture());
+        UUID id = UUID.randomUUID();
+        TodoItem pastDue = new TodoItem();
+        pastDue.setId(id);
+        pastDue.setStatus(TodoStatus.PAST_DUE);
+        when(repo.findById(id)).thenReturn(Optional.of(pastDue));
+        TodoResponse notDone = new TodoResponse(id, "task", TodoStatus.NOT_DONE, null, null, null);
+        TodoResponse done = new TodoResponse(id, "task", TodoStatus.DONE, null, null, OffsetDateTime.now());
+
+        listener.getValue().accept(new TodoWriteBehindBuffer.RejectedTransition(OWNER, done, notDone));
+
+        verify(statistics).recordTransition(OWNER, done, notDone);
+        verify(searchIndex).updateStatus(id, TodoStatus.PAST_DUE);
+    }
+}
@@ -0,0 +1,113 @@
+package com.tradebyte.todo_service.service;
+
+import com.tradebyte.todo_service.dto.TodoResponse;
+import com.tradebyte.todo_service.dto.TodoStatsResponse;
+import com.tradebyte.todo_service.entity.TodoStatus;
+import com.tradebyte.todo_service.repository.StatusCount;
+import com.tradebyte.todo_service.repository.TodoArchiveRepository;
+import com.tradebyte.todo_service.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TodoStatisticsTest {
+
+    private static final String OWNER = "alice";
+
+    private TodoRepository repo;
+    private TodoStatistics statistics;
+
+    @BeforeEach
+    void setup() {
+        repo = mock(TodoRepository.class);
+        statistics = new TodoStatistics(repo, mock(TodoArchiveRepository.class));
+    }
+
+    @Test
+    void transitions_shouldMoveCountsAndBuckets() {
+        OffsetDateTime now = OffsetDateTime.now();
+        TodoResponse created = new TodoResponse(UUID.randomUUID(), "task", TodoStatus.NOT_DONE,
+                now.minusMinutes(30), now.plusMinutes(30), null);
+        TodoResponse done = new TodoResponse(created.id(), "task", TodoStatus.DONE,
+                created.creationDatetime(), created.dueDatetime(), now);
+
+        statistics.recordCreated(OWNER, created);
+        TodoStatsResponse afterCreate = statistics.snapshot(OWNER);
+        statistics.recordTransition(OWNER, created, done);
+        TodoStatsResponse afterDone = statistics.snapshot(OWNER);
+
+        assertThat(afterCreate.counts()).containsEntry(TodoStatus.NOT_DONE, 1L);
+        assertThat(afterCreate.dueSoon()).containsEntry("within1h", 1L);
+        assertThat(afterDone.counts())
+                .containsEntry(TodoStatus.NOT_DONE, 0L)
+                .containsEntry(TodoStatus.DONE, 1L);
+        assertThat(afterDone.dueSoon()).containsEntry("within7d", 0L);
+        assertThat(afterDone.completionTime()).containsEntry("lt1h", 1L);
+        assertThat(statistics.snapshot("bob").counts()).containsEntry(TodoStatus.DONE, 0L);
+    }
+
+    @Test
+    void reconcile_shouldCorrectTotalsOutsideTheDueWindow() {
+        OffsetDateTime now = OffsetDateTime.now();
+        statistics.recordCreated(OWNER, new TodoResponse(UUID.randomUUID(), "late", TodoStatus.NOT_DONE,
+                now.minusDays(3), now.minusDays(2), null));
+        statistics.recordCreated(OWNER, new TodoResponse(UUID.randomUUID(), "later", TodoStatus.NOT_DONE,
+                now.minusDays(3), now.minusDays(1), null));
+        when(repo.countDueBefore(eq(TodoStatus.NOT_DONE), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{OWNER, 3L}));
+        when(repo.countDueFrom(eq(TodoStatus.NOT_DONE), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{OWNER, 4L}));
+
+        statistics.reconcile();
+
+        TodoStatsResponse stats = statistics.snapshot(OWNER);
+        assertThat(stats.dueSoon())
+                .containsEntry("overdue", 3L)
+                .containsEntry("within7d", 0L);
+    }
+
+    @Test
+    void reconcile_shouldCorrectDriftFromGroupBy() {
+        StatusCount pastDue = mock(StatusCount.class);
+        when(pastDue.getOwner()).thenReturn(OWNER);
+        when(pastDue.getStatus()).thenReturn(TodoStatus.PAST_DUE);
+        when(pastDue.getCount()).thenReturn(7L);
+        when(repo.countGroupByOwnerAndStatus()).thenReturn(List.of(pastDue));
+
+        statistics.reconcile();
+
+        assertThat(statistics.snapshot(OWNER).counts())
+                .containsEntry(TodoStatus.PAST_DUE, 7L)
+                .containsEntry(TodoStatus.NOT_DONE, 0L);
+    }
+
+    @Test
+    void reconcile_shouldRebuildDueBucketsAndCompletionHistogram() {
+        OffsetDateTime now = OffsetDateTime.now();
+        TodoResponse lost = new TodoResponse(UUID.randomUUID(), "rolled back", TodoStatus.NOT_DONE,
+                now, now.plusMinutes(30), null);
+        statistics.recordCreated(OWNER, lost);
+        long inFiveHours = Math.floorDiv(now.plusHours(5).toEpochSecond(), 60);
+        when(repo.countDueByMinute(eq(TodoStatus.NOT_DONE), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{OWNER, inFiveHours, 1L}));
+        when(repo.countByCompletionBucket(TodoStatus.DONE))
+                .thenReturn(List.<Object[]>of(new Object[]{OWNER, 2, 1L}));
+
+        statistics.reconcile();
+
+        TodoStatsResponse stats = statistics.snapshot(OWNER);
+        assertThat(stats.dueSoon())
+                .containsEntry("within1h", 0L)
+                .containsEntry("within24h", 1L);
+        assertThat(stats.completionTime())
+                .containsEntry("lt1h", 0L)
+                .containsEntry("lt7d", 1L);
+    }
+}
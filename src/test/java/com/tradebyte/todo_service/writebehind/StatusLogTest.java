@@ -0,0 +1,97 @@
+package com.tradebyte.todo_service.writebehind;
+
+import com.tradebyte.todo_service.entity.TodoStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StatusLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recover_shouldReturnTransitionsOfUnflushedSegmentsInOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        OffsetDateTime done = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 6_000, ZoneOffset.UTC);
+
+        StatusLog log = StatusLog.open(dir, 16, false);
+        log.reset();
+        log.append(first, TodoStatus.DONE, done);
+        log.rotate();
+        log.append(second, TodoStatus.DONE, done);
+        log.append(first, TodoStatus.NOT_DONE, null);
+        log.close();
+
+        List<StatusLog.Entry> entries = StatusLog.open(dir, 16, false).recover();
+
+        assertThat(entries).containsExactly(
+                new StatusLog.Entry(first, TodoStatus.DONE, done),
+                new StatusLog.Entry(second, TodoStatus.DONE, done),
+                new StatusLog.Entry(first, TodoStatus.NOT_DONE, null));
+    }
+
+    @Test
+    void recover_shouldSkipRetiredSegmentsAndStaleRecords() {
+        UUID flushed = UUID.randomUUID();
+        UUID open = UUID.randomUUID();
+
+        StatusLog log = StatusLog.open(dir, 16, false);
+        log.reset();
+        log.append(flushed, TodoStatus.DONE, OffsetDateTime.now());
+        log.append(flushed, TodoStatus.NOT_DONE, null);
+        int sealed = log.rotate();
+        log.retire(sealed);
+        log.append(open, TodoStatus.DONE, null);
+        log.rotate();
+        // the reused segment still holds two records from its previous epoch
+        log.close();
+
+        assertThat(StatusLog.open(dir, 16, false).recover())
+                .containsExactly(new StatusLog.Entry(open, TodoStatus.DONE, null));
+    }
+
+    @Test
+    void recover_shouldSkipRecordsOfAnEarlierRunAfterReopenAndReset() {
+        UUID previousRun = UUID.randomUUID();
+        UUID thisRun = UUID.randomUUID();
+
+        StatusLog log = StatusLog.open(dir, 16, false);
+        log.reset();
+        log.append(previousRun, TodoStatus.DONE, null);
+        log.append(previousRun, TodoStatus.NOT_DONE, null);
+        int sealed = log.rotate();
+        log.retire(sealed);
+        log.retire(1 - sealed);
+        log.close();
+
+        // clean restart: both segments retired, the first one holds two old records
+        StatusLog reopened = StatusLog.open(dir, 16, false);
+        assertThat(reopened.recover()).isEmpty();
+        reopened.reset();
+        reopened.append(thisRun, TodoStatus.DONE, null);
+        reopened.close();
+
+        // crash: the old records sit behind the new one in the same segment
+        assertThat(StatusLog.open(dir, 16, false).recover())
+                .containsExactly(new StatusLog.Entry(thisRun, TodoStatus.DONE, null));
+    }
+
+    @Test
+    void append_shouldReportFullSegment() {
+        StatusLog log = StatusLog.open(dir, 1, false);
+        log.reset();
+
+        assertThat(log.append(UUID.randomUUID(), TodoStatus.DONE, null)).isTrue();
+        assertThat(log.append(UUID.randomUUID(), TodoStatus.DONE, null)).isFalse();
+        log.close();
+    }
+}
@@ -0,0 +1,55 @@
+#!/bin/bash
+# Measures time-to-first-request and startup RSS of the boot jar.
+#   ./startup-bench.sh                 # default profile
+#   ./startup-bench.sh fast-start      # fast-start profile
+#   ./startup-bench.sh fast-start cds  # fast-start profile + CDS archive (./gradlew cdsArchive first)
+
+PROFILE=${1:-default}
+MODE=${2:-jar}
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+TIMEOUT_S=${TIMEOUT_S:-120}
+URL="http://localhost:$PORT/api/v1/todos"
+
+if [ "$MODE" = "cds" ]; then
+  cd build/cds || { echo "❌ build/cds not found, run ./gradlew cdsArchive"; exit 1; }
+  JAR=$(ls todo-service-*.jar | head -1)
+  JAVA_OPTS="-XX:SharedArchiveFile=application.jsa"
+else
+  JAR=$(ls build/libs/todo-service-*-SNAPSHOT.jar | grep -v plain | head -1)
+  JAVA_OPTS=""
+fi
+
+echo "⏱ profile=$PROFILE mode=$MODE runs=$RUNS jar=$JAR"
+for i in $(seq 1 "$RUNS"); do
+  START=$(date +%s%N)
+  java $JAVA_OPTS -jar "$JAR" \
+    --spring.profiles.active="$PROFILE" \
+    --server.port="$PORT" \
+    --spring.datasource.url="jdbc:h2:mem:bench$i" \
+    --spring.jpa.hibernate.ddl-auto=create \
+    --logging.level.root=WARN > /dev/null 2>&1 &
+  PID=$!
+
+  # -f: only a 2xx counts as ready; give up if the JVM died or the timeout passed
+  DEADLINE=$(( START + TIMEOUT_S * 1000000000 ))
+  until curl -fs -o /dev/null -u admin:admin "$URL"; do
+    if ! kill -0 $PID 2>/dev/null; then
+      echo "❌ run $i: the service exited before answering"
+      exit 1
+    fi
+    if [ "$(date +%s%N)" -gt "$DEADLINE" ]; then
+      echo "❌ run $i: no successful response within ${TIMEOUT_S}s"
+      kill $PID
+      wait $PID 2>/dev/null
+      exit 1
+    fi
+    sleep 0.02
+  done
+  END=$(date +%s%N)
+  RSS_KB=$(grep VmRSS /proc/$PID/status | awk '{print $2}')
+
+  echo "run $i: time-to-first-request=$(( (END - START) / 1000000 )) ms rss=$(( RSS_KB / 1024 )) MB"
+  kill $PID
+  wait $PID 2>/dev/null
+done